@@ -26,14 +26,25 @@ import java.io.StringWriter;
 import java.io.UnsupportedEncodingException;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Queue;
 import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -66,6 +77,9 @@ public class Checker extends AutomaticBean implements MessageDispatcher, RootMod
     /** Message to use when an exception occurs and should be printed as a violation. */
     public static final String EXCEPTION_MSG = "general.exception";
 
+    /** The number of files which may wait for their events per worker thread. */
+    private static final int PENDING_FILES_PER_THREAD = 2;
+
     /** Logger for Checker. */
     private final Log log;
 
@@ -79,6 +93,15 @@ public class Checker extends AutomaticBean implements MessageDispatcher, RootMod
     /** Vector of fileset checks. */
     private final List<FileSetCheck> fileSetChecks = new ArrayList<>();
 
+    /**
+     * Fileset checks of the worker threads in multi thread mode, one list per thread.
+     * The first list holds the instances from {@link #fileSetChecks}, the others hold
+     * own copies of them. Checks with {@link GlobalStatefulCheck} and checks added by
+     * {@link #addFileSetCheck(FileSetCheck)} are not copied, they are run by the
+     * calling thread in the order of the files.
+     */
+    private final List<List<FileSetCheck>> workerFileSetChecks = new ArrayList<>();
+
     /** The audit event before execution file filters. */
     private final BeforeExecutionFileFilterSet beforeExecutionFileFilters =
             new BeforeExecutionFileFilterSet();
@@ -124,12 +147,18 @@ public class Checker extends AutomaticBean implements MessageDispatcher, RootMod
     /** Cache file. **/
     private PropertyCacheFile cacheFile;
 
+    /** Whether the cache keeps the content hashes of files instead of their timestamps. */
+    private boolean cacheContentHash;
+
     /** Controls whether exceptions should halt execution or not. */
     private boolean haltOnException = true;
 
     /** The tab width for column reporting. */
     private int tabWidth = CommonUtil.DEFAULT_TAB_WIDTH;
 
+    /** The number of threads used to process files. */
+    private int checkerThreadsNumber = 1;
+
     /**
      * Creates a new {@code Checker} instance.
      * The instance needs to be contextualized and configured.
@@ -148,9 +177,26 @@ public class Checker extends AutomaticBean implements MessageDispatcher, RootMod
     public void setCacheFile(String fileName) throws IOException {
         final Configuration configuration = getConfiguration();
         cacheFile = new PropertyCacheFile(configuration, fileName);
+        cacheFile.setContentHash(cacheContentHash);
+        if (moduleClassLoader != null) {
+            cacheFile.setModuleClassLoader(moduleClassLoader);
+        }
         cacheFile.load();
     }
 
+    /**
+     * Sets whether the cache keeps the content hashes of files instead of their
+     * timestamps, so it stays valid when the files are checked out again.
+     *
+     * @param cacheContentHash whether to keep the content hashes of files in cache.
+     */
+    public void setCacheContentHash(boolean cacheContentHash) {
+        this.cacheContentHash = cacheContentHash;
+        if (cacheFile != null) {
+            cacheFile.setContentHash(cacheContentHash);
+        }
+    }
+
     /**
      * Removes before execution file filter.
      *
@@ -173,6 +219,7 @@ public class Checker extends AutomaticBean implements MessageDispatcher, RootMod
     public void destroy() {
         listeners.clear();
         fileSetChecks.clear();
+        workerFileSetChecks.clear();
         beforeExecutionFileFilters.clear();
         filters.clear();
         if (cacheFile != null) {
@@ -211,21 +258,30 @@ public class Checker extends AutomaticBean implements MessageDispatcher, RootMod
 
         // Prepare to start
         fireAuditStarted();
-        for (final FileSetCheck fsc : fileSetChecks) {
+        // the first worker thread uses the instances from fileSetChecks
+        final List<FileSetCheck> allFileSetChecks = Stream.concat(fileSetChecks.stream(),
+                workerFileSetChecks.stream().skip(1).flatMap(List::stream))
+                .collect(Collectors.toList());
+        for (final FileSetCheck fsc : allFileSetChecks) {
             fsc.beginProcessing(charset);
         }
 
         final List<File> targetFiles = files.stream()
                 .filter(file -> CommonUtil.matchesFileExtension(file, fileExtensions))
                 .collect(Collectors.toList());
-        processFiles(targetFiles);
+        if (checkerThreadsNumber > 1) {
+            processFilesInParallel(targetFiles);
+        }
+        else {
+            processFiles(targetFiles);
+        }
 
         // Finish up
         // It may also log!!!
-        fileSetChecks.forEach(FileSetCheck::finishProcessing);
+        allFileSetChecks.forEach(FileSetCheck::finishProcessing);
 
         // It may also log!!!
-        fileSetChecks.forEach(FileSetCheck::destroy);
+        allFileSetChecks.forEach(FileSetCheck::destroy);
 
         final int errorCount = counter.getCount();
         fireAuditFinished();
@@ -278,90 +334,49 @@ public class Checker extends AutomaticBean implements MessageDispatcher, RootMod
      * @param files a list of files to process.
      * @throws CheckstyleException if error condition within Checkstyle occurs.
      * @throws Error wraps any java.lang.Error happened during execution
-     * @noinspection ProhibitedExceptionThrown
      */
-    // -@cs[CyclomaticComplexity] no easy way to split this logic of processing the file
     private void processFiles(List<File> files) throws CheckstyleException {
         for (final File file : files) {
-            String fileName = null;
-            try {
-                fileName = file.getAbsolutePath();
-                final long timestamp = file.lastModified();
-                if (cacheFile != null && cacheFile.isInCache(fileName, timestamp)
-                        || !acceptFileStarted(fileName)) {
-                    continue;
-                }
-                if (cacheFile != null) {
-                    cacheFile.put(fileName, timestamp);
-                }
-                fireFileStarted(fileName);
-                final SortedSet<LocalizedMessage> fileMessages = processFile(file);
-                fireErrors(fileName, fileMessages);
-                fireFileFinished(fileName);
-            }
-            // -@cs[IllegalCatch] There is no other way to deliver filename that was under
-            // processing. See https://github.com/checkstyle/checkstyle/issues/2285
-            catch (Exception ex) {
-                if (fileName != null && cacheFile != null) {
-                    cacheFile.remove(fileName);
-                }
-
-                // We need to catch all exceptions to put a reason failure (file name) in exception
-                throw new CheckstyleException("Exception was thrown while processing "
-                        + file.getPath(), ex);
-            }
-            catch (Error error) {
-                if (fileName != null && cacheFile != null) {
-                    cacheFile.remove(fileName);
-                }
-
-                // We need to catch all errors to put a reason failure (file name) in error
-                throw new Error("Error was thrown while processing " + file.getPath(), error);
-            }
+            new FileAudit(file).process();
         }
     }
 
     /**
-     * Processes a file with all FileSetChecks.
+     * Processes a list of files with all FileSetChecks using several threads.
+     * Each worker thread audits a file with its own set of FileSetChecks and applies
+     * the filters, so state kept in thread locals by checks and filters stays with
+     * the thread that produced it. The calling thread runs the shared checks and fires
+     * the events in the order of the files, so reports are the same as in single
+     * thread mode.
      *
-     * @param file a file to process.
-     * @return a sorted set of messages to be logged.
+     * @param files a list of files to process.
      * @throws CheckstyleException if error condition within Checkstyle occurs.
-     * @noinspection ProhibitedExceptionThrown
+     * @throws Error wraps any java.lang.Error happened during execution
      */
-    private SortedSet<LocalizedMessage> processFile(File file) throws CheckstyleException {
-        final SortedSet<LocalizedMessage> fileMessages = new TreeSet<>();
+    private void processFilesInParallel(List<File> files) throws CheckstyleException {
+        final BlockingQueue<List<FileSetCheck>> idleFileSetChecks =
+                new LinkedBlockingQueue<>(workerFileSetChecks);
+        final List<FileSetCheck> sharedFileSetChecks = new ArrayList<>(fileSetChecks);
+        sharedFileSetChecks.removeAll(workerFileSetChecks.get(0));
+        final ExecutorService executor = Executors.newFixedThreadPool(checkerThreadsNumber);
+        final Queue<FileAudit> pendingAudits = new ArrayDeque<>();
         try {
-            final FileText theText = new FileText(file.getAbsoluteFile(), charset);
-            for (final FileSetCheck fsc : fileSetChecks) {
-                fileMessages.addAll(fsc.process(file, theText));
+            for (final File file : files) {
+                final FileAudit audit = new FileAudit(file);
+                if (audit.submit(executor, idleFileSetChecks)) {
+                    pendingAudits.add(audit);
+                }
+                if (pendingAudits.size() > checkerThreadsNumber * PENDING_FILES_PER_THREAD) {
+                    pendingAudits.remove().fireEvents(sharedFileSetChecks);
+                }
             }
-        }
-        catch (final IOException ioe) {
-            log.debug("IOException occurred.", ioe);
-            fileMessages.add(new LocalizedMessage(1,
-                    Definitions.CHECKSTYLE_BUNDLE, EXCEPTION_MSG,
-                    new String[] {ioe.getMessage()}, null, getClass(), null));
-        }
-        // -@cs[IllegalCatch] There is no other way to obey haltOnException field
-        catch (Exception ex) {
-            if (haltOnException) {
-                throw ex;
+            while (!pendingAudits.isEmpty()) {
+                pendingAudits.remove().fireEvents(sharedFileSetChecks);
             }
-
-            log.debug("Exception occurred.", ex);
-
-            final StringWriter sw = new StringWriter();
-            final PrintWriter pw = new PrintWriter(sw, true);
-
-            ex.printStackTrace(pw);
-
-            fileMessages.add(new LocalizedMessage(1,
-                    Definitions.CHECKSTYLE_BUNDLE, EXCEPTION_MSG,
-                    new String[] {sw.getBuffer().toString()},
-                    null, getClass(), null));
         }
-        return fileMessages;
+        finally {
+            executor.shutdownNow();
+        }
     }
 
     /**
@@ -435,6 +450,18 @@ public class Checker extends AutomaticBean implements MessageDispatcher, RootMod
         final Locale locale = new Locale(localeLanguage, localeCountry);
         LocalizedMessage.setLocale(locale);
 
+        final Configuration configuration = getConfiguration();
+        if (configuration instanceof DefaultConfiguration) {
+            checkerThreadsNumber = ((DefaultConfiguration) configuration)
+                    .getThreadModeSettings().getCheckerThreadsNumber();
+        }
+        workerFileSetChecks.clear();
+        if (checkerThreadsNumber > 1) {
+            for (int i = 0; i < checkerThreadsNumber; i++) {
+                workerFileSetChecks.add(new ArrayList<>());
+            }
+        }
+
         if (moduleFactory == null) {
             if (moduleClassLoader == null) {
                 throw new CheckstyleException(
@@ -466,25 +493,17 @@ public class Checker extends AutomaticBean implements MessageDispatcher, RootMod
     protected void setupChild(Configuration childConf)
             throws CheckstyleException {
         final String name = childConf.getName();
-        final Object child;
+        final Object child = createChild(childConf);
 
-        try {
-            child = moduleFactory.createModule(name);
-
-            if (child instanceof AutomaticBean) {
-                final AutomaticBean bean = (AutomaticBean) child;
-                bean.contextualize(childContext);
-                bean.configure(childConf);
-            }
-        }
-        catch (final CheckstyleException ex) {
-            throw new CheckstyleException("cannot initialize module " + name
-                    + " - " + ex.getMessage(), ex);
-        }
         if (child instanceof FileSetCheck) {
             final FileSetCheck fsc = (FileSetCheck) child;
             fsc.init();
             addFileSetCheck(fsc);
+            // Checker guarantees that there is exactly one instance of global stateful checks
+            if (!workerFileSetChecks.isEmpty()
+                    && !fsc.getClass().isAnnotationPresent(GlobalStatefulCheck.class)) {
+                addWorkerFileSetChecks(fsc, childConf);
+            }
         }
         else if (child instanceof BeforeExecutionFileFilter) {
             final BeforeExecutionFileFilter filter = (BeforeExecutionFileFilter) child;
@@ -504,6 +523,52 @@ public class Checker extends AutomaticBean implements MessageDispatcher, RootMod
         }
     }
 
+    /**
+     * Creates and configures a child module.
+     *
+     * @param childConf the configuration of the child module
+     * @return the child module
+     * @throws CheckstyleException if the module cannot be created or configured
+     */
+    private Object createChild(Configuration childConf) throws CheckstyleException {
+        final String name = childConf.getName();
+        final Object child;
+
+        try {
+            child = moduleFactory.createModule(name);
+
+            if (child instanceof AutomaticBean) {
+                final AutomaticBean bean = (AutomaticBean) child;
+                bean.contextualize(childContext);
+                bean.configure(childConf);
+            }
+        }
+        catch (final CheckstyleException ex) {
+            throw new CheckstyleException("cannot initialize module " + name
+                    + " - " + ex.getMessage(), ex);
+        }
+        return child;
+    }
+
+    /**
+     * Adds a FileSetCheck to the first worker thread and its copies to the others.
+     *
+     * @param fileSetCheck the FileSetCheck used by the first worker thread
+     * @param childConf the configuration of the FileSetCheck
+     * @throws CheckstyleException if a copy cannot be created or configured
+     */
+    private void addWorkerFileSetChecks(FileSetCheck fileSetCheck, Configuration childConf)
+            throws CheckstyleException {
+        workerFileSetChecks.get(0).add(fileSetCheck);
+        for (final List<FileSetCheck> checks
+                : workerFileSetChecks.subList(1, workerFileSetChecks.size())) {
+            final FileSetCheck copy = (FileSetCheck) createChild(childConf);
+            copy.init();
+            copy.setMessageDispatcher(this);
+            checks.add(copy);
+        }
+    }
+
     /**
      * Adds a FileSetCheck to the list of FileSetChecks
      * that is executed in process().
@@ -604,6 +669,9 @@ public class Checker extends AutomaticBean implements MessageDispatcher, RootMod
     @Override
     public final void setModuleClassLoader(ClassLoader moduleClassLoader) {
         this.moduleClassLoader = moduleClassLoader;
+        if (cacheFile != null) {
+            cacheFile.setModuleClassLoader(moduleClassLoader);
+        }
     }
 
     /**
@@ -648,4 +716,384 @@ public class Checker extends AutomaticBean implements MessageDispatcher, RootMod
         }
     }
 
+    /**
+     * The audit of a single file.
+     */
+    private final class FileAudit {
+
+        /** The audited file. */
+        private final File file;
+
+        /** The absolute path of the file. */
+        private String fileName;
+
+        /** The contents of the file, {@code null} until the file is read. */
+        private FileText fileText;
+
+        /**
+         * The content of the file read to look it up in cache in content hash mode,
+         * {@code null} if it is not read yet or its text is created.
+         */
+        private byte[] content;
+
+        /** Violations accepted by the filters, available when the worker thread is done. */
+        private Future<SortedSet<LocalizedMessage>> acceptedMessages;
+
+        /** Violations of the file restored from cache, {@code null} if it is not in cache. */
+        private SortedSet<LocalizedMessage> cachedMessages;
+
+        /** Whether the file could not be read or a check failed on it. */
+        private boolean failed;
+
+        /**
+         * Creates a new {@code FileAudit} instance.
+         *
+         * @param file the file to audit
+         */
+        private FileAudit(File file) {
+            this.file = file;
+        }
+
+        /**
+         * Processes the file with all FileSetChecks in the current thread.
+         *
+         * @throws CheckstyleException if error condition within Checkstyle occurs.
+         * @throws Error wraps any java.lang.Error happened during execution
+         */
+        private void process() throws CheckstyleException {
+            try {
+                final boolean toProcess = isToProcess();
+                if (toProcess || hasCachedMessages()) {
+                    fireFileStarted(fileName);
+                    final SortedSet<LocalizedMessage> fileMessages;
+                    if (toProcess) {
+                        fileMessages = filter(processFile(fileSetChecks));
+                    }
+                    else {
+                        fileMessages = cachedMessages;
+                    }
+                    fireAcceptedErrors(fileMessages);
+                    fireFileFinished(fileName);
+                }
+            }
+            // -@cs[IllegalCatch] There is no other way to deliver filename that was under
+            // processing. See https://github.com/checkstyle/checkstyle/issues/2285
+            catch (Exception ex) {
+                throw wrap(ex);
+            }
+            catch (Error error) {
+                throw wrap(error);
+            }
+        }
+
+        /**
+         * Submits the file to a worker thread.
+         *
+         * @param executor the executor of the worker threads
+         * @param idleFileSetChecks sets of FileSetChecks not used by other threads
+         * @return {@code true} if the file was submitted
+         * @throws CheckstyleException if error condition within Checkstyle occurs.
+         * @throws Error wraps any java.lang.Error happened during execution
+         */
+        private boolean submit(ExecutorService executor,
+                BlockingQueue<List<FileSetCheck>> idleFileSetChecks)
+                throws CheckstyleException {
+            boolean submitted = false;
+            try {
+                if (isToProcess()) {
+                    acceptedMessages = executor.submit(() -> processInWorker(idleFileSetChecks));
+                    submitted = true;
+                }
+                else if (hasCachedMessages()) {
+                    acceptedMessages = CompletableFuture.completedFuture(cachedMessages);
+                    submitted = true;
+                }
+            }
+            // -@cs[IllegalCatch] There is no other way to deliver filename that was under
+            // processing. See https://github.com/checkstyle/checkstyle/issues/2285
+            catch (Exception ex) {
+                throw wrap(ex);
+            }
+            catch (Error error) {
+                throw wrap(error);
+            }
+            return submitted;
+        }
+
+        /**
+         * Waits for the worker thread, processes the file with the shared FileSetChecks
+         * and notifies all listeners about the audit of the file.
+         *
+         * @param sharedFileSetChecks the FileSetChecks which are not used by worker threads
+         * @throws CheckstyleException if error condition within Checkstyle occurs.
+         * @throws Error wraps any java.lang.Error happened during execution
+         */
+        private void fireEvents(List<FileSetCheck> sharedFileSetChecks)
+                throws CheckstyleException {
+            try {
+                fireFileStarted(fileName);
+                final SortedSet<LocalizedMessage> fileMessages = getAcceptedMessages();
+                if (fileText != null && !sharedFileSetChecks.isEmpty()) {
+                    fileMessages.addAll(filter(processFile(sharedFileSetChecks)));
+                }
+                fireAcceptedErrors(fileMessages);
+                fireFileFinished(fileName);
+            }
+            // -@cs[IllegalCatch] There is no other way to deliver filename that was under
+            // processing. See https://github.com/checkstyle/checkstyle/issues/2285
+            catch (Exception ex) {
+                throw wrap(ex);
+            }
+            catch (Error error) {
+                throw wrap(error);
+            }
+        }
+
+        /**
+         * Checks whether the file is neither in cache nor rejected by the before execution
+         * file filters, and puts it in cache if so. Restores the violations of the file
+         * if it is in cache.
+         *
+         * @return {@code true} if the file should be processed
+         */
+        private boolean isToProcess() {
+            fileName = file.getAbsolutePath();
+            long stamp = file.lastModified();
+            if (cacheContentHash && cacheFile != null) {
+                try {
+                    // the text of the file is created from this content if it is processed
+                    content = Files.readAllBytes(file.toPath());
+                    stamp = cacheFile.getFileStamp(file, content);
+                }
+                catch (IOException ex) {
+                    // the file is cached by its timestamp, the failure is reported on processing
+                    log.debug("Unable to compute file content hash.", ex);
+                }
+            }
+            if (cacheFile != null && cacheFile.isInCache(fileName, stamp)) {
+                cachedMessages = cacheFile.getViolations(fileName);
+            }
+            final boolean result = cachedMessages == null && acceptFileStarted(fileName);
+            if (result && cacheFile != null) {
+                cacheFile.put(fileName, stamp);
+            }
+            if (!result) {
+                content = null;
+            }
+            return result;
+        }
+
+        /**
+         * Checks whether the file is in cache with violations to report again.
+         *
+         * @return {@code true} if there are violations of the file in cache
+         */
+        private boolean hasCachedMessages() {
+            return cachedMessages != null && !cachedMessages.isEmpty();
+        }
+
+        /**
+         * Notifies all listeners about the violations accepted by the filters and
+         * keeps them in cache along with the file, unless the file failed to be processed
+         * or got violations from a {@link GlobalStatefulCheck}, which depend on other files.
+         *
+         * @param fileMessages the violations of the file accepted by the filters
+         */
+        private void fireAcceptedErrors(SortedSet<LocalizedMessage> fileMessages) {
+            final String stripped = CommonUtil.relativizeAndNormalizePath(basedir, fileName);
+            for (final LocalizedMessage element : fileMessages) {
+                final AuditEvent event = new AuditEvent(Checker.this, stripped, element);
+                for (final AuditListener listener : listeners) {
+                    listener.addError(event);
+                }
+            }
+            if (cacheFile != null && cachedMessages == null) {
+                if (failed || hasGlobalStatefulMessages(fileMessages)) {
+                    cacheFile.remove(fileName);
+                }
+                else {
+                    cacheFile.putViolations(fileName, fileMessages);
+                }
+            }
+        }
+
+        /**
+         * Checks whether any of the violations was reported by a check with
+         * {@link GlobalStatefulCheck}. Such a check reports on a file depending on
+         * other files, like a missing package-info.java on the first file of a package,
+         * so its violations must not be replayed while only the file is unchanged.
+         *
+         * @param fileMessages the violations of the file
+         * @return {@code true} if a global stateful check reported on the file
+         */
+        private boolean hasGlobalStatefulMessages(SortedSet<LocalizedMessage> fileMessages) {
+            final Set<String> globalStatefulChecks = fileSetChecks.stream()
+                    .map(Object::getClass)
+                    .filter(checkClass -> checkClass.isAnnotationPresent(GlobalStatefulCheck.class))
+                    .map(Class::getName)
+                    .collect(Collectors.toSet());
+            return fileMessages.stream()
+                    .anyMatch(message -> globalStatefulChecks.contains(message.getSourceName()));
+        }
+
+        /**
+         * Processes the file on a worker thread with the first idle set of FileSetChecks
+         * and applies the filters, so state kept in thread locals by checks and filters
+         * is used by the thread that produced it.
+         *
+         * @param idleFileSetChecks sets of FileSetChecks not used by other threads
+         * @return violations accepted by the filters
+         * @throws CheckstyleException if error condition within Checkstyle occurs.
+         * @throws InterruptedException if the thread is interrupted while waiting for checks
+         */
+        private SortedSet<LocalizedMessage> processInWorker(
+                BlockingQueue<List<FileSetCheck>> idleFileSetChecks)
+                throws CheckstyleException, InterruptedException {
+            final List<FileSetCheck> checks = idleFileSetChecks.take();
+            final SortedSet<LocalizedMessage> fileMessages;
+            try {
+                fileMessages = processFile(checks);
+            }
+            finally {
+                idleFileSetChecks.add(checks);
+            }
+            return filter(fileMessages);
+        }
+
+        /**
+         * Processes the file with the given FileSetChecks.
+         *
+         * @param checks the FileSetChecks to process the file with.
+         * @return a sorted set of messages to be logged.
+         * @throws CheckstyleException if error condition within Checkstyle occurs.
+         * @noinspection ProhibitedExceptionThrown
+         */
+        private SortedSet<LocalizedMessage> processFile(List<FileSetCheck> checks)
+                throws CheckstyleException {
+            final SortedSet<LocalizedMessage> fileMessages = new TreeSet<>();
+            try {
+                if (fileText == null) {
+                    fileText = createFileText();
+                }
+                for (final FileSetCheck fsc : checks) {
+                    fileMessages.addAll(fsc.process(file, fileText));
+                }
+            }
+            catch (final IOException ioe) {
+                log.debug("IOException occurred.", ioe);
+                failed = true;
+                fileMessages.add(new LocalizedMessage(1,
+                        Definitions.CHECKSTYLE_BUNDLE, EXCEPTION_MSG,
+                        new String[] {ioe.getMessage()}, null, Checker.this.getClass(), null));
+            }
+            // -@cs[IllegalCatch] There is no other way to obey haltOnException field
+            catch (Exception ex) {
+                if (haltOnException) {
+                    throw ex;
+                }
+
+                log.debug("Exception occurred.", ex);
+                failed = true;
+
+                final StringWriter sw = new StringWriter();
+                final PrintWriter pw = new PrintWriter(sw, true);
+
+                ex.printStackTrace(pw);
+
+                fileMessages.add(new LocalizedMessage(1,
+                        Definitions.CHECKSTYLE_BUNDLE, EXCEPTION_MSG,
+                        new String[] {sw.getBuffer().toString()},
+                        null, Checker.this.getClass(), null));
+            }
+            return fileMessages;
+        }
+
+        /**
+         * Creates the text of the file, from the content read to look it up in cache
+         * if there is one, so the file is read only once.
+         *
+         * @return the text of the file
+         * @throws IOException if the file could not be read
+         */
+        private FileText createFileText() throws IOException {
+            final FileText result;
+            if (content == null) {
+                result = new FileText(file.getAbsoluteFile(), charset);
+            }
+            else {
+                result = new FileText(file.getAbsoluteFile(), content, charset);
+                content = null;
+            }
+            return result;
+        }
+
+        /**
+         * Applies the filters to the violations of the file.
+         *
+         * @param fileMessages the violations of the file
+         * @return violations accepted by the filters
+         */
+        private SortedSet<LocalizedMessage> filter(SortedSet<LocalizedMessage> fileMessages) {
+            final String stripped = CommonUtil.relativizeAndNormalizePath(basedir, fileName);
+            final SortedSet<LocalizedMessage> result = new TreeSet<>();
+            for (final LocalizedMessage element : fileMessages) {
+                if (filters.accept(new AuditEvent(Checker.this, stripped, element))) {
+                    result.add(element);
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Waits for the worker thread and returns its result, unwrapping the failure
+         * of the worker if any.
+         *
+         * @return violations accepted by the filters
+         * @throws Exception if the worker thread failed or was interrupted
+         * @noinspection ProhibitedExceptionThrown
+         */
+        private SortedSet<LocalizedMessage> getAcceptedMessages() throws Exception {
+            try {
+                return acceptedMessages.get();
+            }
+            catch (ExecutionException ex) {
+                final Throwable cause = ex.getCause();
+                if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                throw (Exception) cause;
+            }
+        }
+
+        /**
+         * Removes the file from the cache and wraps an exception to deliver the file name.
+         *
+         * @param exception the exception thrown while processing the file
+         * @return the exception to throw
+         */
+        private CheckstyleException wrap(Exception exception) {
+            if (fileName != null && cacheFile != null) {
+                cacheFile.remove(fileName);
+            }
+            // We need to catch all exceptions to put a reason failure (file name) in exception
+            return new CheckstyleException("Exception was thrown while processing "
+                    + file.getPath(), exception);
+        }
+
+        /**
+         * Removes the file from the cache and wraps an error to deliver the file name.
+         *
+         * @param error the error thrown while processing the file
+         * @return the error to throw
+         */
+        private Error wrap(Error error) {
+            if (fileName != null && cacheFile != null) {
+                cacheFile.remove(fileName);
+            }
+            // We need to catch all errors to put a reason failure (file name) in error
+            return new Error("Error was thrown while processing " + file.getPath(), error);
+        }
+
+    }
+
 }
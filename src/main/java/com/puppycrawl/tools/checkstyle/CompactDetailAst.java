@@ -0,0 +1,636 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2021 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import antlr.CommonASTWithHiddenTokens;
+import antlr.CommonHiddenStreamToken;
+import com.puppycrawl.tools.checkstyle.api.DetailAST;
+
+/**
+ * The implementation of {@link DetailAST} which keeps the nodes of a whole tree
+ * in parallel arrays of primitives, in pre-order. A node only holds the tree and
+ * its index in the arrays, and is only created when it is requested. The arrays
+ * are immutable and a node is published with compare-and-set, so the tree can be
+ * navigated by several threads at once and a node is always the same instance.
+ *
+ * <p>The comment tokens of the tree it is created from are kept, so the tree
+ * with comment nodes can be created later without the original tree.
+ *
+ * <p>The descendants of a node are the range of indexes up to the end of its
+ * subtree, and the indexes of the nodes of each token type are kept sorted,
+ * so {@link #branchContains(int)} is a binary search which allocates nothing.
+ *
+ * <p>The tree can also be navigated by the indexes of its nodes, so a walk only
+ * creates the nodes it hands out.
+ */
+final class CompactDetailAst implements DetailAST {
+
+    /** Index of a node which does not exist. */
+    /* package */ static final int NONE = -1;
+
+    /** The tree of the node. */
+    private final Tree tree;
+
+    /** The index of the node in the tree. */
+    private final int index;
+
+    /**
+     * Creates a new {@code CompactDetailAst} instance.
+     *
+     * @param tree the tree of the node
+     * @param index the index of the node in the tree
+     */
+    private CompactDetailAst(Tree tree, int index) {
+        this.tree = tree;
+        this.index = index;
+    }
+
+    /**
+     * Creates a compact copy of a tree without comment nodes.
+     *
+     * @param root the first node of the tree, the following siblings are copied too
+     * @return the first node of the copy, or null if the tree is empty
+     */
+    public static CompactDetailAst of(DetailAST root) {
+        final Builder builder = new Builder(null);
+        builder.copy(root, NONE, NONE);
+        return builder.build().getNode(0);
+    }
+
+    /**
+     * Creates a compact copy of the tree of this node with comment nodes,
+     * from the comment tokens of the tree it was created from.
+     *
+     * @return the node of the copy which corresponds to this node
+     */
+    public CompactDetailAst withComments() {
+        final Builder builder = new Builder(tree);
+        builder.copyWithComments();
+        return builder.build().getNode(builder.targetIndexes[index]);
+    }
+
+    /**
+     * Returns the index of this node in its tree.
+     *
+     * @return the index of the node
+     */
+    /* package */ int getIndex() {
+        return index;
+    }
+
+    /**
+     * Returns the token type of a node of the tree of this node.
+     *
+     * @param node the index of the node
+     * @return the token type of the node
+     */
+    /* package */ int getTypeAt(int node) {
+        return tree.types[node];
+    }
+
+    /**
+     * Returns the index of the parent of a node of the tree of this node.
+     *
+     * @param node the index of the node
+     * @return the index of the parent, or {@link #NONE}
+     */
+    /* package */ int getParentAt(int node) {
+        return tree.parents[node];
+    }
+
+    /**
+     * Returns the index of the first child of a node of the tree of this node.
+     *
+     * @param node the index of the node
+     * @return the index of the first child, or {@link #NONE}
+     */
+    /* package */ int getFirstChildAt(int node) {
+        return tree.firstChildren[node];
+    }
+
+    /**
+     * Returns the index of the next sibling of a node of the tree of this node.
+     *
+     * @param node the index of the node
+     * @return the index of the next sibling, or {@link #NONE}
+     */
+    /* package */ int getNextSiblingAt(int node) {
+        return tree.nextSiblings[node];
+    }
+
+    /**
+     * Returns a node of the tree of this node, creates it if it was not requested yet.
+     *
+     * @param node the index of the node
+     * @return the node, or null if the index is {@link #NONE}
+     */
+    /* package */ CompactDetailAst getNodeAt(int node) {
+        return tree.getNode(node);
+    }
+
+    @Override
+    public int getChildCount() {
+        int count = 0;
+        for (int child = tree.firstChildren[index]; child != NONE;
+                child = tree.nextSiblings[child]) {
+            count++;
+        }
+        return count;
+    }
+
+    @Override
+    public int getChildCount(int type) {
+        int count = 0;
+        for (int child = tree.firstChildren[index]; child != NONE;
+                child = tree.nextSiblings[child]) {
+            if (tree.types[child] == type) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public DetailAST getParent() {
+        return tree.getNode(tree.parents[index]);
+    }
+
+    @Override
+    public String getText() {
+        return tree.texts[index];
+    }
+
+    @Override
+    public int getType() {
+        return tree.types[index];
+    }
+
+    @Override
+    public int getLineNo() {
+        return tree.lineNos[index];
+    }
+
+    @Override
+    public int getColumnNo() {
+        return tree.columnNos[index];
+    }
+
+    @Override
+    public DetailAST getLastChild() {
+        int lastChild = tree.firstChildren[index];
+        while (lastChild != NONE && tree.nextSiblings[lastChild] != NONE) {
+            lastChild = tree.nextSiblings[lastChild];
+        }
+        return tree.getNode(lastChild);
+    }
+
+    @Override
+    public boolean branchContains(int type) {
+        boolean result = false;
+        if (type >= 0 && type < tree.occurrences.length) {
+            final int[] nodes = tree.occurrences[type];
+            int next = Arrays.binarySearch(nodes, index);
+            if (next < 0) {
+                next = -next - 1;
+            }
+            result = next < nodes.length && nodes[next] < tree.subtreeEnds[index];
+        }
+        return result;
+    }
+
+    @Override
+    public DetailAST getPreviousSibling() {
+        return tree.getNode(tree.previousSiblings[index]);
+    }
+
+    @Override
+    public DetailAST findFirstToken(int type) {
+        int child = tree.firstChildren[index];
+        while (child != NONE && tree.types[child] != type) {
+            child = tree.nextSiblings[child];
+        }
+        return tree.getNode(child);
+    }
+
+    @Override
+    public DetailAST getNextSibling() {
+        return tree.getNode(tree.nextSiblings[index]);
+    }
+
+    @Override
+    public DetailAST getFirstChild() {
+        return tree.getNode(tree.firstChildren[index]);
+    }
+
+    @Override
+    @Deprecated
+    public int getNumberOfChildren() {
+        return getChildCount();
+    }
+
+    @Override
+    public boolean hasChildren() {
+        return tree.firstChildren[index] != NONE;
+    }
+
+    @Override
+    public String toString() {
+        return getText() + "[" + getLineNo() + "x" + getColumnNo() + "]";
+    }
+
+    /**
+     * The nodes of a tree, in pre-order.
+     */
+    private static final class Tree {
+
+        /** The token types of the nodes. */
+        private final int[] types;
+
+        /** The line numbers of the nodes. */
+        private final int[] lineNos;
+
+        /** The column numbers of the nodes. */
+        private final int[] columnNos;
+
+        /** The texts of the nodes, equal texts are the same instance. */
+        private final String[] texts;
+
+        /** The indexes of the parents of the nodes. */
+        private final int[] parents;
+
+        /** The indexes of the first children of the nodes. */
+        private final int[] firstChildren;
+
+        /** The indexes of the next siblings of the nodes. */
+        private final int[] nextSiblings;
+
+        /** The indexes of the previous siblings of the nodes. */
+        private final int[] previousSiblings;
+
+        /** The indexes following the last descendants of the nodes. */
+        private final int[] subtreeEnds;
+
+        /** The ascending indexes of the nodes of each token type, by the type. */
+        private final int[][] occurrences;
+
+        /** The comment tokens hidden before the nodes, by the index of the node. */
+        private final Map<Integer, CommonHiddenStreamToken> hiddenBefore;
+
+        /** The comment tokens hidden after the last node. */
+        private final CommonHiddenStreamToken hiddenAfter;
+
+        /** The nodes, null until requested. */
+        private final AtomicReferenceArray<CompactDetailAst> nodes;
+
+        /**
+         * Creates a new {@code Tree} instance from the arrays of a builder.
+         *
+         * @param builder the builder
+         */
+        /* package */ Tree(Builder builder) {
+            final int size = builder.size;
+            types = Arrays.copyOf(builder.types, size);
+            lineNos = Arrays.copyOf(builder.lineNos, size);
+            columnNos = Arrays.copyOf(builder.columnNos, size);
+            texts = Arrays.copyOf(builder.texts, size);
+            parents = Arrays.copyOf(builder.parents, size);
+            firstChildren = Arrays.copyOf(builder.firstChildren, size);
+            nextSiblings = Arrays.copyOf(builder.nextSiblings, size);
+            previousSiblings = Arrays.copyOf(builder.previousSiblings, size);
+            hiddenBefore = builder.hiddenBefore;
+            hiddenAfter = builder.hiddenAfter;
+            subtreeEnds = new int[size];
+            nodes = new AtomicReferenceArray<>(size);
+            for (int node = 0; node < size; node++) {
+                if (nextSiblings[node] != NONE) {
+                    subtreeEnds[node] = nextSiblings[node];
+                }
+                else if (parents[node] == NONE) {
+                    subtreeEnds[node] = size;
+                }
+                else {
+                    subtreeEnds[node] = subtreeEnds[parents[node]];
+                }
+            }
+            occurrences = createOccurrences(types);
+        }
+
+        /**
+         * Creates the index of the nodes of each token type.
+         *
+         * @param types the token types of the nodes
+         * @return the ascending indexes of the nodes of each type, by the type
+         */
+        private static int[][] createOccurrences(int[] types) {
+            final int[] counts = new int[Arrays.stream(types).max().orElse(NONE) + 1];
+            for (int type : types) {
+                counts[type]++;
+            }
+            final int[][] result = new int[counts.length][];
+            for (int type = 0; type < counts.length; type++) {
+                result[type] = new int[counts[type]];
+                counts[type] = 0;
+            }
+            for (int node = 0; node < types.length; node++) {
+                final int type = types[node];
+                result[type][counts[type]] = node;
+                counts[type]++;
+            }
+            return result;
+        }
+
+        /**
+         * Returns a node of the tree, creates it if it was not requested yet.
+         * When threads race to create a node, the node created first is kept.
+         *
+         * @param node the index of the node
+         * @return the node, or null if the index is {@link #NONE} or the tree is empty
+         */
+        private CompactDetailAst getNode(int node) {
+            CompactDetailAst result = null;
+            if (node != NONE && node < types.length) {
+                result = nodes.get(node);
+                if (result == null) {
+                    nodes.compareAndSet(node, null, new CompactDetailAst(this, node));
+                    result = nodes.get(node);
+                }
+            }
+            return result;
+        }
+
+    }
+
+    /**
+     * Appends nodes to the arrays of a tree, in pre-order.
+     */
+    private static final class Builder {
+
+        /** The initial capacity of the arrays. */
+        private static final int INITIAL_CAPACITY = 256;
+
+        /** The tree whose comment tokens are inserted as nodes, or null. */
+        private final Tree commentSource;
+
+        /** The index in the built tree of each node of the comment source. */
+        private final int[] targetIndexes;
+
+        /** The instances of the texts of the nodes. */
+        private final Map<String, String> textInstances = new HashMap<>();
+
+        /** The comment tokens hidden before the nodes, by the index of the node. */
+        private final Map<Integer, CommonHiddenStreamToken> hiddenBefore = new HashMap<>();
+
+        /** The comment tokens hidden after the last node. */
+        private CommonHiddenStreamToken hiddenAfter;
+
+        /** The number of nodes appended. */
+        private int size;
+
+        /** The token types of the nodes. */
+        private int[] types = new int[INITIAL_CAPACITY];
+
+        /** The line numbers of the nodes. */
+        private int[] lineNos = new int[INITIAL_CAPACITY];
+
+        /** The column numbers of the nodes. */
+        private int[] columnNos = new int[INITIAL_CAPACITY];
+
+        /** The texts of the nodes. */
+        private String[] texts = new String[INITIAL_CAPACITY];
+
+        /** The indexes of the parents of the nodes. */
+        private int[] parents = new int[INITIAL_CAPACITY];
+
+        /** The indexes of the first children of the nodes. */
+        private int[] firstChildren = new int[INITIAL_CAPACITY];
+
+        /** The indexes of the next siblings of the nodes. */
+        private int[] nextSiblings = new int[INITIAL_CAPACITY];
+
+        /** The indexes of the previous siblings of the nodes. */
+        private int[] previousSiblings = new int[INITIAL_CAPACITY];
+
+        /**
+         * Creates a new {@code Builder} instance.
+         *
+         * @param commentSource the tree whose comment tokens are inserted as nodes,
+         *        null if comment tokens of the copied tree are recorded instead
+         */
+        /* package */ Builder(Tree commentSource) {
+            this.commentSource = commentSource;
+            if (commentSource == null) {
+                targetIndexes = null;
+            }
+            else {
+                targetIndexes = new int[commentSource.types.length];
+            }
+        }
+
+        /**
+         * Copies a tree in pre-order and records the comment tokens hidden
+         * before and after its nodes.
+         *
+         * @param root the first node of the tree, the following siblings are copied too
+         * @param parent the index of the parent of the copy
+         * @param previousSibling the index of the previous sibling of the copy
+         * @return the index of the copy of the last following sibling of the root
+         */
+        private int copy(DetailAST root, int parent, int previousSibling) {
+            DetailAST node = root;
+            int parentIndex = parent;
+            int previousIndex = previousSibling;
+            int depth = 0;
+            while (node != null) {
+                final int nodeIndex = addNode(node, parentIndex, previousIndex);
+                final DetailAST child = node.getFirstChild();
+                if (child == null) {
+                    previousIndex = nodeIndex;
+                    while (depth > 0 && node.getNextSibling() == null) {
+                        node = node.getParent();
+                        previousIndex = parentIndex;
+                        parentIndex = parents[parentIndex];
+                        depth--;
+                    }
+                    node = node.getNextSibling();
+                }
+                else {
+                    node = child;
+                    parentIndex = nodeIndex;
+                    previousIndex = NONE;
+                    depth++;
+                }
+            }
+            return previousIndex;
+        }
+
+        /**
+         * Copies the comment source in pre-order, by the indexes of its nodes,
+         * and inserts its comment tokens as nodes. No node of the comment source
+         * is created.
+         */
+        private void copyWithComments() {
+            final int sourceSize = commentSource.types.length;
+            for (int node = 0; node < sourceSize; node++) {
+                final int parent = getTargetIndex(commentSource.parents[node]);
+                final int previousSibling = addComments(commentSource.hiddenBefore.get(node),
+                        parent, getTargetIndex(commentSource.previousSiblings[node]), true);
+                targetIndexes[node] = add(commentSource.types[node],
+                        commentSource.lineNos[node], commentSource.columnNos[node],
+                        commentSource.texts[node], parent, previousSibling);
+            }
+            if (sourceSize > 0) {
+                addComments(commentSource.hiddenAfter, parents[size - 1], size - 1, false);
+            }
+        }
+
+        /**
+         * Returns the index in the built tree of a node of the comment source.
+         *
+         * @param sourceIndex the index of the node in the comment source
+         * @return the index in the built tree, or {@link #NONE}
+         */
+        private int getTargetIndex(int sourceIndex) {
+            int result = NONE;
+            if (sourceIndex != NONE) {
+                result = targetIndexes[sourceIndex];
+            }
+            return result;
+        }
+
+        /**
+         * Appends a node and records the comment tokens hidden before and after it.
+         *
+         * @param node the node
+         * @param parent the index of the parent of the node
+         * @param previousSibling the index of the previous sibling of the node
+         * @return the index of the node
+         */
+        private int addNode(DetailAST node, int parent, int previousSibling) {
+            if (commentSource == null && node instanceof CommonASTWithHiddenTokens) {
+                final CommonASTWithHiddenTokens hiddenTokens = (CommonASTWithHiddenTokens) node;
+                if (hiddenTokens.getHiddenBefore() != null) {
+                    hiddenBefore.put(size, hiddenTokens.getHiddenBefore());
+                }
+                hiddenAfter = hiddenTokens.getHiddenAfter();
+            }
+            String text = node.getText();
+            if (text != null) {
+                text = textInstances.computeIfAbsent(text, key -> key);
+            }
+            return add(node.getType(), node.getLineNo(), node.getColumnNo(), text,
+                    parent, previousSibling);
+        }
+
+        /**
+         * Appends the nodes of a chain of comment tokens as siblings.
+         *
+         * @param token the first token of the chain, may be null
+         * @param parent the index of the parent of the nodes
+         * @param previousSibling the index of the previous sibling of the nodes
+         * @param before whether the chain links the tokens hidden before
+         *        a node, in reverse order of the source
+         * @return the index of the last appended node, or the previous sibling
+         *         if there is no token
+         */
+        private int addComments(CommonHiddenStreamToken token, int parent,
+                int previousSibling, boolean before) {
+            final Deque<CommonHiddenStreamToken> tokens = new ArrayDeque<>();
+            CommonHiddenStreamToken current = token;
+            while (current != null) {
+                if (before) {
+                    tokens.addFirst(current);
+                    current = current.getHiddenBefore();
+                }
+                else {
+                    tokens.addLast(current);
+                    current = current.getHiddenAfter();
+                }
+            }
+            int previousIndex = previousSibling;
+            for (CommonHiddenStreamToken comment : tokens) {
+                previousIndex = copy(JavaParser.createCommentAstFromToken(comment),
+                        parent, previousIndex);
+            }
+            return previousIndex;
+        }
+
+        /**
+         * Appends a node.
+         *
+         * @param type the token type of the node
+         * @param lineNo the line number of the node
+         * @param columnNo the column number of the node
+         * @param text the text of the node
+         * @param parent the index of the parent of the node
+         * @param previousSibling the index of the previous sibling of the node
+         * @return the index of the node
+         * @noinspection MethodWithTooManyParameters
+         */
+        private int add(int type, int lineNo, int columnNo, String text, int parent,
+                int previousSibling) {
+            if (size == types.length) {
+                final int capacity = size * 2;
+                types = Arrays.copyOf(types, capacity);
+                lineNos = Arrays.copyOf(lineNos, capacity);
+                columnNos = Arrays.copyOf(columnNos, capacity);
+                texts = Arrays.copyOf(texts, capacity);
+                parents = Arrays.copyOf(parents, capacity);
+                firstChildren = Arrays.copyOf(firstChildren, capacity);
+                nextSiblings = Arrays.copyOf(nextSiblings, capacity);
+                previousSiblings = Arrays.copyOf(previousSiblings, capacity);
+            }
+            types[size] = type;
+            lineNos[size] = lineNo;
+            columnNos[size] = columnNo;
+            texts[size] = text;
+            parents[size] = parent;
+            firstChildren[size] = NONE;
+            nextSiblings[size] = NONE;
+            previousSiblings[size] = previousSibling;
+            if (previousSibling != NONE) {
+                nextSiblings[previousSibling] = size;
+            }
+            else if (parent != NONE) {
+                firstChildren[parent] = size;
+            }
+            final int result = size;
+            size++;
+            return result;
+        }
+
+        /**
+         * Creates the tree of the appended nodes.
+         *
+         * @return the tree
+         */
+        private Tree build() {
+            return new Tree(this);
+        }
+
+    }
+
+}
@@ -0,0 +1,452 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2021 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import org.antlr.v4.runtime.ParserRuleContext;
+import org.antlr.v4.runtime.Token;
+import org.antlr.v4.runtime.tree.ParseTree;
+import org.antlr.v4.runtime.tree.TerminalNode;
+
+import com.puppycrawl.tools.checkstyle.api.DetailNode;
+import com.puppycrawl.tools.checkstyle.api.JavadocTokenTypes;
+import com.puppycrawl.tools.checkstyle.grammar.javadoc.JavadocParser;
+import com.puppycrawl.tools.checkstyle.utils.JavadocUtil;
+
+/**
+ * The implementation of {@link DetailNode} which is a view of a Javadoc parse tree.
+ * The types, positions and relations of the nodes are kept in parallel arrays, in
+ * pre-order, when the view is created. A node, its text and its children are only
+ * created when they are requested, and then kept, so a node is always the same instance.
+ *
+ * <p>The indexes of the nodes of each type are kept sorted, so the nodes of some types
+ * are found without creating the nodes of other types.
+ *
+ * <p>The tree is completed when it is navigated, so it must not be navigated by several
+ * threads at once.
+ */
+final class CompactDetailNode implements DetailNode {
+
+    /** Index of a node which does not exist. */
+    private static final int NONE = -1;
+
+    /** The texts of the nodes of the rules of the parser, by the index of the rule. */
+    private static final String[] RULE_TEXTS = Arrays.stream(JavadocParser.ruleNames)
+            .map(JavadocDetailNodeParser::convertUpperCamelToUpperUnderscore)
+            .toArray(String[]::new);
+
+    /** The tree of the node. */
+    private final Tree tree;
+
+    /** The index of the node in the tree. */
+    private final int index;
+
+    /**
+     * Creates a new {@code CompactDetailNode} instance.
+     *
+     * @param tree the tree of the node
+     * @param index the index of the node in the tree
+     */
+    private CompactDetailNode(Tree tree, int index) {
+        this.tree = tree;
+        this.index = index;
+    }
+
+    /**
+     * Creates a view of a Javadoc parse tree.
+     *
+     * @param root the root of the parse tree
+     * @param firstLineNo the number of the line of the comment in the file
+     * @param firstLineColumnOffset the column of the comment content on its first line
+     * @return the root of the view
+     * @throws IllegalArgumentException if a rule of the tree has no Javadoc token type
+     */
+    public static CompactDetailNode of(ParseTree root, int firstLineNo,
+            int firstLineColumnOffset) {
+        final Builder builder = new Builder(firstLineNo, firstLineColumnOffset);
+        builder.add(root, NONE, NONE);
+        return new Tree(builder).getNode(0);
+    }
+
+    /**
+     * Returns this node and its descendants which have one of the given types,
+     * in pre-order. Nodes of other types are not created.
+     *
+     * @param types the types of the nodes to find
+     * @return the nodes of the types within the subtree of this node
+     */
+    public List<DetailNode> findNodes(Collection<Integer> types) {
+        final int end = tree.subtreeEnds[index];
+        int[] found = new int[0];
+        for (int type : types) {
+            final int[] nodes = tree.getOccurrences(type);
+            final int start = getInsertionPoint(nodes, index);
+            final int stop = getInsertionPoint(nodes, end);
+            final int length = found.length;
+            found = Arrays.copyOf(found, length + stop - start);
+            System.arraycopy(nodes, start, found, length, stop - start);
+        }
+        Arrays.sort(found);
+        final List<DetailNode> result = new ArrayList<>(found.length);
+        for (int node : found) {
+            result.add(tree.getNode(node));
+        }
+        return result;
+    }
+
+    /**
+     * Returns the position of the first element of a sorted array which is not
+     * less than a value.
+     *
+     * @param array the sorted array
+     * @param value the value
+     * @return the position of the value, or the position it would be inserted at
+     */
+    private static int getInsertionPoint(int[] array, int value) {
+        int result = Arrays.binarySearch(array, value);
+        if (result < 0) {
+            result = -result - 1;
+        }
+        return result;
+    }
+
+    @Override
+    public int getType() {
+        return tree.types[index];
+    }
+
+    @Override
+    public String getText() {
+        return tree.getText(index);
+    }
+
+    @Override
+    public int getLineNumber() {
+        return tree.lineNos[index];
+    }
+
+    @Override
+    public int getColumnNumber() {
+        return tree.columnNos[index];
+    }
+
+    @Override
+    public DetailNode[] getChildren() {
+        return tree.getChildren(index).clone();
+    }
+
+    @Override
+    public DetailNode getParent() {
+        return tree.getNode(tree.parents[index]);
+    }
+
+    @Override
+    public int getIndex() {
+        return tree.indexes[index];
+    }
+
+    @Override
+    public String toString() {
+        return "CompactDetailNode["
+                + "index=" + getIndex()
+                + ", type=" + JavadocUtil.getTokenName(getType())
+                + ", text='" + getText() + '\''
+                + ", lineNumber=" + getLineNumber()
+                + ", columnNumber=" + getColumnNumber() + ']';
+    }
+
+    /**
+     * The nodes of a tree, in pre-order.
+     */
+    private static final class Tree {
+
+        /** The types of the nodes. */
+        private final int[] types;
+
+        /** The line numbers of the nodes. */
+        private final int[] lineNos;
+
+        /** The column numbers of the nodes. */
+        private final int[] columnNos;
+
+        /** The indexes of the parents of the nodes. */
+        private final int[] parents;
+
+        /** The indexes of the nodes among the children of their parents. */
+        private final int[] indexes;
+
+        /** The indexes following the last descendants of the nodes. */
+        private final int[] subtreeEnds;
+
+        /** The parse tree nodes of the nodes, to create their texts. */
+        private final ParseTree[] parseTrees;
+
+        /** The smallest type of the nodes, the offset of the occurrences. */
+        private final int minType;
+
+        /** The ascending indexes of the nodes of each type, by the type minus the offset. */
+        private final int[][] occurrences;
+
+        /** The texts of the nodes, null until requested. */
+        private final String[] texts;
+
+        /** The children of the nodes, null until requested. */
+        private final DetailNode[][] children;
+
+        /** The nodes, null until requested. */
+        private final CompactDetailNode[] nodes;
+
+        /**
+         * Creates a new {@code Tree} instance from the arrays of a builder.
+         *
+         * @param builder the builder
+         */
+        /* package */ Tree(Builder builder) {
+            final int size = builder.size;
+            types = Arrays.copyOf(builder.types, size);
+            lineNos = Arrays.copyOf(builder.lineNos, size);
+            columnNos = Arrays.copyOf(builder.columnNos, size);
+            parents = Arrays.copyOf(builder.parents, size);
+            indexes = Arrays.copyOf(builder.indexes, size);
+            parseTrees = Arrays.copyOf(builder.parseTrees, size);
+            texts = Arrays.copyOf(builder.texts, size);
+            children = new DetailNode[size][];
+            nodes = new CompactDetailNode[size];
+            subtreeEnds = new int[size];
+            for (int node = size - 1; node >= 0; node--) {
+                subtreeEnds[node] = Math.max(subtreeEnds[node], node + 1);
+                if (parents[node] != NONE) {
+                    subtreeEnds[parents[node]] =
+                            Math.max(subtreeEnds[parents[node]], subtreeEnds[node]);
+                }
+            }
+            minType = Arrays.stream(types).min().orElse(0);
+            occurrences = createOccurrences(types, minType);
+        }
+
+        /**
+         * Creates the index of the nodes of each type.
+         *
+         * @param types the types of the nodes
+         * @param minType the smallest type of the nodes
+         * @return the ascending indexes of the nodes of each type, by the type minus
+         *         the smallest type
+         */
+        private static int[][] createOccurrences(int[] types, int minType) {
+            final int[] counts = new int[Arrays.stream(types).max().orElse(minType)
+                    - minType + 1];
+            for (int type : types) {
+                counts[type - minType]++;
+            }
+            final int[][] result = new int[counts.length][];
+            for (int type = 0; type < counts.length; type++) {
+                result[type] = new int[counts[type]];
+                counts[type] = 0;
+            }
+            for (int node = 0; node < types.length; node++) {
+                final int type = types[node] - minType;
+                result[type][counts[type]] = node;
+                counts[type]++;
+            }
+            return result;
+        }
+
+        /**
+         * Returns the ascending indexes of the nodes of a type.
+         *
+         * @param type the type
+         * @return the indexes of the nodes of the type, empty if there are none
+         */
+        private int[] getOccurrences(int type) {
+            final int[] result;
+            if (type < minType || type >= minType + occurrences.length) {
+                result = new int[0];
+            }
+            else {
+                result = occurrences[type - minType];
+            }
+            return result;
+        }
+
+        /**
+         * Returns the text of a node, creates it if it was not requested yet.
+         *
+         * @param node the index of the node
+         * @return the text of the node
+         */
+        private String getText(int node) {
+            if (texts[node] == null) {
+                texts[node] = parseTrees[node].getText();
+            }
+            return texts[node];
+        }
+
+        /**
+         * Returns the children of a node, creates them if they were not requested yet.
+         *
+         * @param node the index of the node
+         * @return the children of the node
+         */
+        private DetailNode[] getChildren(int node) {
+            if (children[node] == null) {
+                final List<DetailNode> result = new ArrayList<>();
+                int child = node + 1;
+                while (child < subtreeEnds[node]) {
+                    result.add(getNode(child));
+                    child = subtreeEnds[child];
+                }
+                children[node] = result.toArray(new DetailNode[0]);
+            }
+            return children[node];
+        }
+
+        /**
+         * Returns a node of the tree, creates it if it was not requested yet.
+         *
+         * @param node the index of the node
+         * @return the node, or null if the index is {@link #NONE}
+         */
+        private CompactDetailNode getNode(int node) {
+            CompactDetailNode result = null;
+            if (node != NONE) {
+                if (nodes[node] == null) {
+                    nodes[node] = new CompactDetailNode(this, node);
+                }
+                result = nodes[node];
+            }
+            return result;
+        }
+
+    }
+
+    /**
+     * Appends the nodes of a parse tree to the arrays of a tree, in pre-order.
+     */
+    private static final class Builder {
+
+        /** The initial capacity of the arrays. */
+        private static final int INITIAL_CAPACITY = 64;
+
+        /** The number of the line of the comment in the file. */
+        private final int firstLineNo;
+
+        /** The column of the comment content on its first line. */
+        private final int firstLineColumnOffset;
+
+        /** The number of nodes appended. */
+        private int size;
+
+        /** The types of the nodes. */
+        private int[] types = new int[INITIAL_CAPACITY];
+
+        /** The line numbers of the nodes. */
+        private int[] lineNos = new int[INITIAL_CAPACITY];
+
+        /** The column numbers of the nodes. */
+        private int[] columnNos = new int[INITIAL_CAPACITY];
+
+        /** The indexes of the parents of the nodes. */
+        private int[] parents = new int[INITIAL_CAPACITY];
+
+        /** The indexes of the nodes among the children of their parents. */
+        private int[] indexes = new int[INITIAL_CAPACITY];
+
+        /** The parse tree nodes of the nodes. */
+        private ParseTree[] parseTrees = new ParseTree[INITIAL_CAPACITY];
+
+        /** The texts of the nodes which are known without the parse tree. */
+        private String[] texts = new String[INITIAL_CAPACITY];
+
+        /**
+         * Creates a new {@code Builder} instance.
+         *
+         * @param firstLineNo the number of the line of the comment in the file
+         * @param firstLineColumnOffset the column of the comment content on its first line
+         */
+        /* package */ Builder(int firstLineNo, int firstLineColumnOffset) {
+            this.firstLineNo = firstLineNo;
+            this.firstLineColumnOffset = firstLineColumnOffset;
+        }
+
+        /**
+         * Appends a node of a parse tree and its descendants. The children of a
+         * text node are not appended.
+         *
+         * @param parseTree the node of the parse tree
+         * @param parent the index of the parent of the node
+         * @param indexInParent the index of the node among the children of its parent
+         */
+        private void add(ParseTree parseTree, int parent, int indexInParent) {
+            if (size == types.length) {
+                grow();
+            }
+            final int node = size;
+            size++;
+            parents[node] = parent;
+            indexes[node] = indexInParent;
+            parseTrees[node] = parseTree;
+
+            final Token token;
+            if (parseTree.getChildCount() == 0) {
+                token = ((TerminalNode) parseTree).getSymbol();
+                types[node] = token.getType();
+            }
+            else {
+                final ParserRuleContext rule = (ParserRuleContext) parseTree;
+                token = rule.start;
+                if (rule.getRuleIndex() != JavadocParser.RULE_text) {
+                    texts[node] = RULE_TEXTS[rule.getRuleIndex()];
+                }
+                types[node] = JavadocUtil.getTokenId(RULE_TEXTS[rule.getRuleIndex()]);
+            }
+            lineNos[node] = token.getLine() - 1 + firstLineNo;
+            columnNos[node] = token.getCharPositionInLine();
+            if (token.getLine() == 1) {
+                columnNos[node] += firstLineColumnOffset;
+            }
+
+            if (types[node] != JavadocTokenTypes.TEXT) {
+                for (int child = 0; child < parseTree.getChildCount(); child++) {
+                    add(parseTree.getChild(child), node, child);
+                }
+            }
+        }
+
+        /**
+         * Doubles the capacity of the arrays.
+         */
+        private void grow() {
+            final int capacity = types.length * 2;
+            types = Arrays.copyOf(types, capacity);
+            lineNos = Arrays.copyOf(lineNos, capacity);
+            columnNos = Arrays.copyOf(columnNos, capacity);
+            parents = Arrays.copyOf(parents, capacity);
+            indexes = Arrays.copyOf(indexes, capacity);
+            parseTrees = Arrays.copyOf(parseTrees, capacity);
+            texts = Arrays.copyOf(texts, capacity);
+        }
+
+    }
+
+}
@@ -0,0 +1,816 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2021 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
+import com.puppycrawl.tools.checkstyle.api.Configuration;
+
+/**
+ * A resident process which runs the command line of Checkstyle for clients on
+ * the same machine. The daemon keeps the configurations of the last executions,
+ * so a client which is started with the option {@code --daemon-port} neither
+ * loads nor parses its configuration again and runs on warm code. Each
+ * execution creates, configures and destroys a root module of its own, so no
+ * state of the modules leaks between executions. The daemon listens on the
+ * loopback interface only and serves each client in a thread of its own. A
+ * client has to send the secret token which the daemon writes to a file in the
+ * home directory of the user, and answers the requests of the daemon for the
+ * system properties which are expanded in the configuration. As modules
+ * resolve relative paths of their properties against the working directory of
+ * the process, the daemon only runs command lines of clients in its own
+ * working directory.
+ */
+public final class Daemon implements Closeable {
+
+    /** The time in milliseconds a client may take to send each part of its request. */
+    private static final int CLIENT_TIMEOUT_MILLIS = 10_000;
+
+    /** The maximum length in bytes of a string of a request. */
+    private static final int MAX_STRING_LENGTH = 1024 * 1024;
+
+    /** The maximum number of configurations which are kept. */
+    private static final int MAX_CONFIGURATIONS = 4;
+
+    /** The channel of a response which carries bytes of the standard output. */
+    private static final byte OUT_CHANNEL = 'o';
+
+    /** The channel of a response which carries bytes of the standard error output. */
+    private static final byte ERR_CHANNEL = 'e';
+
+    /** The channel of a response which asks the client for a system property. */
+    private static final byte PROPERTY_CHANNEL = 'p';
+
+    /** The channel of a response which carries the exit status and ends the response. */
+    private static final byte EXIT_CHANNEL = 'x';
+
+    /** Exit code returned when the client runs in another working directory. */
+    private static final int EXIT_WITH_INVALID_WORKING_DIRECTORY_CODE = -1;
+
+    /** Exit code returned when the execution fails with an unexpected exception. */
+    private static final int EXIT_WITH_EXCEPTION_CODE = -2;
+
+    /** The socket which accepts the clients. */
+    private final ServerSocket serverSocket;
+
+    /** The file which contains the token. */
+    private final Path tokenFile;
+
+    /** The secret token which a client has to send. */
+    private final String token;
+
+    /** The time in milliseconds a client may take to send each part of its request. */
+    private final int clientTimeout;
+
+    /** The threads which run the command lines of the clients. */
+    private final ExecutorService workers = Executors.newCachedThreadPool();
+
+    /** The kept configurations by the settings they were loaded with, least recently used first. */
+    private final Map<ConfigurationSettings, KeptConfiguration> configurations =
+            new LinkedHashMap<>(MAX_CONFIGURATIONS, 0.75f, true);
+
+    /**
+     * The threads which run executions reporting messages in {@link #messagesLocale}.
+     * The locale of messages is global, so executions with other locales wait
+     * until these have finished.
+     */
+    private final Set<Thread> localeHolders = new HashSet<>();
+
+    /** The locale of messages of the running executions. */
+    private Locale messagesLocale;
+
+    /**
+     * Creates a new {@code Daemon} instance and writes its token file.
+     *
+     * @param serverSocket the socket which accepts the clients
+     * @param tokenDirectory the directory of the token file
+     * @throws IOException if the token file can not be written
+     */
+    /* package */ Daemon(ServerSocket serverSocket, Path tokenDirectory) throws IOException {
+        this(serverSocket, tokenDirectory, CLIENT_TIMEOUT_MILLIS);
+    }
+
+    /**
+     * Creates a new {@code Daemon} instance with a timeout for the requests
+     * of the clients and writes its token file.
+     *
+     * @param serverSocket the socket which accepts the clients
+     * @param tokenDirectory the directory of the token file
+     * @param clientTimeout the time in milliseconds a client may take to send
+     *     each part of its request
+     * @throws IOException if the token file can not be written
+     */
+    /* package */ Daemon(ServerSocket serverSocket, Path tokenDirectory, int clientTimeout)
+            throws IOException {
+        this.serverSocket = serverSocket;
+        this.clientTimeout = clientTimeout;
+        tokenFile = getTokenFile(tokenDirectory, serverSocket.getLocalPort());
+        token = UUID.randomUUID().toString();
+        writeTokenFile(tokenFile, token);
+    }
+
+    /**
+     * Starts a daemon which listens on the port given as the only argument
+     * and runs until the process is terminated.
+     *
+     * @param args the command line arguments
+     * @throws IOException if the port can not be opened
+     * @noinspection UseOfSystemOutOrSystemErr, CallToSystemExit
+     */
+    public static void main(String... args) throws IOException {
+        if (args.length == 1 && args[0].matches("\\d{1,5}")) {
+            final ServerSocket serverSocket = new ServerSocket(Integer.parseInt(args[0]), 0,
+                    InetAddress.getLoopbackAddress());
+            final Daemon daemon = new Daemon(serverSocket, getDefaultTokenDirectory());
+            Runtime.getRuntime().addShutdownHook(new Thread(daemon::closeQuietly));
+            System.out.println("Checkstyle daemon listening on port "
+                    + serverSocket.getLocalPort());
+            daemon.serve();
+        }
+        else {
+            System.err.println("Usage: java -cp checkstyle-all.jar "
+                    + Daemon.class.getName() + " PORT");
+            System.exit(-1);
+        }
+    }
+
+    /**
+     * Accepts clients until the daemon is closed. Each client is handed to a
+     * worker, so neither a slow client nor a long execution keeps other
+     * clients from being accepted.
+     *
+     * @noinspection CallToPrintStackTrace
+     */
+    /* package */ void serve() {
+        while (!serverSocket.isClosed()) {
+            try {
+                final Socket socket = serverSocket.accept();
+                socket.setSoTimeout(clientTimeout);
+                workers.execute(() -> serveClient(socket));
+            }
+            catch (SocketException ignored) {
+                // the daemon is closed or the client has gone
+            }
+            catch (IOException ex) {
+                ex.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * Reads the request of a client and, if it sends the token, runs its
+     * command line and sends back its output and exit status. A client which
+     * does not send a part of its request in time is dropped.
+     *
+     * @param socket the socket connected to the client
+     * @noinspection CallToPrintStackTrace
+     */
+    private void serveClient(Socket socket) {
+        try (Socket client = socket) {
+            final DataInputStream request = new DataInputStream(
+                    new BufferedInputStream(client.getInputStream()));
+            if (token.equals(readString(request))) {
+                serveAuthenticatedClient(client, request);
+            }
+        }
+        catch (SocketException | SocketTimeoutException ignored) {
+            // the client has gone or is too slow
+        }
+        catch (IOException ex) {
+            ex.printStackTrace();
+        }
+    }
+
+    /**
+     * Reads the rest of the request of a client which has sent the token,
+     * runs its command line and sends back its output and exit status.
+     *
+     * @param client the socket connected to the client
+     * @param request the request of the client after the token
+     * @throws IOException if the connection fails
+     */
+    private void serveAuthenticatedClient(Socket client, DataInputStream request)
+            throws IOException {
+        final Path workingDirectory = Paths.get(readString(request));
+        final String[] args = new String[request.readInt()];
+        for (int i = 0; i < args.length; i++) {
+            args[i] = readString(request);
+        }
+
+        final DataOutputStream response = new DataOutputStream(
+                new BufferedOutputStream(client.getOutputStream()));
+        final PrintStream out = createPrintStream(response, OUT_CHANNEL);
+        final PrintStream err = createPrintStream(response, ERR_CHANNEL);
+        final Path daemonWorkingDirectory = Paths.get("").toAbsolutePath();
+        int exitStatus;
+        if (workingDirectory.equals(daemonWorkingDirectory)) {
+            try {
+                exitStatus = Main.run(this, workingDirectory,
+                        new ClientPropertyResolver(request, response), out, err, args);
+            }
+            // -@cs[IllegalCatch] The daemon must survive any failure of a client
+            catch (IOException | RuntimeException ex) {
+                exitStatus = EXIT_WITH_EXCEPTION_CODE;
+                ex.printStackTrace(err);
+            }
+            finally {
+                unlockLocale();
+            }
+        }
+        else {
+            exitStatus = EXIT_WITH_INVALID_WORKING_DIRECTORY_CODE;
+            err.println("The daemon runs in " + daemonWorkingDirectory
+                    + " and can not run command lines in " + workingDirectory
+                    + ", as relative paths in the configuration are resolved against "
+                    + "the working directory of the daemon.");
+        }
+        out.flush();
+        err.flush();
+        response.writeByte(EXIT_CHANNEL);
+        response.writeInt(exitStatus);
+        response.flush();
+    }
+
+    /**
+     * Sends a command line to the daemon listening on a port and copies the
+     * output of the daemon to the given streams.
+     *
+     * @param tokenDirectory the directory of the token file of the daemon
+     * @param port the port of the daemon
+     * @param args the command line
+     * @param out the standard output
+     * @param err the standard error output
+     * @return the exit status of the command line
+     * @throws CheckstyleException if the daemon can not be reached
+     */
+    /* package */ static int sendRequest(Path tokenDirectory, int port, String[] args,
+            PrintStream out, PrintStream err) throws CheckstyleException {
+        return sendRequest(tokenDirectory, port, Paths.get("").toAbsolutePath(),
+                System.getProperties(), args, out, err);
+    }
+
+    /**
+     * Sends a command line to the daemon listening on a port on behalf of a
+     * client with the given working directory and system properties, and
+     * copies the output of the daemon to the given streams. Only the system
+     * properties which the daemon asks for are sent.
+     *
+     * @param tokenDirectory the directory of the token file of the daemon
+     * @param port the port of the daemon
+     * @param workingDirectory the working directory of the client
+     * @param systemProperties the system properties of the client
+     * @param args the command line
+     * @param out the standard output
+     * @param err the standard error output
+     * @return the exit status of the command line
+     * @throws CheckstyleException if the daemon can not be reached
+     */
+    /* package */ static int sendRequest(Path tokenDirectory, int port, Path workingDirectory,
+            Properties systemProperties, String[] args, PrintStream out, PrintStream err)
+            throws CheckstyleException {
+        final Path file = getTokenFile(tokenDirectory, port);
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+            final DataOutputStream request = new DataOutputStream(
+                    new BufferedOutputStream(socket.getOutputStream()));
+            writeString(request, new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+            writeString(request, workingDirectory.toString());
+            request.writeInt(args.length);
+            for (String arg : args) {
+                writeString(request, arg);
+            }
+            request.flush();
+            return readResponse(new DataInputStream(
+                    new BufferedInputStream(socket.getInputStream())), request,
+                    systemProperties, out, err);
+        }
+        catch (IOException ex) {
+            throw new CheckstyleException("Unable to run the command line by the daemon "
+                    + "on port " + port + " with token file " + file, ex);
+        }
+    }
+
+    /**
+     * Sends a command line to the daemon of the current user listening on a port.
+     *
+     * @param port the port of the daemon
+     * @param args the command line
+     * @param out the standard output
+     * @param err the standard error output
+     * @return the exit status of the command line
+     * @throws CheckstyleException if the daemon can not be reached
+     */
+    /* package */ static int sendRequest(int port, String[] args, PrintStream out,
+            PrintStream err) throws CheckstyleException {
+        return sendRequest(getDefaultTokenDirectory(), port, args, out, err);
+    }
+
+    /**
+     * Copies the output of the daemon to the given streams and answers its
+     * requests for system properties until the exit status arrives.
+     *
+     * @param response the response of the daemon
+     * @param request the request to the daemon
+     * @param systemProperties the system properties of the client
+     * @param out the standard output
+     * @param err the standard error output
+     * @return the exit status
+     * @throws IOException if the response can not be read or the request can not be written
+     */
+    private static int readResponse(DataInputStream response, DataOutputStream request,
+            Properties systemProperties, PrintStream out, PrintStream err) throws IOException {
+        byte channel = response.readByte();
+        while (channel != EXIT_CHANNEL) {
+            if (channel == PROPERTY_CHANNEL) {
+                final String value = systemProperties.getProperty(readString(response));
+                request.writeBoolean(value != null);
+                if (value != null) {
+                    writeString(request, value);
+                }
+                request.flush();
+            }
+            else {
+                final byte[] bytes = new byte[response.readInt()];
+                response.readFully(bytes);
+                if (channel == OUT_CHANNEL) {
+                    out.write(bytes);
+                }
+                else {
+                    err.write(bytes);
+                }
+            }
+            channel = response.readByte();
+        }
+        out.flush();
+        err.flush();
+        return response.readInt();
+    }
+
+    /**
+     * Writes a string of a request as its length and its bytes in UTF-8.
+     * Unlike {@link DataOutputStream#writeUTF(String)} this is not limited
+     * to 64 kilobytes, which a class path in a system property may exceed.
+     *
+     * @param request the request
+     * @param string the string
+     * @throws IOException if the string can not be written
+     */
+    private static void writeString(DataOutputStream request, String string)
+            throws IOException {
+        final byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+        request.writeInt(bytes.length);
+        request.write(bytes);
+    }
+
+    /**
+     * Reads a string of a request written by {@link #writeString}.
+     *
+     * @param request the request
+     * @return the string
+     * @throws IOException if the string can not be read or is too long
+     */
+    private static String readString(DataInputStream request) throws IOException {
+        final int length = request.readInt();
+        if (length < 0 || length > MAX_STRING_LENGTH) {
+            throw new IOException("Invalid length of a string of a request: " + length);
+        }
+        final byte[] bytes = new byte[length];
+        request.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Returns the configuration loaded with the given settings. A kept
+     * configuration is returned if its file has not been modified since and
+     * all the properties it has expanded still resolve to the same values.
+     * Otherwise the configuration is loaded and kept for the next executions.
+     *
+     * @param settings the settings of the configuration
+     * @param resolver the resolver of the properties which are expanded
+     * @return the configuration
+     * @throws CheckstyleException if the configuration can not be loaded
+     */
+    /* package */ Configuration getConfiguration(ConfigurationSettings settings,
+            PropertyResolver resolver) throws CheckstyleException {
+        KeptConfiguration keptConfiguration;
+        synchronized (configurations) {
+            keptConfiguration = configurations.get(settings);
+        }
+        if (keptConfiguration == null || !keptConfiguration.isUpToDate(settings, resolver)) {
+            final long lastModified = new File(settings.config).lastModified();
+            final Map<String, String> resolvedProperties = new HashMap<>();
+            final Configuration configuration = ConfigurationLoader.loadConfiguration(
+                    settings.config, recordResolvedProperties(resolver, resolvedProperties),
+                    settings.ignoredModulesOptions, settings.threadModeSettings);
+            keptConfiguration = new KeptConfiguration(configuration, lastModified,
+                    resolvedProperties);
+            synchronized (configurations) {
+                configurations.put(settings, keptConfiguration);
+                if (configurations.size() > MAX_CONFIGURATIONS) {
+                    final Iterator<KeptConfiguration> iterator =
+                            configurations.values().iterator();
+                    iterator.next();
+                    iterator.remove();
+                }
+            }
+        }
+        return keptConfiguration.configuration;
+    }
+
+    /**
+     * Returns a resolver of properties which records the resolved values.
+     *
+     * @param resolver the resolver of the properties
+     * @param resolvedProperties the map which receives the resolved values by name
+     * @return the recording resolver
+     */
+    private static PropertyResolver recordResolvedProperties(PropertyResolver resolver,
+            Map<String, String> resolvedProperties) {
+        return name -> {
+            final String value = resolver.resolve(name);
+            resolvedProperties.put(name, value);
+            return value;
+        };
+    }
+
+    /**
+     * Waits until no execution with another locale of messages runs, and
+     * registers the current thread as an execution with the given locale.
+     * The locale of messages is global, so executions with different locales
+     * must not run at the same time. The registration is released by
+     * {@link #unlockLocale()} after the command line has finished.
+     *
+     * @param locale the locale of messages of the execution
+     * @throws CheckstyleException if the thread is interrupted while waiting
+     */
+    /* package */ void lockLocale(Locale locale) throws CheckstyleException {
+        synchronized (localeHolders) {
+            try {
+                while (!localeHolders.isEmpty() && !locale.equals(messagesLocale)) {
+                    localeHolders.wait();
+                }
+            }
+            catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new CheckstyleException("Interrupted while waiting for executions "
+                        + "with the locale " + messagesLocale + " to finish", ex);
+            }
+            messagesLocale = locale;
+            localeHolders.add(Thread.currentThread());
+        }
+    }
+
+    /**
+     * Releases the locale of messages registered for the current thread, if any.
+     */
+    /* package */ void unlockLocale() {
+        synchronized (localeHolders) {
+            if (localeHolders.remove(Thread.currentThread())) {
+                localeHolders.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Stops accepting clients, drops the kept configurations and deletes the token file.
+     *
+     * @throws IOException if the socket can not be closed
+     */
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        synchronized (configurations) {
+            configurations.clear();
+        }
+        workers.shutdown();
+        Files.deleteIfExists(tokenFile);
+    }
+
+    /**
+     * Closes the daemon and ignores failures, as the process is terminating.
+     */
+    private void closeQuietly() {
+        try {
+            close();
+        }
+        catch (IOException ignored) {
+            // the process is terminating anyway
+        }
+    }
+
+    /**
+     * Creates a print stream which sends its bytes on a channel of a response.
+     *
+     * @param response the response
+     * @param channel the channel
+     * @return the print stream
+     * @throws IOException never, as the encoding is supported
+     */
+    private static PrintStream createPrintStream(DataOutputStream response, byte channel)
+            throws IOException {
+        return new PrintStream(new ChannelOutputStream(response, channel), false,
+                StandardCharsets.UTF_8.name());
+    }
+
+    /**
+     * Returns the directory of the token files of the current user.
+     *
+     * @return the home directory of the user
+     */
+    private static Path getDefaultTokenDirectory() {
+        return Paths.get(System.getProperty("user.home"));
+    }
+
+    /**
+     * Returns the token file of the daemon listening on a port.
+     *
+     * @param tokenDirectory the directory of the token file
+     * @param port the port
+     * @return the token file
+     */
+    private static Path getTokenFile(Path tokenDirectory, int port) {
+        return tokenDirectory.resolve(".checkstyle-daemon-" + port);
+    }
+
+    /**
+     * Writes the token to a file which only the owner can read, if the file
+     * system supports POSIX permissions.
+     *
+     * @param file the token file
+     * @param token the token
+     * @throws IOException if the file can not be written
+     */
+    private static void writeTokenFile(Path file, String token) throws IOException {
+        Files.deleteIfExists(file);
+        if (file.getFileSystem().supportedFileAttributeViews().contains("posix")) {
+            Files.createFile(file, PosixFilePermissions.asFileAttribute(
+                    PosixFilePermissions.fromString("rw-------")));
+        }
+        Files.write(file, token.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * The settings which a configuration is loaded with. A kept configuration
+     * is only reused by an execution with equal settings.
+     */
+    /* package */ static final class ConfigurationSettings {
+
+        /** The location of the configuration. */
+        private final String config;
+
+        /** The working directory of the client. */
+        private final Path workingDirectory;
+
+        /** Whether modules with severity ignore are executed. */
+        private final ConfigurationLoader.IgnoredModulesOptions ignoredModulesOptions;
+
+        /** The thread mode settings. */
+        private final ThreadModeSettings threadModeSettings;
+
+        /**
+         * Creates a new {@code ConfigurationSettings} instance.
+         *
+         * @param config the location of the configuration
+         * @param workingDirectory the working directory of the client
+         * @param ignoredModulesOptions whether modules with severity ignore are executed
+         * @param threadModeSettings the thread mode settings
+         */
+        /* package */ ConfigurationSettings(String config, Path workingDirectory,
+                ConfigurationLoader.IgnoredModulesOptions ignoredModulesOptions,
+                ThreadModeSettings threadModeSettings) {
+            this.config = config;
+            this.workingDirectory = workingDirectory;
+            this.ignoredModulesOptions = ignoredModulesOptions;
+            this.threadModeSettings = threadModeSettings;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (other == null || getClass() != other.getClass()) {
+                return false;
+            }
+            final ConfigurationSettings settings = (ConfigurationSettings) other;
+            return threadModeSettings.getCheckerThreadsNumber()
+                        == settings.threadModeSettings.getCheckerThreadsNumber()
+                    && threadModeSettings.getTreeWalkerThreadsNumber()
+                        == settings.threadModeSettings.getTreeWalkerThreadsNumber()
+                    && ignoredModulesOptions == settings.ignoredModulesOptions
+                    && config.equals(settings.config)
+                    && workingDirectory.equals(settings.workingDirectory);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(config, workingDirectory, ignoredModulesOptions,
+                    threadModeSettings.getCheckerThreadsNumber(),
+                    threadModeSettings.getTreeWalkerThreadsNumber());
+        }
+
+    }
+
+    /**
+     * A kept configuration together with the modification time of its file
+     * and the values of the properties it has expanded.
+     */
+    private static final class KeptConfiguration {
+
+        /** The configuration. */
+        private final Configuration configuration;
+
+        /** The modification time of the file of the configuration. */
+        private final long lastModified;
+
+        /** The values of the expanded properties by name, null for undefined ones. */
+        private final Map<String, String> resolvedProperties;
+
+        /**
+         * Creates a new {@code KeptConfiguration} instance.
+         *
+         * @param configuration the configuration
+         * @param lastModified the modification time of the file of the configuration
+         * @param resolvedProperties the values of the expanded properties by name
+         */
+        /* package */ KeptConfiguration(Configuration configuration, long lastModified,
+                Map<String, String> resolvedProperties) {
+            this.configuration = configuration;
+            this.lastModified = lastModified;
+            this.resolvedProperties = resolvedProperties;
+        }
+
+        /**
+         * Checks whether the file of the configuration has not been modified
+         * since and all the expanded properties still resolve to the same values.
+         *
+         * @param settings the settings of the configuration
+         * @param resolver the resolver of the properties of the execution
+         * @return true if the configuration is up to date
+         */
+        private boolean isUpToDate(ConfigurationSettings settings, PropertyResolver resolver) {
+            return lastModified == new File(settings.config).lastModified()
+                    && resolvedProperties.entrySet().stream().allMatch(entry -> {
+                        return Objects.equals(entry.getValue(),
+                                resolver.resolve(entry.getKey()));
+                    });
+        }
+
+    }
+
+    /**
+     * Resolves the system properties of a client by asking it on the response
+     * and reading the answer from the request. Each property is asked once.
+     */
+    private static final class ClientPropertyResolver implements PropertyResolver {
+
+        /** The request of the client. */
+        private final DataInputStream request;
+
+        /** The response to the client. */
+        private final DataOutputStream response;
+
+        /** The values of the asked properties by name, null for undefined ones. */
+        private final Map<String, String> values = new HashMap<>();
+
+        /**
+         * Creates a new {@code ClientPropertyResolver} instance.
+         *
+         * @param request the request of the client
+         * @param response the response to the client
+         */
+        /* package */ ClientPropertyResolver(DataInputStream request,
+                DataOutputStream response) {
+            this.request = request;
+            this.response = response;
+        }
+
+        @Override
+        public String resolve(String name) {
+            if (!values.containsKey(name)) {
+                values.put(name, askClient(name));
+            }
+            return values.get(name);
+        }
+
+        /**
+         * Asks the client for the value of a system property.
+         *
+         * @param name the name of the property
+         * @return the value, or null if the property is not defined
+         * @throws IllegalStateException if the connection fails
+         */
+        private String askClient(String name) {
+            try {
+                synchronized (response) {
+                    response.writeByte(PROPERTY_CHANNEL);
+                    writeString(response, name);
+                    response.flush();
+                }
+                String value = null;
+                if (request.readBoolean()) {
+                    value = readString(request);
+                }
+                return value;
+            }
+            catch (IOException ex) {
+                throw new IllegalStateException("Unable to read the system property "
+                        + name + " of the client", ex);
+            }
+        }
+
+    }
+
+    /**
+     * An output stream which sends its bytes on a channel of a response.
+     */
+    private static final class ChannelOutputStream extends OutputStream {
+
+        /** The response. */
+        private final DataOutputStream response;
+
+        /** The channel. */
+        private final byte channel;
+
+        /**
+         * Creates a new {@code ChannelOutputStream} instance.
+         *
+         * @param response the response
+         * @param channel the channel
+         */
+        /* package */ ChannelOutputStream(DataOutputStream response, byte channel) {
+            this.response = response;
+            this.channel = channel;
+        }
+
+        @Override
+        public void write(int value) throws IOException {
+            write(new byte[] {(byte) value}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            synchronized (response) {
+                response.writeByte(channel);
+                response.writeInt(length);
+                response.write(bytes, offset, length);
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            synchronized (response) {
+                response.flush();
+            }
+        }
+
+    }
+
+}
@@ -169,13 +169,14 @@ public final class DetailAstImpl extends CommonASTWithHiddenTokens implements De
     public int getChildCount() {
         // lazy init
         if (childCount == NOT_INITIALIZED) {
-            childCount = 0;
+            int count = 0;
             AST child = getFirstChild();
 
             while (child != null) {
-                childCount += 1;
+                count += 1;
                 child = child.getNextSibling();
             }
+            childCount = count;
         }
         return childCount;
     }
@@ -328,20 +329,22 @@ public final class DetailAstImpl extends CommonASTWithHiddenTokens implements De
      */
     private BitSet getBranchTokenTypes() {
         // lazy init
-        if (branchTokenTypes == null) {
-            branchTokenTypes = new BitSet();
-            branchTokenTypes.set(getType());
+        BitSet result = branchTokenTypes;
+        if (result == null) {
+            result = new BitSet();
+            result.set(getType());
 
             // add union of all children
             DetailAstImpl child = getFirstChild();
             while (child != null) {
                 final BitSet childTypes = child.getBranchTokenTypes();
-                branchTokenTypes.or(childTypes);
+                result.or(childTypes);
 
                 child = child.getNextSibling();
             }
+            branchTokenTypes = result;
         }
-        return branchTokenTypes;
+        return result;
     }
 
     @Override
@@ -221,7 +221,7 @@ public final class JavaParser {
      * @param token to create the AST
      * @return DetailAST of comment node
      */
-    private static DetailAST createCommentAstFromToken(Token token) {
+    /* package */ static DetailAST createCommentAstFromToken(Token token) {
         final DetailAST commentAst;
         if (token.getType() == TokenTypes.SINGLE_LINE_COMMENT) {
             commentAst = createSlCommentNode(token);
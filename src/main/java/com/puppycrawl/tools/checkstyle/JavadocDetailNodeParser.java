@@ -20,6 +20,8 @@
 package com.puppycrawl.tools.checkstyle;
 
 import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Deque;
 import java.util.List;
 
@@ -37,6 +39,7 @@ import org.antlr.v4.runtime.ParserRuleContext;
 import org.antlr.v4.runtime.RecognitionException;
 import org.antlr.v4.runtime.Recognizer;
 import org.antlr.v4.runtime.Token;
+import org.antlr.v4.runtime.atn.PredictionMode;
 import org.antlr.v4.runtime.misc.Interval;
 import org.antlr.v4.runtime.misc.ParseCancellationException;
 import org.antlr.v4.runtime.tree.ParseTree;
@@ -45,7 +48,6 @@ import org.antlr.v4.runtime.tree.TerminalNode;
 import com.puppycrawl.tools.checkstyle.api.DetailAST;
 import com.puppycrawl.tools.checkstyle.api.DetailNode;
 import com.puppycrawl.tools.checkstyle.api.JavadocTokenTypes;
-import com.puppycrawl.tools.checkstyle.checks.javadoc.JavadocNodeImpl;
 import com.puppycrawl.tools.checkstyle.grammar.javadoc.JavadocLexer;
 import com.puppycrawl.tools.checkstyle.grammar.javadoc.JavadocParser;
 import com.puppycrawl.tools.checkstyle.utils.JavadocUtil;
@@ -53,6 +55,13 @@ import com.puppycrawl.tools.checkstyle.utils.JavadocUtil;
 /**
  * Used for parsing Javadoc comment as DetailNode tree.
  *
+ * <p>A comment is parsed in two stages. The first stage uses the faster SLL
+ * prediction and gives up on the first error, which is enough for almost
+ * every comment. Only a comment failing the first stage is parsed again
+ * with full LL prediction, which reports the error. The lexer and parser
+ * are reused for every comment parsed by an instance, so an instance must
+ * not be shared among threads.
+ *
  */
 public class JavadocDetailNodeParser {
 
@@ -84,10 +93,14 @@ public class JavadocDetailNodeParser {
     /** Symbols with which javadoc starts. */
     private static final String JAVADOC_START = "/**";
 
-    /**
-     * Line number of the Block comment AST that is being parsed.
-     */
-    private int blockCommentLineNumber;
+    /** Lexer of the comments. */
+    private final JavadocLexer lexer = new JavadocLexer(null);
+
+    /** Tokens of the comment being parsed. */
+    private final CommonTokenStream tokens = new CommonTokenStream(lexer);
+
+    /** Parser of the comments. */
+    private final JavadocParser parser = new JavadocParser(null);
 
     /**
      * Parses Javadoc comment as DetailNode tree.
@@ -97,8 +110,6 @@ public class JavadocDetailNodeParser {
      * @return DetailNode tree of Javadoc comment
      */
     public ParseStatus parseJavadocAsDetailNode(DetailAST javadocCommentAst) {
-        blockCommentLineNumber = javadocCommentAst.getLineNo();
-
         final String javadocComment = JavadocUtil.getJavadocCommentContent(javadocCommentAst);
 
         // Use a new error listener each time to be able to use
@@ -114,17 +125,13 @@ public class JavadocDetailNodeParser {
         final ParseStatus result = new ParseStatus();
 
         try {
-            final JavadocParser javadocParser = createJavadocParser(javadocComment, errorListener);
+            final ParseTree javadocParseTree = parseJavadoc(javadocComment, errorListener);
 
-            final ParseTree javadocParseTree = javadocParser.javadoc();
-
-            final DetailNode tree = convertParseTreeToDetailNode(javadocParseTree);
             // adjust first line to indent of /**
-            adjustFirstLineToJavadocIndent(tree,
-                        javadocCommentAst.getColumnNo()
-                                + JAVADOC_START.length());
-            result.setTree(tree);
-            result.firstNonTightHtmlTag = getFirstNonTightHtmlTag(javadocParser,
+            result.setTree(CompactDetailNode.of(javadocParseTree,
+                    javadocCommentAst.getLineNo(),
+                    javadocCommentAst.getColumnNo() + JAVADOC_START.length()));
+            result.firstNonTightHtmlTag = getFirstNonTightHtmlTag(parser,
                     errorListener.offset);
         }
         catch (ParseCancellationException | IllegalArgumentException ex) {
@@ -157,299 +164,53 @@ public class JavadocDetailNodeParser {
     }
 
     /**
-     * Parses block comment content as javadoc comment.
+     * Parses block comment content as javadoc comment, with SLL prediction
+     * first and with LL prediction if SLL prediction fails.
      *
      * @param blockComment
      *        block comment content.
      * @param errorListener custom error listener
      * @return parse tree
      */
-    private static JavadocParser createJavadocParser(String blockComment,
+    private ParseTree parseJavadoc(String blockComment,
             DescriptiveErrorListener errorListener) {
-        final JavadocLexer lexer = new JavadocLexer(CharStreams.fromString(blockComment));
-
-        final CommonTokenStream tokens = new CommonTokenStream(lexer);
+        lexer.setInputStream(CharStreams.fromString(blockComment));
+        tokens.setTokenSource(lexer);
+        parser.setTokenStream(tokens);
+        parser.nonTightTagStartContext = null;
 
-        final JavadocParser parser = new JavadocParser(tokens);
-
-        // remove default error listeners
+        // errors are neither reported nor recovered from in the first stage
         parser.removeErrorListeners();
+        parser.setErrorHandler(new BailErrorStrategy());
+        parser.getInterpreter().setPredictionMode(PredictionMode.SLL);
 
-        // add custom error listener that logs syntax errors
-        parser.addErrorListener(errorListener);
-
-        // JavadocParserErrorStrategy stops parsing on first parse error encountered unlike the
-        // DefaultErrorStrategy used by ANTLR which rather attempts error recovery.
-        parser.setErrorHandler(new JavadocParserErrorStrategy());
-
-        return parser;
-    }
-
-    /**
-     * Converts ParseTree (that is generated by ANTLRv4) to DetailNode tree.
-     *
-     * @param parseTreeNode root node of ParseTree
-     * @return root of DetailNode tree
-     * @noinspection SuspiciousArrayCast
-     */
-    private DetailNode convertParseTreeToDetailNode(ParseTree parseTreeNode) {
-        final JavadocNodeImpl rootJavadocNode = createRootJavadocNode(parseTreeNode);
-
-        JavadocNodeImpl currentJavadocParent = rootJavadocNode;
-        ParseTree parseTreeParent = parseTreeNode;
-
-        while (currentJavadocParent != null) {
-            // remove unnecessary children tokens
-            if (currentJavadocParent.getType() == JavadocTokenTypes.TEXT) {
-                currentJavadocParent.setChildren(JavadocNodeImpl.EMPTY_DETAIL_NODE_ARRAY);
-            }
-
-            final JavadocNodeImpl[] children =
-                    (JavadocNodeImpl[]) currentJavadocParent.getChildren();
-
-            insertChildrenNodes(children, parseTreeParent);
-
-            if (children.length > 0) {
-                currentJavadocParent = children[0];
-                parseTreeParent = parseTreeParent.getChild(0);
-            }
-            else {
-                JavadocNodeImpl nextJavadocSibling = (JavadocNodeImpl) JavadocUtil
-                        .getNextSibling(currentJavadocParent);
-
-                ParseTree nextParseTreeSibling = getNextSibling(parseTreeParent);
-
-                while (nextJavadocSibling == null) {
-                    currentJavadocParent =
-                            (JavadocNodeImpl) currentJavadocParent.getParent();
-
-                    parseTreeParent = parseTreeParent.getParent();
-
-                    if (currentJavadocParent == null) {
-                        break;
-                    }
-
-                    nextJavadocSibling = (JavadocNodeImpl) JavadocUtil
-                            .getNextSibling(currentJavadocParent);
-
-                    nextParseTreeSibling = getNextSibling(parseTreeParent);
-                }
-                currentJavadocParent = nextJavadocSibling;
-                parseTreeParent = nextParseTreeSibling;
-            }
-        }
-
-        return rootJavadocNode;
-    }
-
-    /**
-     * Creates child nodes for each node from 'nodes' array.
-     *
-     * @param parseTreeParent original ParseTree parent node
-     * @param nodes array of JavadocNodeImpl nodes
-     */
-    private void insertChildrenNodes(final JavadocNodeImpl[] nodes, ParseTree parseTreeParent) {
-        for (int i = 0; i < nodes.length; i++) {
-            final JavadocNodeImpl currentJavadocNode = nodes[i];
-            final ParseTree currentParseTreeNodeChild = parseTreeParent.getChild(i);
-            final JavadocNodeImpl[] subChildren =
-                    createChildrenNodes(currentJavadocNode, currentParseTreeNodeChild);
-            currentJavadocNode.setChildren(subChildren);
-        }
-    }
-
-    /**
-     * Creates children Javadoc nodes base on ParseTree node's children.
-     *
-     * @param parentJavadocNode node that will be parent for created children
-     * @param parseTreeNode original ParseTree node
-     * @return array of Javadoc nodes
-     */
-    private JavadocNodeImpl[]
-            createChildrenNodes(JavadocNodeImpl parentJavadocNode, ParseTree parseTreeNode) {
-        final JavadocNodeImpl[] children =
-                new JavadocNodeImpl[parseTreeNode.getChildCount()];
-
-        for (int j = 0; j < children.length; j++) {
-            final JavadocNodeImpl child =
-                    createJavadocNode(parseTreeNode.getChild(j), parentJavadocNode, j);
-
-            children[j] = child;
-        }
-        return children;
-    }
-
-    /**
-     * Creates root JavadocNodeImpl node base on ParseTree root node.
-     *
-     * @param parseTreeNode ParseTree root node
-     * @return root Javadoc node
-     */
-    private JavadocNodeImpl createRootJavadocNode(ParseTree parseTreeNode) {
-        final JavadocNodeImpl rootJavadocNode = createJavadocNode(parseTreeNode, null, -1);
-
-        final int childCount = parseTreeNode.getChildCount();
-        final DetailNode[] children = rootJavadocNode.getChildren();
-
-        for (int i = 0; i < childCount; i++) {
-            final JavadocNodeImpl child = createJavadocNode(parseTreeNode.getChild(i),
-                    rootJavadocNode, i);
-            children[i] = child;
-        }
-        rootJavadocNode.setChildren(children);
-        return rootJavadocNode;
-    }
-
-    /**
-     * Creates JavadocNodeImpl node on base of ParseTree node.
-     *
-     * @param parseTree ParseTree node
-     * @param parent DetailNode that will be parent of new node
-     * @param index child index that has new node
-     * @return JavadocNodeImpl node on base of ParseTree node.
-     */
-    private JavadocNodeImpl createJavadocNode(ParseTree parseTree, DetailNode parent, int index) {
-        final JavadocNodeImpl node = new JavadocNodeImpl();
-        if (parseTree.getChildCount() == 0
-                || "Text".equals(getNodeClassNameWithoutContext(parseTree))) {
-            node.setText(parseTree.getText());
-        }
-        else {
-            node.setText(getFormattedNodeClassNameWithoutContext(parseTree));
-        }
-        node.setColumnNumber(getColumn(parseTree));
-        node.setLineNumber(getLine(parseTree) + blockCommentLineNumber);
-        node.setIndex(index);
-        node.setType(getTokenType(parseTree));
-        node.setParent(parent);
-        node.setChildren(new JavadocNodeImpl[parseTree.getChildCount()]);
-        return node;
-    }
-
-    /**
-     * Adjust first line nodes to javadoc indent.
-     *
-     * @param tree DetailNode tree root
-     * @param javadocColumnNumber javadoc indent
-     */
-    private void adjustFirstLineToJavadocIndent(DetailNode tree, int javadocColumnNumber) {
-        if (tree.getLineNumber() == blockCommentLineNumber) {
-            ((JavadocNodeImpl) tree).setColumnNumber(tree.getColumnNumber() + javadocColumnNumber);
-            final DetailNode[] children = tree.getChildren();
-            for (DetailNode child : children) {
-                adjustFirstLineToJavadocIndent(child, javadocColumnNumber);
+        ParseTree result;
+        try {
+            result = parser.javadoc();
+            if (parser.getNumberOfSyntaxErrors() > 0) {
+                result = null;
             }
         }
-    }
-
-    /**
-     * Gets line number from ParseTree node.
-     *
-     * @param tree
-     *        ParseTree node
-     * @return line number
-     */
-    private static int getLine(ParseTree tree) {
-        final int line;
-        if (tree instanceof TerminalNode) {
-            line = ((TerminalNode) tree).getSymbol().getLine() - 1;
-        }
-        else {
-            final ParserRuleContext rule = (ParserRuleContext) tree;
-            line = rule.start.getLine() - 1;
+        catch (ParseCancellationException ignored) {
+            result = null;
         }
-        return line;
-    }
 
-    /**
-     * Gets column number from ParseTree node.
-     *
-     * @param tree
-     *        ParseTree node
-     * @return column number
-     */
-    private static int getColumn(ParseTree tree) {
-        final int column;
-        if (tree instanceof TerminalNode) {
-            column = ((TerminalNode) tree).getSymbol().getCharPositionInLine();
-        }
-        else {
-            final ParserRuleContext rule = (ParserRuleContext) tree;
-            column = rule.start.getCharPositionInLine();
-        }
-        return column;
-    }
+        if (result == null) {
+            // the tokens are kept, so only the parser starts again
+            parser.reset();
+            parser.nonTightTagStartContext = null;
 
-    /**
-     * Gets next sibling of ParseTree node.
-     *
-     * @param node ParseTree node
-     * @return next sibling of ParseTree node.
-     */
-    private static ParseTree getNextSibling(ParseTree node) {
-        ParseTree nextSibling = null;
-
-        if (node.getParent() != null) {
-            final ParseTree parent = node.getParent();
-            int index = 0;
-            while (true) {
-                final ParseTree currentNode = parent.getChild(index);
-                if (currentNode.equals(node)) {
-                    nextSibling = parent.getChild(index + 1);
-                    break;
-                }
-                index++;
-            }
-        }
-        return nextSibling;
-    }
+            // add custom error listener that logs syntax errors
+            parser.addErrorListener(errorListener);
 
-    /**
-     * Gets token type of ParseTree node from JavadocTokenTypes class.
-     *
-     * @param node ParseTree node.
-     * @return token type from JavadocTokenTypes
-     */
-    private static int getTokenType(ParseTree node) {
-        final int tokenType;
+            // JavadocParserErrorStrategy stops parsing on first parse error encountered unlike
+            // the DefaultErrorStrategy used by ANTLR which rather attempts error recovery.
+            parser.setErrorHandler(new JavadocParserErrorStrategy());
+            parser.getInterpreter().setPredictionMode(PredictionMode.LL);
 
-        if (node.getChildCount() == 0) {
-            tokenType = ((TerminalNode) node).getSymbol().getType();
-        }
-        else {
-            final String className = getNodeClassNameWithoutContext(node);
-            tokenType = JavadocUtil.getTokenId(convertUpperCamelToUpperUnderscore(className));
+            result = parser.javadoc();
         }
-
-        return tokenType;
-    }
-
-    /**
-     * Gets class name of ParseTree node and removes 'Context' postfix at the
-     * end and formats it.
-     *
-     * @param node {@code ParseTree} node whose class name is to be formatted and returned
-     * @return uppercased class name without the word 'Context' and with appropriately
-     *     inserted underscores
-     */
-    private static String getFormattedNodeClassNameWithoutContext(ParseTree node) {
-        final String classNameWithoutContext = getNodeClassNameWithoutContext(node);
-        return convertUpperCamelToUpperUnderscore(classNameWithoutContext);
-    }
-
-    /**
-     * Gets class name of ParseTree node and removes 'Context' postfix at the
-     * end.
-     *
-     * @param node
-     *        ParseTree node.
-     * @return class name without 'Context'
-     */
-    private static String getNodeClassNameWithoutContext(ParseTree node) {
-        final String className = node.getClass().getSimpleName();
-        // remove 'Context' at the end
-        final int contextLength = 7;
-        return className.substring(0, className.length() - contextLength);
+        return result;
     }
 
     /**
@@ -543,7 +304,7 @@ public class JavadocDetailNodeParser {
      * @param text The string to convert.
      * @return The result of the conversion.
      */
-    private static String convertUpperCamelToUpperUnderscore(String text) {
+    /* package */ static String convertUpperCamelToUpperUnderscore(String text) {
         final StringBuilder result = new StringBuilder(20);
         boolean first = true;
         for (char letter : text.toCharArray()) {
@@ -673,6 +434,39 @@ public class JavadocDetailNodeParser {
             this.tree = tree;
         }
 
+        /**
+         * Returns the nodes of the DetailNode tree which have one of the given types,
+         * in pre-order. The nodes of a tree created by the parser are found in an index
+         * of the tree by type, without creating the nodes of other types.
+         *
+         * @param types the types of the nodes to find
+         * @return the nodes of the types, empty if there is no tree
+         */
+        public List<DetailNode> getNodes(Collection<Integer> types) {
+            final List<DetailNode> result;
+            if (tree instanceof CompactDetailNode) {
+                result = ((CompactDetailNode) tree).findNodes(types);
+            }
+            else {
+                result = new ArrayList<>();
+                DetailNode node = tree;
+                while (node != null) {
+                    if (types.contains(node.getType())) {
+                        result.add(node);
+                    }
+                    DetailNode toVisit = JavadocUtil.getFirstChild(node);
+                    while (node != null && toVisit == null) {
+                        toVisit = JavadocUtil.getNextSibling(node);
+                        if (toVisit == null) {
+                            node = node.getParent();
+                        }
+                    }
+                    node = toVisit;
+                }
+            }
+            return result;
+        }
+
         /**
          * Getter for error message during parsing.
          *
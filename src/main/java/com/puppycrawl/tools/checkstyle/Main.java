@@ -23,14 +23,19 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
-import java.util.LinkedList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Locale;
 import java.util.Objects;
 import java.util.Properties;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 import java.util.logging.ConsoleHandler;
 import java.util.logging.Filter;
 import java.util.logging.Level;
@@ -97,6 +102,12 @@ public final class Main {
     /** Exit code returned when execution finishes with {@link CheckstyleException}. */
     private static final int EXIT_WITH_CHECKSTYLE_EXCEPTION_CODE = -2;
 
+    /** Name of the attribute of the {@link Checker} for the language of messages. */
+    private static final String ATTRIB_LOCALE_LANGUAGE = "localeLanguage";
+
+    /** Name of the attribute of the {@link Checker} for the country of messages. */
+    private static final String ATTRIB_LOCALE_COUNTRY = "localeCountry";
+
     /**
      * Client code should not create instances of this class, but use
      * {@link #main(String[])} method instead.
@@ -110,10 +121,36 @@ public final class Main {
      *
      * @param args the command line arguments.
      * @throws IOException if there is a problem with files access
-     * @noinspection UseOfSystemOutOrSystemErr, CallToPrintStackTrace, CallToSystemExit
+     * @noinspection UseOfSystemOutOrSystemErr, CallToSystemExit
      **/
     public static void main(String... args) throws IOException {
+        final int exitStatus = run(null, null, null, System.out, System.err, args);
+        if (exitStatus != 0) {
+            System.exit(exitStatus);
+        }
+    }
 
+    /**
+     * Runs the command line and prints to the given streams. When the daemon
+     * is given, relative paths are resolved against the working directory of
+     * its client, the system properties of the client are expanded in the
+     * configuration and the configuration is taken from the kept ones of the
+     * daemon if possible.
+     *
+     * @param daemon the daemon which runs the command line, or null
+     * @param workingDirectory the working directory of the client of the daemon, or null
+     * @param systemProperties the resolver of the system properties of the client
+     *     of the daemon, or null
+     * @param out the standard output
+     * @param err the standard error output
+     * @param args the command line arguments
+     * @return the exit status
+     * @throws IOException if there is a problem with files access
+     * @noinspection CallToPrintStackTrace
+     */
+    /* package */ static int run(Daemon daemon, Path workingDirectory,
+            PropertyResolver systemProperties, PrintStream out, PrintStream err, String... args)
+            throws IOException {
         final CliOptions cliOptions = new CliOptions();
         final CommandLine commandLine = new CommandLine(cliOptions);
         commandLine.setUsageHelpWidth(CliOptions.HELP_WIDTH);
@@ -122,63 +159,89 @@ public final class Main {
         // provide proper exit code based on results.
         int exitStatus = 0;
         int errorCounter = 0;
+        boolean isSentToDaemon = false;
         try {
             final ParseResult parseResult = commandLine.parseArgs(args);
             if (parseResult.isVersionHelpRequested()) {
-                System.out.println(getVersionString());
+                out.println(getVersionString());
             }
             else if (parseResult.isUsageHelpRequested()) {
-                commandLine.usage(System.out);
+                commandLine.usage(out);
+            }
+            else if (daemon == null && cliOptions.daemonPort != null) {
+                exitStatus = Daemon.sendRequest(cliOptions.daemonPort, args, out, err);
+                isSentToDaemon = true;
             }
             else {
-                exitStatus = execute(parseResult, cliOptions);
+                if (workingDirectory != null) {
+                    cliOptions.resolveAgainst(workingDirectory);
+                }
+                cliOptions.workingDirectory = workingDirectory;
+                if (systemProperties != null) {
+                    cliOptions.systemProperties = systemProperties;
+                }
+                exitStatus = execute(parseResult, cliOptions, daemon, out);
                 errorCounter = exitStatus;
             }
         }
         catch (ParameterException ex) {
             exitStatus = EXIT_WITH_INVALID_USER_INPUT_CODE;
-            System.err.println(ex.getMessage());
-            System.err.println("Usage: checkstyle [OPTIONS]... FILES...");
-            System.err.println("Try 'checkstyle --help' for more information.");
+            err.println(ex.getMessage());
+            err.println("Usage: checkstyle [OPTIONS]... FILES...");
+            err.println("Try 'checkstyle --help' for more information.");
         }
         catch (CheckstyleException ex) {
             exitStatus = EXIT_WITH_CHECKSTYLE_EXCEPTION_CODE;
             errorCounter = 1;
-            ex.printStackTrace();
+            ex.printStackTrace(err);
         }
         finally {
-            // return exit code base on validation of Checker
-            if (errorCounter > 0) {
-                final LocalizedMessage errorCounterMessage = new LocalizedMessage(1,
-                        Definitions.CHECKSTYLE_BUNDLE, ERROR_COUNTER,
-                        new String[] {String.valueOf(errorCounter)}, null, Main.class, null);
-                // print error count statistic to error output stream,
-                // output stream might be used by validation report content
-                System.err.println(errorCounterMessage.getMessage());
-            } else if (errorCounter == 0) {
-                final LocalizedMessage noErrorsFoundMessage = new LocalizedMessage(1,
-                        Definitions.CHECKSTYLE_BUNDLE, NO_ERRORS_FOUND,
-                        null, null, Main.class, null);
-                // print error count statistic to error output stream,
-                // output stream might be used by validation report content
-                System.err.println(noErrorsFoundMessage.getMessage());
-            }
-            printDisclaimer();
-            if (exitStatus != 0) {
-                System.exit(exitStatus);
+            // the daemon has already printed the summary
+            if (!isSentToDaemon) {
+                printSummary(errorCounter, err);
             }
         }
+        return exitStatus;
+    }
+
+    /**
+     * Prints the number of errors and the disclaimer.
+     *
+     * @param errorCounter the number of errors, negative if the input was invalid
+     * @param err the standard error output
+     */
+    private static void printSummary(int errorCounter, PrintStream err) {
+        // return exit code base on validation of Checker
+        if (errorCounter > 0) {
+            final LocalizedMessage errorCounterMessage = new LocalizedMessage(1,
+                    Definitions.CHECKSTYLE_BUNDLE, ERROR_COUNTER,
+                    new String[] {String.valueOf(errorCounter)}, null, Main.class, null);
+            // print error count statistic to error output stream,
+            // output stream might be used by validation report content
+            err.println(errorCounterMessage.getMessage());
+        }
+        else if (errorCounter == 0) {
+            final LocalizedMessage noErrorsFoundMessage = new LocalizedMessage(1,
+                    Definitions.CHECKSTYLE_BUNDLE, NO_ERRORS_FOUND,
+                    null, null, Main.class, null);
+            // print error count statistic to error output stream,
+            // output stream might be used by validation report content
+            err.println(noErrorsFoundMessage.getMessage());
+        }
+        printDisclaimer(err);
     }
 
     /**
      * Prints the "don't trust this tool for a certain grade" disclaimer to the console.
+     *
+     * @param err the standard error output
      */
-    private static void printDisclaimer() {
-        System.err.println();
-        System.err.println("NOTE: Use this tool at your own risk. We do not guarantee that using");
-        System.err.println("this tool will prevent you from losing style points on an assignment.");
-        System.err.println("Getting \"no errors found\" does not guarantee that you will earn any");
-        System.err.println("particular grade on an assignment.");
+    private static void printDisclaimer(PrintStream err) {
+        err.println();
+        err.println("NOTE: Use this tool at your own risk. We do not guarantee that using");
+        err.println("this tool will prevent you from losing style points on an assignment.");
+        err.println("Getting \"no errors found\" does not guarantee that you will earn any");
+        err.println("particular grade on an assignment.");
     }
 
     /**
@@ -196,13 +259,14 @@ public final class Main {
      *
      * @param parseResult generic access to options and parameters found on the command line
      * @param options encapsulates options and parameters specified on the command line
+     * @param daemon the daemon which runs the command line, or null
+     * @param out the standard output
      * @return number of violations
      * @throws IOException if a file could not be read.
      * @throws CheckstyleException if something happens processing the files.
-     * @noinspection UseOfSystemOutOrSystemErr
      */
-    private static int execute(ParseResult parseResult, CliOptions options)
-            throws IOException, CheckstyleException {
+    private static int execute(ParseResult parseResult, CliOptions options, Daemon daemon,
+            PrintStream out) throws IOException, CheckstyleException {
 
         final int exitStatus;
 
@@ -211,11 +275,11 @@ public final class Main {
         final List<String> messages = options.validateCli(parseResult, filesToProcess);
         final boolean hasMessages = !messages.isEmpty();
         if (hasMessages) {
-            messages.forEach(System.out::println);
+            messages.forEach(out::println);
             exitStatus = EXIT_WITH_INVALID_USER_INPUT_CODE;
         }
         else {
-            exitStatus = runCli(options, filesToProcess);
+            exitStatus = runCli(options, filesToProcess, daemon, out);
         }
         return exitStatus;
     }
@@ -229,7 +293,7 @@ public final class Main {
     private static List<File> getFilesToProcess(CliOptions options) {
         final List<Pattern> patternsToExclude = options.getExclusions();
 
-        final List<File> result = new LinkedList<>();
+        final List<File> result = new ArrayList<>();
         for (File file : options.files) {
             result.addAll(listFiles(file, patternsToExclude));
         }
@@ -237,8 +301,9 @@ public final class Main {
     }
 
     /**
-     * Traverses a specified node looking for files to check. Found files are added to
-     * a specified list. Subdirectories are also traversed.
+     * Traverses a specified node looking for files to check. Subdirectories are
+     * traversed in parallel, excluded directories are not traversed at all. Found
+     * files are returned in the order of the directory listings.
      *
      * @param node
      *        the node to process
@@ -247,25 +312,8 @@ public final class Main {
      * @return found files
      */
     private static List<File> listFiles(File node, List<Pattern> patternsToExclude) {
-        // could be replaced with org.apache.commons.io.FileUtils.list() method
-        // if only we add commons-io library
-        final List<File> result = new LinkedList<>();
-
-        if (node.canRead() && !isPathExcluded(node.getAbsolutePath(), patternsToExclude)) {
-            if (node.isDirectory()) {
-                final File[] files = node.listFiles();
-                // listFiles() can return null, so we need to check it
-                if (files != null) {
-                    for (File element : files) {
-                        result.addAll(listFiles(element, patternsToExclude));
-                    }
-                }
-            }
-            else if (node.isFile()) {
-                result.add(node);
-            }
-        }
-        return result;
+        return ForkJoinPool.commonPool()
+                .invoke(new FileListingTask(node.toPath(), patternsToExclude));
     }
 
     /**
@@ -295,12 +343,14 @@ public final class Main {
      *
      * @param options user-specified options
      * @param filesToProcess the list of files whose style to check
+     * @param daemon the daemon which runs the command line, or null
+     * @param out the standard output
      * @return number of violations
      * @throws IOException if a file could not be read.
      * @throws CheckstyleException if something happens processing the files.
-     * @noinspection UseOfSystemOutOrSystemErr
      */
-    private static int runCli(CliOptions options, List<File> filesToProcess)
+    private static int runCli(CliOptions options, List<File> filesToProcess, Daemon daemon,
+            PrintStream out)
             throws IOException, CheckstyleException {
         int result = 0;
         final boolean hasSuppressionLineColumnNumber = options.suppressionLineColumnNumber != null;
@@ -311,37 +361,38 @@ public final class Main {
             final File file = filesToProcess.get(0);
             final String stringAst = AstTreeStringPrinter.printFileAst(file,
                     JavaParser.Options.WITHOUT_COMMENTS);
-            System.out.print(stringAst);
+            out.print(stringAst);
         }
         else if (Objects.nonNull(options.xpath)) {
             final String branch = XpathUtil.printXpathBranch(options.xpath, filesToProcess.get(0));
-            System.out.print(branch);
+            out.print(branch);
         }
         else if (options.printAstWithComments) {
             final File file = filesToProcess.get(0);
             final String stringAst = AstTreeStringPrinter.printFileAst(file,
                     JavaParser.Options.WITH_COMMENTS);
-            System.out.print(stringAst);
+            out.print(stringAst);
         }
         else if (options.printJavadocTree) {
             final File file = filesToProcess.get(0);
             final String stringAst = DetailNodeTreeStringPrinter.printFileAst(file);
-            System.out.print(stringAst);
+            out.print(stringAst);
         }
         else if (options.printTreeWithJavadoc) {
             final File file = filesToProcess.get(0);
             final String stringAst = AstTreeStringPrinter.printJavaAndJavadocTree(file);
-            System.out.print(stringAst);
+            out.print(stringAst);
         }
         else if (hasSuppressionLineColumnNumber) {
             final File file = filesToProcess.get(0);
             final String stringSuppressions =
                     SuppressionsStringPrinter.printSuppressions(file,
                             options.suppressionLineColumnNumber, options.tabWidth);
-            System.out.print(stringSuppressions);
+            out.print(stringSuppressions);
         }
         else {
-            if (options.debug) {
+            // the handler would be added again by every client of a daemon
+            if (options.debug && daemon == null) {
                 final Logger parentLogger = Logger.getLogger(Main.class.getName()).getParent();
                 final ConsoleHandler handler = new ConsoleHandler();
                 handler.setLevel(Level.FINEST);
@@ -356,7 +407,7 @@ public final class Main {
             }
 
             // run Checker
-            result = runCheckstyle(options, filesToProcess);
+            result = runCheckstyle(options, filesToProcess, daemon, out);
         }
 
         return result;
@@ -367,41 +418,46 @@ public final class Main {
      *
      * @param options user-specified options
      * @param filesToProcess the list of files whose style to check
+     * @param daemon the daemon which runs the command line, or null
+     * @param out the standard output
      * @return number of violations of ERROR level
      * @throws IOException
      *         when output file could not be found
      * @throws CheckstyleException
      *         when properties file could not be loaded
      */
-    private static int runCheckstyle(CliOptions options, List<File> filesToProcess)
-            throws CheckstyleException, IOException {
+    private static int runCheckstyle(CliOptions options, List<File> filesToProcess,
+            Daemon daemon, PrintStream out) throws CheckstyleException, IOException {
         // setup the properties
-        final Properties props;
+        final PropertyResolver propertyResolver;
 
         if (options.propertiesFile == null) {
-            props = System.getProperties();
+            propertyResolver = options.systemProperties;
         }
         else {
-            props = loadProperties(options.propertiesFile);
+            propertyResolver = new PropertiesExpander(loadProperties(options.propertiesFile));
         }
 
         // create a configuration
         final ThreadModeSettings multiThreadModeSettings =
-                new ThreadModeSettings(CliOptions.CHECKER_THREADS_NUMBER,
-                        CliOptions.TREE_WALKER_THREADS_NUMBER);
-
-        final ConfigurationLoader.IgnoredModulesOptions ignoredModulesOptions;
-        if (options.executeIgnoredModules) {
-            ignoredModulesOptions = ConfigurationLoader.IgnoredModulesOptions.EXECUTE;
+                new ThreadModeSettings(options.checkerThreadsNumber,
+                        options.treeWalkerThreadsNumber);
+        final ConfigurationLoader.IgnoredModulesOptions ignoredModulesOptions =
+                getIgnoredModulesOptions(options);
+
+        // a configuration with the filter of generated suppressions is not reused
+        final Configuration config;
+        if (daemon != null && !options.generateXpathSuppressionsFile) {
+            config = daemon.getConfiguration(new Daemon.ConfigurationSettings(
+                    options.configurationFile, options.workingDirectory,
+                    ignoredModulesOptions, multiThreadModeSettings), propertyResolver);
         }
         else {
-            ignoredModulesOptions = ConfigurationLoader.IgnoredModulesOptions.OMIT;
+            config = ConfigurationLoader.loadConfiguration(
+                    options.configurationFile, propertyResolver,
+                    ignoredModulesOptions, multiThreadModeSettings);
         }
 
-        final Configuration config = ConfigurationLoader.loadConfiguration(
-                options.configurationFile, new PropertiesExpander(props),
-                ignoredModulesOptions, multiThreadModeSettings);
-
         // create RootModule object and run it
         final int errorCounter;
         final ClassLoader moduleClassLoader = Checker.class.getClassLoader();
@@ -410,24 +466,15 @@ public final class Main {
         try {
             final AuditListener listener;
             if (options.generateXpathSuppressionsFile) {
-                // create filter to print generated xpath suppressions file
-                final Configuration treeWalkerConfig = getTreeWalkerConfig(config);
-                if (treeWalkerConfig != null) {
-                    final DefaultConfiguration moduleConfig =
-                            new DefaultConfiguration(
-                                    XpathFileGeneratorAstFilter.class.getName());
-                    moduleConfig.addAttribute(CliOptions.ATTRIB_TAB_WIDTH_NAME,
-                            String.valueOf(options.tabWidth));
-                    ((DefaultConfiguration) treeWalkerConfig).addChild(moduleConfig);
-                }
-
-                listener = new XpathFileGeneratorAuditListener(getOutputStream(options.outputPath),
-                        getOutputStreamOptions(options.outputPath));
+                listener = createXpathSuppressionsListener(options, config, out);
             }
             else {
-                listener = createListener(options.format, options.outputPath);
+                listener = createListener(options.format, options.outputPath, out);
             }
 
+            if (daemon != null) {
+                daemon.lockLocale(getMessagesLocale(config));
+            }
             rootModule.setModuleClassLoader(moduleClassLoader);
             rootModule.configure(config);
             rootModule.addListener(listener);
@@ -442,6 +489,72 @@ public final class Main {
         return errorCounter;
     }
 
+    /**
+     * Returns whether modules with severity ignore are executed.
+     *
+     * @param options user-specified options
+     * @return the option for ignored modules
+     */
+    private static ConfigurationLoader.IgnoredModulesOptions getIgnoredModulesOptions(
+            CliOptions options) {
+        final ConfigurationLoader.IgnoredModulesOptions ignoredModulesOptions;
+        if (options.executeIgnoredModules) {
+            ignoredModulesOptions = ConfigurationLoader.IgnoredModulesOptions.EXECUTE;
+        }
+        else {
+            ignoredModulesOptions = ConfigurationLoader.IgnoredModulesOptions.OMIT;
+        }
+        return ignoredModulesOptions;
+    }
+
+    /**
+     * Adds the filter which generates the suppressions to the configuration
+     * and creates the listener which prints them.
+     *
+     * @param options user-specified options
+     * @param config the configuration of the root module
+     * @param out the standard output
+     * @return the listener
+     * @throws IOException when provided output location is not found
+     */
+    private static AuditListener createXpathSuppressionsListener(CliOptions options,
+            Configuration config, PrintStream out) throws IOException {
+        // create filter to print generated xpath suppressions file
+        final Configuration treeWalkerConfig = getTreeWalkerConfig(config);
+        if (treeWalkerConfig != null) {
+            final DefaultConfiguration moduleConfig =
+                    new DefaultConfiguration(
+                            XpathFileGeneratorAstFilter.class.getName());
+            moduleConfig.addAttribute(CliOptions.ATTRIB_TAB_WIDTH_NAME,
+                    String.valueOf(options.tabWidth));
+            ((DefaultConfiguration) treeWalkerConfig).addChild(moduleConfig);
+        }
+
+        return new XpathFileGeneratorAuditListener(getOutputStream(options.outputPath, out),
+                getOutputStreamOptions(options.outputPath));
+    }
+
+    /**
+     * Returns the locale which a {@link Checker} configured by the given
+     * configuration reports its messages in.
+     *
+     * @param config the configuration of the root module
+     * @return the locale of messages
+     * @throws CheckstyleException if an attribute of the configuration can not be read
+     */
+    private static Locale getMessagesLocale(Configuration config) throws CheckstyleException {
+        final List<String> attributeNames = Arrays.asList(config.getAttributeNames());
+        String language = Locale.getDefault().getLanguage();
+        if (attributeNames.contains(ATTRIB_LOCALE_LANGUAGE)) {
+            language = config.getAttribute(ATTRIB_LOCALE_LANGUAGE);
+        }
+        String country = Locale.getDefault().getCountry();
+        if (attributeNames.contains(ATTRIB_LOCALE_COUNTRY)) {
+            country = config.getAttribute(ATTRIB_LOCALE_COUNTRY);
+        }
+        return new Locale(language, country);
+    }
+
     /**
      * Loads properties from a File.
      *
@@ -512,30 +625,32 @@ public final class Main {
      *
      * @param format format of the audit listener
      * @param outputLocation the location of output
+     * @param standardOut the standard output
      * @return a fresh new {@code AuditListener}
      * @exception IOException when provided output location is not found
      */
-    private static AuditListener createListener(OutputFormat format, Path outputLocation)
-            throws IOException {
-        final OutputStream out = getOutputStream(outputLocation);
+    private static AuditListener createListener(OutputFormat format, Path outputLocation,
+            PrintStream standardOut) throws IOException {
+        final OutputStream out = getOutputStream(outputLocation, standardOut);
         final AutomaticBean.OutputStreamOptions closeOutputStreamOption =
                 getOutputStreamOptions(outputLocation);
         return format.createListener(out, closeOutputStreamOption);
     }
 
     /**
-     * Create output stream or return System.out
+     * Create output stream or return the standard output.
      *
      * @param outputPath output location
+     * @param standardOut the standard output
      * @return output stream
      * @throws IOException might happen
-     * @noinspection UseOfSystemOutOrSystemErr
      */
     @SuppressWarnings("resource")
-    private static OutputStream getOutputStream(Path outputPath) throws IOException {
+    private static OutputStream getOutputStream(Path outputPath, PrintStream standardOut)
+            throws IOException {
         final OutputStream result;
         if (outputPath == null) {
-            result = System.out;
+            result = standardOut;
         }
         else {
             result = Files.newOutputStream(outputPath);
@@ -602,6 +717,62 @@ public final class Main {
         }
     }
 
+    /**
+     * Task which lists the files to check below a path. The entries of a directory
+     * are examined by subtasks, so slow file systems are queried in parallel.
+     */
+    private static final class FileListingTask extends RecursiveTask<List<File>> {
+
+        /** The version of the serialized form of the task. */
+        private static final long serialVersionUID = 1L;
+
+        /** The path to list. */
+        private final transient Path path;
+
+        /** The patterns to exclude from searching or being added as files. */
+        private final transient List<Pattern> patternsToExclude;
+
+        /**
+         * Creates a new {@code FileListingTask} instance.
+         *
+         * @param path the path to list
+         * @param patternsToExclude the patterns to exclude
+         */
+        /* package */ FileListingTask(Path path, List<Pattern> patternsToExclude) {
+            this.path = path;
+            this.patternsToExclude = patternsToExclude;
+        }
+
+        @Override
+        protected List<File> compute() {
+            final List<File> result = new ArrayList<>();
+            if (Files.isReadable(path)
+                    && !isPathExcluded(path.toAbsolutePath().toString(), patternsToExclude)) {
+                if (Files.isDirectory(path)) {
+                    final List<FileListingTask> tasks = new ArrayList<>();
+                    try (DirectoryStream<Path> entries = Files.newDirectoryStream(path)) {
+                        for (Path entry : entries) {
+                            tasks.add(new FileListingTask(entry, patternsToExclude));
+                        }
+                    }
+                    catch (IOException | DirectoryIteratorException ignored) {
+                        // the directory can not be listed, so there is nothing to check in it
+                        tasks.clear();
+                    }
+                    invokeAll(tasks);
+                    for (FileListingTask task : tasks) {
+                        result.addAll(task.join());
+                    }
+                }
+                else if (Files.isRegularFile(path)) {
+                    result.add(path.toFile());
+                }
+            }
+            return result;
+        }
+
+    }
+
     /** Log Filter used in debug mode. */
     private static final class OnlyCheckstyleLoggersFilter implements Filter {
         /** Name of the package used to filter on. */
@@ -647,24 +818,6 @@ public final class Main {
         /** Option name for output format. */
         private static final String OUTPUT_FORMAT_OPTION = "-f";
 
-        /**
-         * The checker threads number.
-         * Suppression: CanBeFinal - we use picocli and it use  reflection to manage such fields
-         * This option has been skipped for CLI options intentionally.
-         *
-         * @noinspection CanBeFinal
-         */
-        private static final int CHECKER_THREADS_NUMBER = DEFAULT_THREAD_COUNT;
-
-        /**
-         * The tree walker threads number.
-         * Suppression: CanBeFinal - we use picocli and it use  reflection to manage such fields
-         * This option has been skipped for CLI options intentionally.
-         *
-         * @noinspection CanBeFinal
-         */
-        private static final int TREE_WALKER_THREADS_NUMBER = DEFAULT_THREAD_COUNT;
-
         /** List of file to validate. */
         @Parameters(arity = "1..*", description = "One or more source files to verify")
         private List<File> files;
@@ -799,6 +952,73 @@ public final class Main {
             description = "Shows Abstract Syntax Tree(AST) branches that match given XPath query.")
         private String xpath;
 
+        /**
+         * The checker threads number.
+         * Suppression: CanBeFinal - we use picocli and it use  reflection to manage such fields
+         *
+         * @noinspection CanBeFinal
+         */
+        @Option(names = {"-C", "--checker-threads-number"},
+                description = "Sets the number of threads used to audit files (must be greater "
+                        + "than zero). Violations are reported in the same order as with one "
+                        + "thread. Default value is ${DEFAULT-VALUE}.")
+        private int checkerThreadsNumber = DEFAULT_THREAD_COUNT;
+
+        /**
+         * The tree walker threads number.
+         * Suppression: CanBeFinal - we use picocli and it use  reflection to manage such fields
+         *
+         * @noinspection CanBeFinal
+         */
+        @Option(names = {"-W", "--tree-walker-threads-number"},
+                description = "Sets the number of threads used by each TreeWalker to run its "
+                        + "checks on a file (must be greater than zero). "
+                        + "Default value is ${DEFAULT-VALUE}.")
+        private int treeWalkerThreadsNumber = DEFAULT_THREAD_COUNT;
+
+        /** The working directory of the client of a daemon, or null. */
+        private Path workingDirectory;
+
+        /** The resolver of the system properties which are expanded in the configuration. */
+        private PropertyResolver systemProperties =
+                new PropertiesExpander(System.getProperties());
+
+        /** The port of the daemon which runs the command line. */
+        @Option(names = {"-P", "--daemon-port"},
+                description = "Runs the command line by the Checkstyle daemon which listens on "
+                        + "this port of the loopback interface and keeps the configurations "
+                        + "of previous executions.")
+        private Integer daemonPort;
+
+        /**
+         * Resolves the relative paths of the options against the working
+         * directory of a client of a daemon. The location of the configuration
+         * is only resolved if a file exists there, as it may also name a
+         * resource or URL.
+         *
+         * @param directory the working directory of the client
+         */
+        private void resolveAgainst(Path directory) {
+            files = files.stream()
+                    .map(file -> directory.resolve(file.toPath()).toFile())
+                    .collect(Collectors.toList());
+            exclude = exclude.stream()
+                    .map(file -> directory.resolve(file.toPath()).toFile())
+                    .collect(Collectors.toList());
+            if (propertiesFile != null) {
+                propertiesFile = directory.resolve(propertiesFile.toPath()).toFile();
+            }
+            if (outputPath != null) {
+                outputPath = directory.resolve(outputPath);
+            }
+            if (configurationFile != null) {
+                final File configFile = new File(directory.toFile(), configurationFile);
+                if (!new File(configurationFile).isAbsolute() && configFile.exists()) {
+                    configurationFile = configFile.getPath();
+                }
+            }
+        }
+
         /**
          * Gets the list of exclusions provided through the command line arguments.
          *
@@ -881,6 +1101,12 @@ public final class Main {
                 result.add(String.format(Locale.ROOT,
                         "Could not find file '%s'.", propertiesFile));
             }
+            if (checkerThreadsNumber < 1) {
+                result.add("Checker threads number must be greater than zero");
+            }
+            if (treeWalkerThreadsNumber < 1) {
+                result.add("TreeWalker threads number must be greater than zero");
+            }
             return result;
         }
     }
@@ -19,28 +19,47 @@
 
 package com.puppycrawl.tools.checkstyle;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.ObjectOutputStream;
 import java.io.OutputStream;
 import java.io.Serializable;
+import java.io.StreamCorruptedException;
+import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Properties;
 import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.zip.CRC32;
 
 import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
 import com.puppycrawl.tools.checkstyle.api.Configuration;
+import com.puppycrawl.tools.checkstyle.api.LocalizedMessage;
+import com.puppycrawl.tools.checkstyle.api.SeverityLevel;
 import com.puppycrawl.tools.checkstyle.utils.CommonUtil;
 
 /**
@@ -53,6 +72,17 @@ import com.puppycrawl.tools.checkstyle.utils.CommonUtil;
  * cache file to ensure the cache is invalidated when the
  * configuration has changed.
  *
+ * <p>The violations of a file are kept along with it, so they can be reported
+ * again without processing the file while it is not changed. The fields of the
+ * violations are written one by one, and the modules which logged them are
+ * loaded by the module class loader when they are restored.
+ *
+ * <p>In content hash mode a hash of the content of every file is stored instead
+ * of its timestamp, so the cache stays valid when the files are checked out or
+ * copied again, and the cache file is stored in a compact binary format.
+ * The format of an existing cache file is detected when it is loaded, and a
+ * truncated or corrupt binary cache file is discarded.
+ *
  */
 public final class PropertyCacheFile {
 
@@ -72,6 +102,12 @@ public final class PropertyCacheFile {
      */
     public static final String EXTERNAL_RESOURCE_KEY_PREFIX = "module-resource*?:";
 
+    /**
+     * The prefix of the keys of the violations of files.
+     * Unique to break collisions with the names of files.
+     */
+    public static final String VIOLATIONS_KEY_PREFIX = "violations*?:";
+
     /** Size of default byte array for buffer. */
     private static final int BUFFER_SIZE = 1024;
 
@@ -81,9 +117,18 @@ public final class PropertyCacheFile {
     /** Default number for base 16 encoding. */
     private static final int BASE_16 = 16;
 
+    /** The header of the binary format, the last byte is the version of the format. */
+    private static final byte[] BINARY_FORMAT_HEADER = {'C', 'S', 'C', 0, 1};
+
+    /** Parsers of the arguments of cached violations by the names of their classes. */
+    private static final Map<String, Function<String, Object>> ARGUMENT_PARSERS =
+            new HashMap<>();
     /** The details on files. **/
     private final Properties details = new Properties();
 
+    /** The class loader which loads the modules which logged cached violations. */
+    private ClassLoader moduleClassLoader = PropertyCacheFile.class.getClassLoader();
+
     /** Configuration object. **/
     private final Configuration config;
 
@@ -93,6 +138,23 @@ public final class PropertyCacheFile {
     /** Generated configuration hash. **/
     private String configHash;
 
+    /** Whether the content hashes of files are stored, in binary format. **/
+    private boolean contentHash;
+
+    static {
+        ARGUMENT_PARSERS.put(String.class.getName(), value -> value);
+        ARGUMENT_PARSERS.put(Boolean.class.getName(), Boolean::valueOf);
+        ARGUMENT_PARSERS.put(Character.class.getName(), PropertyCacheFile::parseCharacter);
+        ARGUMENT_PARSERS.put(Byte.class.getName(), Byte::valueOf);
+        ARGUMENT_PARSERS.put(Short.class.getName(), Short::valueOf);
+        ARGUMENT_PARSERS.put(Integer.class.getName(), Integer::valueOf);
+        ARGUMENT_PARSERS.put(Long.class.getName(), Long::valueOf);
+        ARGUMENT_PARSERS.put(Float.class.getName(), Float::valueOf);
+        ARGUMENT_PARSERS.put(Double.class.getName(), Double::valueOf);
+        ARGUMENT_PARSERS.put(BigInteger.class.getName(), BigInteger::new);
+        ARGUMENT_PARSERS.put(BigDecimal.class.getName(), BigDecimal::new);
+    }
+
     /**
      * Creates a new {@code PropertyCacheFile} instance.
      *
@@ -122,8 +184,14 @@ public final class PropertyCacheFile {
         configHash = getHashCodeBasedOnObjectContent(config);
         final File file = new File(fileName);
         if (file.exists()) {
-            try (InputStream inStream = Files.newInputStream(file.toPath())) {
-                details.load(inStream);
+            try (InputStream inStream =
+                         new BufferedInputStream(Files.newInputStream(file.toPath()))) {
+                if (isBinaryFormat(inStream)) {
+                    loadBinary(new DataInputStream(inStream), file.length());
+                }
+                else {
+                    details.load(inStream);
+                }
                 final String cachedConfigHash = details.getProperty(CONFIG_HASH_KEY);
                 if (!configHash.equals(cachedConfigHash)) {
                     // Detected configuration change - clear cache
@@ -149,8 +217,148 @@ public final class PropertyCacheFile {
             Files.createDirectories(directory);
         }
         try (OutputStream out = Files.newOutputStream(path)) {
-            details.store(out, null);
+            if (contentHash) {
+                persistBinary(out);
+            }
+            else {
+                details.store(out, null);
+            }
+        }
+    }
+
+    /**
+     * Checks whether a stream starts with the header of the binary format and skips
+     * the header if so.
+     *
+     * @param stream the stream to check, must support mark
+     * @return whether the stream is in binary format
+     * @throws IOException when there is a problems with stream read
+     */
+    private static boolean isBinaryFormat(InputStream stream) throws IOException {
+        stream.mark(BINARY_FORMAT_HEADER.length);
+        final byte[] header = new byte[BINARY_FORMAT_HEADER.length];
+        final int size = stream.read(header);
+        final boolean result = size == header.length
+                && Arrays.equals(header, BINARY_FORMAT_HEADER);
+        if (!result) {
+            stream.reset();
+        }
+        return result;
+    }
+
+    /**
+     * Loads cached values in binary format. The cache is left empty if the
+     * values are truncated or corrupt, as the old format has never failed
+     * to load either.
+     *
+     * @param stream the stream to read the values from, positioned after the header
+     * @param length the length of the cache file, which no string can exceed
+     * @throws IOException when there is a problems with stream read
+     */
+    private void loadBinary(DataInputStream stream, long length) throws IOException {
+        try {
+            final int size = stream.readInt();
+            for (int i = 0; i < size; i++) {
+                final String key = readString(stream, length);
+                details.setProperty(key, readString(stream, length));
+            }
+        }
+        catch (EOFException | StreamCorruptedException ignored) {
+            reset();
+        }
+    }
+
+    /**
+     * Reads a string written by {@link #writeString(DataOutputStream, String)}.
+     *
+     * @param stream the stream to read the string from
+     * @param maxLength the maximum length of the string in bytes
+     * @return the string
+     * @throws IOException when there is a problems with stream read
+     * @throws StreamCorruptedException when the length of the string is invalid
+     */
+    private static String readString(DataInputStream stream, long maxLength)
+            throws IOException {
+        final int length = stream.readInt();
+        if (length < 0 || length > maxLength) {
+            throw new StreamCorruptedException("Invalid length of string: " + length);
         }
+        final byte[] bytes = new byte[length];
+        stream.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Writes cached values in binary format.
+     *
+     * @param out the stream to write the values to
+     * @throws IOException when there is a problems with stream write
+     */
+    private void persistBinary(OutputStream out) throws IOException {
+        final DataOutputStream stream = new DataOutputStream(new BufferedOutputStream(out));
+        stream.write(BINARY_FORMAT_HEADER);
+        stream.writeInt(details.size());
+        for (Map.Entry<Object, Object> entry : details.entrySet()) {
+            writeString(stream, (String) entry.getKey());
+            writeString(stream, (String) entry.getValue());
+        }
+        stream.flush();
+    }
+
+    /**
+     * Writes a string prefixed with its length, unlike
+     * {@link DataOutputStream#writeUTF(String)} the length is not limited to 64 KB,
+     * which the violations of a file can exceed.
+     *
+     * @param stream the stream to write the string to
+     * @param value the string
+     * @throws IOException when there is a problems with stream write
+     */
+    private static void writeString(DataOutputStream stream, String value) throws IOException {
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        stream.writeInt(bytes.length);
+        stream.write(bytes);
+    }
+
+    /**
+     * Sets the class loader which loads the modules which logged cached violations.
+     *
+     * @param moduleClassLoader the module class loader
+     */
+    public void setModuleClassLoader(ClassLoader moduleClassLoader) {
+        this.moduleClassLoader = moduleClassLoader;
+    }
+
+    /**
+     * Sets whether the content hashes of files are stored instead of their timestamps.
+     * In this mode the cache file is stored in binary format.
+     *
+     * @param contentHash whether to store the content hashes of files
+     */
+    public void setContentHash(boolean contentHash) {
+        this.contentHash = contentHash;
+    }
+
+    /**
+     * Returns the value which identifies the state of a file in the cache. It is the
+     * length and the CRC-32 checksum of the content of the file in content hash mode,
+     * and the timestamp of the file otherwise.
+     *
+     * @param file the file
+     * @param content the content of the file, only used in content hash mode
+     * @return the value to check and record the file in the cache with
+     */
+    public long getFileStamp(File file, byte[] content) {
+        final long stamp;
+        if (contentHash) {
+            final CRC32 checksum = new CRC32();
+            checksum.update(content);
+            stamp = (long) content.length << Integer.SIZE | checksum.getValue();
+        }
+        else {
+            stamp = file.lastModified();
+        }
+        return stamp;
     }
 
     /**
@@ -174,9 +382,9 @@ public final class PropertyCacheFile {
     }
 
     /**
-     * Records that a file checked ok.
+     * Records that a file was checked.
      *
-     * @param checkedFileName name of the file that checked ok
+     * @param checkedFileName name of the checked file
      * @param timestamp the timestamp of the file
      */
     public void put(String checkedFileName, long timestamp) {
@@ -200,6 +408,229 @@ public final class PropertyCacheFile {
      */
     public void remove(String checkedFileName) {
         details.remove(checkedFileName);
+        details.remove(VIOLATIONS_KEY_PREFIX + checkedFileName);
+    }
+
+    /**
+     * Records the violations of a file which is in cache.
+     *
+     * @param checkedFileName name of the checked file
+     * @param violations the violations of the file
+     * @throws IllegalStateException when the violations cannot be written to memory
+     */
+    public void putViolations(String checkedFileName, SortedSet<LocalizedMessage> violations) {
+        final String key = VIOLATIONS_KEY_PREFIX + checkedFileName;
+        if (violations.isEmpty()) {
+            details.remove(key);
+        }
+        else {
+            final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            try (DataOutputStream stream = new DataOutputStream(outputStream)) {
+                stream.writeInt(violations.size());
+                for (LocalizedMessage violation : violations) {
+                    writeViolation(stream, violation);
+                }
+            }
+            catch (IOException ex) {
+                throw new IllegalStateException("Unable to write violations.", ex);
+            }
+            details.setProperty(key,
+                    Base64.getEncoder().encodeToString(outputStream.toByteArray()));
+        }
+    }
+
+    /**
+     * Retrieves the violations of a file which is in cache.
+     *
+     * @param checkedFileName name of the checked file
+     * @return the violations of the file or {@code null} if they cannot be restored
+     */
+    public SortedSet<LocalizedMessage> getViolations(String checkedFileName) {
+        final String value = details.getProperty(VIOLATIONS_KEY_PREFIX + checkedFileName);
+        SortedSet<LocalizedMessage> violations = new TreeSet<>();
+        if (value != null) {
+            try {
+                final byte[] bytes = Base64.getDecoder().decode(value);
+                final DataInputStream stream =
+                        new DataInputStream(new ByteArrayInputStream(bytes));
+                final int size = stream.readInt();
+                for (int i = 0; i < size; i++) {
+                    violations.add(readViolation(stream, bytes.length));
+                }
+            }
+            catch (IOException | ClassNotFoundException | IllegalArgumentException ignored) {
+                // cached violations are broken or the module which logged them is gone
+                violations = null;
+            }
+        }
+        return violations;
+    }
+
+    /**
+     * Writes the fields of a violation.
+     *
+     * @param stream the stream to write the violation to
+     * @param violation the violation
+     * @throws IOException when there is a problems with stream write
+     */
+    private static void writeViolation(DataOutputStream stream, LocalizedMessage violation)
+            throws IOException {
+        stream.writeInt(violation.getLineNo());
+        stream.writeInt(violation.getColumnNo());
+        stream.writeInt(violation.getColumnCharIndex());
+        stream.writeInt(violation.getTokenType());
+        writeString(stream, violation.getSeverityLevel().getName());
+        writeString(stream, violation.getSourceName());
+        writeNullableString(stream, violation.getModuleId());
+        writeNullableString(stream, violation.getBundleName());
+        writeNullableString(stream, violation.getKey());
+        writeNullableString(stream, violation.getCustomMessagePattern());
+        final Object[] args = violation.getArgs();
+        if (args == null) {
+            stream.writeInt(-1);
+        }
+        else {
+            stream.writeInt(args.length);
+            for (Object arg : args) {
+                writeArgument(stream, arg);
+            }
+        }
+    }
+
+    /**
+     * Reads a violation written by {@link #writeViolation(DataOutputStream, LocalizedMessage)}.
+     *
+     * @param stream the stream to read the violation from
+     * @param maxLength the maximum length of a string in bytes
+     * @return the violation
+     * @throws IOException when there is a problems with stream read
+     * @throws ClassNotFoundException when the module which logged the violation is not found
+     */
+    private LocalizedMessage readViolation(DataInputStream stream, int maxLength)
+            throws IOException, ClassNotFoundException {
+        final int lineNo = stream.readInt();
+        final int columnNo = stream.readInt();
+        final int columnCharIndex = stream.readInt();
+        final int tokenType = stream.readInt();
+        final SeverityLevel severityLevel =
+                SeverityLevel.getInstance(readString(stream, maxLength));
+        final Class<?> sourceClass =
+                Class.forName(readString(stream, maxLength), false, moduleClassLoader);
+        final String moduleId = readNullableString(stream, maxLength);
+        final String bundle = readNullableString(stream, maxLength);
+        final String key = readNullableString(stream, maxLength);
+        final String customMessage = readNullableString(stream, maxLength);
+        final int argsCount = stream.readInt();
+        Object[] args = null;
+        if (argsCount >= 0) {
+            if (argsCount > maxLength) {
+                throw new StreamCorruptedException("Invalid number of arguments: " + argsCount);
+            }
+            args = new Object[argsCount];
+            for (int i = 0; i < argsCount; i++) {
+                args[i] = readArgument(stream, maxLength);
+            }
+        }
+        return new LocalizedMessage(lineNo, columnNo, columnCharIndex, tokenType, bundle, key,
+                args, severityLevel, moduleId, sourceClass, customMessage);
+    }
+
+    /**
+     * Writes an argument of a violation as the name of its class and its text.
+     * Arguments of other classes than strings, booleans, characters and numbers
+     * are written as their text, which is how the message shows them. Numbers of
+     * other classes are written as doubles, which is how the message formats them.
+     *
+     * @param stream the stream to write the argument to
+     * @param arg the argument, may be null
+     * @throws IOException when there is a problems with stream write
+     */
+    private static void writeArgument(DataOutputStream stream, Object arg) throws IOException {
+        stream.writeBoolean(arg != null);
+        if (arg != null) {
+            final String className = arg.getClass().getName();
+            if (ARGUMENT_PARSERS.containsKey(className)) {
+                writeString(stream, className);
+                writeString(stream, arg.toString());
+            }
+            else if (arg instanceof Number) {
+                writeString(stream, Double.class.getName());
+                writeString(stream, Double.toString(((Number) arg).doubleValue()));
+            }
+            else {
+                writeString(stream, String.class.getName());
+                writeString(stream, arg.toString());
+            }
+        }
+    }
+
+    /**
+     * Reads an argument written by {@link #writeArgument(DataOutputStream, Object)}.
+     *
+     * @param stream the stream to read the argument from
+     * @param maxLength the maximum length of a string in bytes
+     * @return the argument, may be null
+     * @throws IOException when there is a problems with stream read
+     * @throws StreamCorruptedException when the class of the argument is not known
+     */
+    private static Object readArgument(DataInputStream stream, int maxLength)
+            throws IOException {
+        Object arg = null;
+        if (stream.readBoolean()) {
+            final String className = readString(stream, maxLength);
+            final Function<String, Object> parser = ARGUMENT_PARSERS.get(className);
+            if (parser == null) {
+                throw new StreamCorruptedException("Invalid class of argument: " + className);
+            }
+            arg = parser.apply(readString(stream, maxLength));
+        }
+        return arg;
+    }
+
+    /**
+     * Parses a character argument of a violation.
+     *
+     * @param value the text of the character
+     * @return the character
+     * @throws IllegalArgumentException when the text is not a single character
+     */
+    private static Character parseCharacter(String value) {
+        if (value.length() != 1) {
+            throw new IllegalArgumentException("Invalid character: " + value);
+        }
+        return value.charAt(0);
+    }
+
+    /**
+     * Writes a string which may be null.
+     *
+     * @param stream the stream to write the string to
+     * @param value the string, may be null
+     * @throws IOException when there is a problems with stream write
+     */
+    private static void writeNullableString(DataOutputStream stream, String value)
+            throws IOException {
+        stream.writeBoolean(value != null);
+        if (value != null) {
+            writeString(stream, value);
+        }
+    }
+
+    /**
+     * Reads a string written by {@link #writeNullableString(DataOutputStream, String)}.
+     *
+     * @param stream the stream to read the string from
+     * @param maxLength the maximum length of the string in bytes
+     * @return the string, may be null
+     * @throws IOException when there is a problems with stream read
+     */
+    private static String readNullableString(DataInputStream stream, int maxLength)
+            throws IOException {
+        String value = null;
+        if (stream.readBoolean()) {
+            value = readString(stream, maxLength);
+        }
+        return value;
     }
 
     /**
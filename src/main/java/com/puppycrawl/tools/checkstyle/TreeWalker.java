@@ -20,15 +20,21 @@
 package com.puppycrawl.tools.checkstyle;
 
 import java.io.File;
+import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collection;
-import java.util.HashMap;
+import java.util.BitSet;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Locale;
-import java.util.Map;
 import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import com.puppycrawl.tools.checkstyle.api.AbstractCheck;
 import com.puppycrawl.tools.checkstyle.api.AbstractFileSetCheck;
@@ -41,33 +47,44 @@ import com.puppycrawl.tools.checkstyle.api.ExternalResourceHolder;
 import com.puppycrawl.tools.checkstyle.api.FileContents;
 import com.puppycrawl.tools.checkstyle.api.FileText;
 import com.puppycrawl.tools.checkstyle.api.LocalizedMessage;
+import com.puppycrawl.tools.checkstyle.checks.SuppressWarningsHolder;
+import com.puppycrawl.tools.checkstyle.checks.javadoc.AbstractJavadocCheck;
 import com.puppycrawl.tools.checkstyle.utils.TokenUtil;
 
 /**
  * Responsible for walking an abstract syntax tree and notifying interested
  * checks at each each node.
  *
+ * <p>In multi thread mode the checks are distributed among several sets of checks,
+ * one per thread. Every set walks the same tree in its own thread, the first set
+ * is walked by the thread which processes the file. All Javadoc checks are kept in
+ * one set, so every Javadoc comment is parsed once for all of them.
+ *
+ * <p>A file is parsed once by the thread which processes it, all TreeWalkers which
+ * process the file in this thread share its syntax trees.
+ *
  */
 @FileStatefulCheck
 public final class TreeWalker extends AbstractFileSetCheck implements ExternalResourceHolder {
 
-    /** Maps from token name to ordinary checks. */
-    private final Map<Integer, Set<AbstractCheck>> tokenToOrdinaryChecks =
-        new HashMap<>();
+    /** The file which was parsed last by the current thread. */
+    private static final ThreadLocal<ParsedFile> PARSED_FILE = new ThreadLocal<>();
 
-    /** Maps from token name to comment checks. */
-    private final Map<Integer, Set<AbstractCheck>> tokenToCommentChecks =
-            new HashMap<>();
+    /** Sets of checks, one per thread. */
+    private final List<CheckSet> checkSets = new ArrayList<>();
 
     /** Registered ordinary checks, that don't use comment nodes. */
-    private final Set<AbstractCheck> ordinaryChecks = new HashSet<>();
+    private final Set<AbstractCheck> ordinaryChecks = new LinkedHashSet<>();
 
     /** Registered comment checks. */
-    private final Set<AbstractCheck> commentChecks = new HashSet<>();
+    private final Set<AbstractCheck> commentChecks = new LinkedHashSet<>();
 
     /** The ast filters. */
     private final Set<TreeWalkerFilter> filters = new HashSet<>();
 
+    /** The set of checks which holds the Javadoc checks, or null if there are none yet. */
+    private CheckSet javadocCheckSet;
+
     /** The sorted set of messages. */
     private final SortedSet<LocalizedMessage> messages = new TreeSet<>();
 
@@ -99,6 +116,18 @@ public final class TreeWalker extends AbstractFileSetCheck implements ExternalRe
         checkContext.add("severity", getSeverity());
         checkContext.add("tabWidth", String.valueOf(getTabWidth()));
         childContext = checkContext;
+
+        int threadsNumber = 1;
+        final Configuration configuration = getConfiguration();
+        if (configuration instanceof DefaultConfiguration) {
+            threadsNumber = ((DefaultConfiguration) configuration)
+                    .getThreadModeSettings().getTreeWalkerThreadsNumber();
+        }
+        checkSets.clear();
+        javadocCheckSet = null;
+        for (int i = 0; i < threadsNumber; i++) {
+            checkSets.add(new CheckSet());
+        }
     }
 
     /**
@@ -145,15 +174,14 @@ public final class TreeWalker extends AbstractFileSetCheck implements ExternalRe
     protected void processFiltered(File file, FileText fileText) throws CheckstyleException {
         // check if already checked and passed the file
         if (!ordinaryChecks.isEmpty() || !commentChecks.isEmpty()) {
-            final FileContents contents = getFileContents();
-            final DetailAST rootAST = JavaParser.parse(contents);
-            if (!ordinaryChecks.isEmpty()) {
-                walk(rootAST, contents, AstState.ORDINARY);
-            }
+            final ParsedFile parsedFile = getParsedFile(fileText);
+            final FileContents contents = parsedFile.contents;
+            DetailAST rootAST = parsedFile.ast;
             if (!commentChecks.isEmpty()) {
-                final DetailAST astWithComments = JavaParser.appendHiddenCommentNodes(rootAST);
-                walk(astWithComments, contents, AstState.WITH_COMMENTS);
+                parsedFile.getAstWithComments();
+                rootAST = parsedFile.rootWithComments;
             }
+            walk(parsedFile);
             if (filters.isEmpty()) {
                 addMessages(messages);
             }
@@ -166,6 +194,25 @@ public final class TreeWalker extends AbstractFileSetCheck implements ExternalRe
         }
     }
 
+    /**
+     * Returns the parsed file which is shared with other TreeWalkers processing
+     * the file in the current thread, parses the file if it is not parsed yet.
+     *
+     * @param fileText the text of the file
+     * @return the parsed file
+     * @throws CheckstyleException if the file is not a valid Java source
+     */
+    private ParsedFile getParsedFile(FileText fileText) throws CheckstyleException {
+        ParsedFile parsedFile = PARSED_FILE.get();
+        if (parsedFile == null || parsedFile.text != fileText) {
+            final FileContents contents = getFileContents();
+            parsedFile = new ParsedFile(fileText, contents,
+                    CompactDetailAst.of(JavaParser.parse(contents)));
+            PARSED_FILE.set(parsedFile);
+        }
+        return parsedFile;
+    }
+
     /**
      * Returns filtered set of {@link LocalizedMessage}.
      *
@@ -224,6 +271,7 @@ public final class TreeWalker extends AbstractFileSetCheck implements ExternalRe
         for (int element : tokens) {
             registerCheck(element, check);
         }
+        getCheckSet(check).addCheck(check);
         if (check.isCommentNodesRequired()) {
             commentChecks.add(check);
         }
@@ -240,8 +288,10 @@ public final class TreeWalker extends AbstractFileSetCheck implements ExternalRe
      * @throws CheckstyleException if Check is misconfigured
      */
     private void registerCheck(int tokenId, AbstractCheck check) throws CheckstyleException {
+        final CheckSet checkSet = getCheckSet(check);
         if (check.isCommentNodesRequired()) {
-            tokenToCommentChecks.computeIfAbsent(tokenId, empty -> new HashSet<>()).add(check);
+            checkSet.commentDispatch = CheckSet.addToDispatch(
+                    checkSet.commentDispatch, tokenId, check);
         }
         else if (TokenUtil.isCommentType(tokenId)) {
             final String message = String.format(Locale.ROOT, "Check '%s' waits for comment type "
@@ -251,128 +301,140 @@ public final class TreeWalker extends AbstractFileSetCheck implements ExternalRe
             throw new CheckstyleException(message);
         }
         else {
-            tokenToOrdinaryChecks.computeIfAbsent(tokenId, empty -> new HashSet<>()).add(check);
+            checkSet.ordinaryDispatch = CheckSet.addToDispatch(
+                    checkSet.ordinaryDispatch, tokenId, check);
         }
     }
 
     /**
-     * Initiates the walk of an AST.
-     *
-     * @param ast the root AST
-     * @param contents the contents of the file the AST was generated from.
-     * @param astState state of AST.
-     */
-    private void walk(DetailAST ast, FileContents contents,
-            AstState astState) {
-        notifyBegin(ast, contents, astState);
-        processIter(ast, astState);
-        notifyEnd(ast, astState);
-    }
-
-    /**
-     * Notify checks that we are about to begin walking a tree.
+     * Returns the set of checks to register a check in. The checks are distributed
+     * evenly among the sets, in the order of registration, except the Javadoc checks
+     * which all go to the set of the first one.
      *
-     * @param rootAST the root of the tree.
-     * @param contents the contents of the file the AST was generated from.
-     * @param astState state of AST.
+     * @param check the check to register
+     * @return the set of checks
      */
-    private void notifyBegin(DetailAST rootAST, FileContents contents,
-            AstState astState) {
-        final Set<AbstractCheck> checks;
-
-        if (astState == AstState.WITH_COMMENTS) {
-            checks = commentChecks;
+    private CheckSet getCheckSet(AbstractCheck check) {
+        final CheckSet result;
+        if (check instanceof SuppressWarningsHolder) {
+            // the holder shares suppressions with the filter via a thread local
+            result = checkSets.get(0);
         }
-        else {
-            checks = ordinaryChecks;
+        else if (check instanceof AbstractJavadocCheck) {
+            // the parsed Javadoc comments are cached per thread
+            if (javadocCheckSet == null) {
+                javadocCheckSet = checkSets.get(commentChecks.size() % checkSets.size());
+            }
+            result = javadocCheckSet;
         }
-
-        for (AbstractCheck check : checks) {
-            check.setFileContents(contents);
-            check.clearMessages();
-            check.beginTree(rootAST);
+        else if (check.isCommentNodesRequired()) {
+            result = checkSets.get(commentChecks.size() % checkSets.size());
+        }
+        else {
+            result = checkSets.get(ordinaryChecks.size() % checkSets.size());
         }
+        return result;
     }
 
     /**
-     * Notify checks that we have finished walking a tree.
+     * Initiates the walk of the trees of a file by every set of checks. All the
+     * walks are finished before this method returns, also if one of them fails,
+     * so no thread still uses the checks or the trees of the file afterwards.
      *
-     * @param rootAST the root of the tree.
-     * @param astState state of AST.
+     * @param parsedFile the parsed file
+     * @throws CheckstyleException if the thread is interrupted while waiting for other threads
      */
-    private void notifyEnd(DetailAST rootAST, AstState astState) {
-        final Set<AbstractCheck> checks;
-
-        if (astState == AstState.WITH_COMMENTS) {
-            checks = commentChecks;
+    private void walk(ParsedFile parsedFile) throws CheckstyleException {
+        if (checkSets.size() > 1) {
+            fillLazyCaches(parsedFile.contents);
         }
-        else {
-            checks = ordinaryChecks;
+        final List<Future<SortedSet<LocalizedMessage>>> results = new ArrayList<>();
+        for (CheckSet checkSet : checkSets.subList(1, checkSets.size())) {
+            if (!checkSet.isEmpty()) {
+                results.add(checkSet.getExecutor().submit(() -> checkSet.walk(parsedFile)));
+            }
         }
-
-        for (AbstractCheck check : checks) {
-            check.finishTree(rootAST);
-            messages.addAll(check.getMessages());
+        try {
+            messages.addAll(checkSets.get(0).walk(parsedFile));
+            for (Future<SortedSet<LocalizedMessage>> result : results) {
+                messages.addAll(getMessages(result));
+            }
+        }
+        finally {
+            awaitWalks(results);
         }
     }
 
     /**
-     * Notify checks that visiting a node.
+     * Returns the messages of the walk by a set of checks in another thread,
+     * rethrowing the exception of the walk if it failed.
      *
-     * @param ast the node to notify for.
-     * @param astState state of AST.
+     * @param result the result of the walk
+     * @return the messages of the walk
+     * @throws CheckstyleException if the thread is interrupted while waiting for the walk
+     * @noinspection ProhibitedExceptionThrown
      */
-    private void notifyVisit(DetailAST ast, AstState astState) {
-        final Collection<AbstractCheck> visitors = getListOfChecks(ast, astState);
-
-        if (visitors != null) {
-            for (AbstractCheck check : visitors) {
-                check.visitToken(ast);
+    private static SortedSet<LocalizedMessage> getMessages(
+            Future<SortedSet<LocalizedMessage>> result) throws CheckstyleException {
+        try {
+            return result.get();
+        }
+        catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new CheckstyleException("Interrupted while walking the AST", ex);
+        }
+        catch (ExecutionException ex) {
+            final Throwable cause = ex.getCause();
+            if (cause instanceof Error) {
+                throw (Error) cause;
             }
+            throw (RuntimeException) cause;
         }
     }
 
     /**
-     * Notify checks that leaving a node.
+     * Waits until the walks by the sets of checks in other threads have finished,
+     * ignoring their results and interruptions. After a walk has failed, the
+     * other walks are not cancelled, as a cancelled walk could still be running.
      *
-     * @param ast
-     *        the node to notify for
-     * @param astState state of AST.
+     * @param results the results of the walks
      */
-    private void notifyLeave(DetailAST ast, AstState astState) {
-        final Collection<AbstractCheck> visitors = getListOfChecks(ast, astState);
-
-        if (visitors != null) {
-            for (AbstractCheck check : visitors) {
-                check.leaveToken(ast);
+    private static void awaitWalks(List<Future<SortedSet<LocalizedMessage>>> results) {
+        boolean interrupted = false;
+        for (Future<SortedSet<LocalizedMessage>> result : results) {
+            while (!result.isDone()) {
+                try {
+                    result.get();
+                }
+                catch (InterruptedException ignored) {
+                    interrupted = true;
+                }
+                catch (ExecutionException ignored) {
+                    // the failure is reported by the walk which failed first
+                }
             }
         }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
     }
 
     /**
-     * Method returns list of checks.
+     * Fills the lazily computed caches of the text of the file in the current thread,
+     * so the threads walking the trees only read them. The trees are immutable.
+     * The scan of the lines for tabs and lengths is not filled, as the text
+     * publishes it safely when it is first requested.
      *
-     * @param ast
-     *            the node to notify for
-     * @param astState
-     *            state of AST.
-     * @return list of visitors
+     * @param contents the contents of the file the trees were generated from.
      */
-    private Collection<AbstractCheck> getListOfChecks(DetailAST ast, AstState astState) {
-        final Collection<AbstractCheck> visitors;
-        final int tokenId = ast.getType();
-
-        if (astState == AstState.WITH_COMMENTS) {
-            visitors = tokenToCommentChecks.get(tokenId);
-        }
-        else {
-            visitors = tokenToOrdinaryChecks.get(tokenId);
-        }
-        return visitors;
+    private static void fillLazyCaches(FileContents contents) {
+        contents.getText().lineColumn(0);
     }
 
     @Override
     public void destroy() {
+        PARSED_FILE.remove();
+        checkSets.forEach(CheckSet::shutdown);
         ordinaryChecks.forEach(AbstractCheck::destroy);
         commentChecks.forEach(AbstractCheck::destroy);
         super.destroy();
@@ -429,41 +491,459 @@ public final class TreeWalker extends AbstractFileSetCheck implements ExternalRe
     }
 
     /**
-     * Processes a node calling interested checks at each node.
-     * Uses iterative algorithm.
+     * A set of checks walked by one thread.
      *
-     * @param root the root of tree for process
-     * @param astState state of AST.
+     * <p>The checks interested in a token are looked up in a dispatch table indexed
+     * by the token type. Checks are notified in the order of their registration.
      */
-    private void processIter(DetailAST root, AstState astState) {
-        DetailAST curNode = root;
-        while (curNode != null) {
-            notifyVisit(curNode, astState);
-            DetailAST toVisit = curNode.getFirstChild();
-            while (curNode != null && toVisit == null) {
-                notifyLeave(curNode, astState);
-                toVisit = curNode.getNextSibling();
-                curNode = curNode.getParent();
-            }
-            curNode = toVisit;
+    private static final class CheckSet {
+
+        /** Index of a node which does not exist. */
+        private static final int NONE = CompactDetailAst.NONE;
+
+        /** Checks of a token which nobody is interested in. */
+        private static final AbstractCheck[] NO_CHECKS = new AbstractCheck[0];
+
+        /** Initial size of dispatch tables, big enough for every known token type. */
+        private static final int DISPATCH_SIZE =
+                Arrays.stream(TokenUtil.getAllTokenIds()).max().orElse(0) + 1;
+
+        /** Ordinary checks indexed by the token type they are interested in. */
+        private AbstractCheck[][] ordinaryDispatch = createDispatch(DISPATCH_SIZE);
+
+        /** Comment checks indexed by the token type they are interested in. */
+        private AbstractCheck[][] commentDispatch = createDispatch(DISPATCH_SIZE);
+
+        /** Ordinary checks of the set. */
+        private final Set<AbstractCheck> ordinaryChecks = new LinkedHashSet<>();
+
+        /** Comment checks of the set. */
+        private final Set<AbstractCheck> commentChecks = new LinkedHashSet<>();
+
+        /** Token types whose subtrees none of the checks of the set needs. */
+        private final BitSet skippedSubtreeTokens = new BitSet();
+
+        /** The thread of the set, created on first use. */
+        private ExecutorService executor;
+
+        /**
+         * Adds a check to the set. A subtree is skipped only when every check
+         * of the set declares that it does not need it.
+         *
+         * @param check the check to add
+         */
+        private void addCheck(AbstractCheck check) {
+            final BitSet checkSkippedTokens = new BitSet();
+            Arrays.stream(check.getSkippedSubtreeTokens()).forEach(checkSkippedTokens::set);
+            if (isEmpty()) {
+                skippedSubtreeTokens.or(checkSkippedTokens);
+            }
+            else {
+                skippedSubtreeTokens.and(checkSkippedTokens);
+            }
+            if (check.isCommentNodesRequired()) {
+                commentChecks.add(check);
+            }
+            else {
+                ordinaryChecks.add(check);
+            }
+        }
+
+        /**
+         * Creates a dispatch table with no checks.
+         *
+         * @param size the number of token types the table can hold
+         * @return the dispatch table
+         */
+        private static AbstractCheck[][] createDispatch(int size) {
+            final AbstractCheck[][] dispatch = new AbstractCheck[size][];
+            Arrays.fill(dispatch, NO_CHECKS);
+            return dispatch;
         }
+
+        /**
+         * Adds a check to the checks of a token in a dispatch table, unless it is
+         * already there. The table grows when the token type does not fit in it.
+         *
+         * @param dispatch the dispatch table
+         * @param tokenId the id of the token
+         * @param check the check to add
+         * @return the dispatch table holding the check
+         */
+        private static AbstractCheck[][] addToDispatch(AbstractCheck[][] dispatch,
+                int tokenId, AbstractCheck check) {
+            AbstractCheck[][] result = dispatch;
+            if (tokenId >= result.length) {
+                result = createDispatch(tokenId + 1);
+                System.arraycopy(dispatch, 0, result, 0, dispatch.length);
+            }
+            final AbstractCheck[] checks = result[tokenId];
+            if (Arrays.stream(checks).noneMatch(registered -> registered == check)) {
+                final AbstractCheck[] newChecks = Arrays.copyOf(checks, checks.length + 1);
+                newChecks[checks.length] = check;
+                result[tokenId] = newChecks;
+            }
+            return result;
+        }
+
+        /**
+         * Returns the executor of the thread of the set, creating it if necessary.
+         * The thread is a daemon, so it does not prevent the JVM from exiting
+         * when the TreeWalker is not destroyed.
+         *
+         * @return the executor of the thread
+         */
+        private ExecutorService getExecutor() {
+            if (executor == null) {
+                executor = Executors.newSingleThreadExecutor(runnable -> {
+                    final Thread thread = new Thread(runnable, "TreeWalker");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+            }
+            return executor;
+        }
+
+        /**
+         * Stops the thread of the set.
+         */
+        private void shutdown() {
+            if (executor != null) {
+                executor.shutdown();
+                executor = null;
+            }
+        }
+
+        /**
+         * Checks whether the set has no checks.
+         *
+         * @return true if the set has neither ordinary nor comment checks
+         */
+        private boolean isEmpty() {
+            return ordinaryChecks.isEmpty() && commentChecks.isEmpty();
+        }
+
+        /**
+         * Walks the trees of a file with the checks of the set. When the set has
+         * both ordinary and comment checks, both trees are walked in a single pass.
+         *
+         * @param parsedFile the parsed file
+         * @return the messages logged by the checks
+         */
+        private SortedSet<LocalizedMessage> walk(ParsedFile parsedFile) {
+            final SortedSet<LocalizedMessage> result;
+            if (isEmpty()) {
+                result = Collections.emptySortedSet();
+            }
+            else {
+                final CompactDetailAst ast = parsedFile.ast;
+                final CompactDetailAst astWithComments = parsedFile.astWithComments;
+                notifyBegin(ast, parsedFile.contents, ordinaryChecks);
+                notifyBegin(astWithComments, parsedFile.contents, commentChecks);
+                if (commentChecks.isEmpty()) {
+                    processIter(ast, ordinaryDispatch);
+                }
+                else if (ordinaryChecks.isEmpty()) {
+                    processIter(astWithComments, commentDispatch);
+                }
+                else {
+                    processIterWithComments(astWithComments, ast);
+                }
+                result = notifyEnd(ast, ordinaryChecks);
+                result.addAll(notifyEnd(astWithComments, commentChecks));
+            }
+            return result;
+        }
+
+        /**
+         * Notify checks that we are about to begin walking a tree.
+         *
+         * @param rootAST the root of the tree.
+         * @param contents the contents of the file the AST was generated from.
+         * @param checks the checks to notify.
+         */
+        private static void notifyBegin(DetailAST rootAST, FileContents contents,
+                Set<AbstractCheck> checks) {
+            for (AbstractCheck check : checks) {
+                check.setFileContents(contents);
+                check.clearMessages();
+                check.beginTree(rootAST);
+            }
+        }
+
+        /**
+         * Notify checks that we have finished walking a tree.
+         *
+         * @param rootAST the root of the tree.
+         * @param checks the checks to notify.
+         * @return the messages logged by the checks
+         */
+        private static SortedSet<LocalizedMessage> notifyEnd(DetailAST rootAST,
+                Set<AbstractCheck> checks) {
+            final SortedSet<LocalizedMessage> result = new TreeSet<>();
+            for (AbstractCheck check : checks) {
+                check.finishTree(rootAST);
+                result.addAll(check.getMessages());
+            }
+            return result;
+        }
+
+        /**
+         * Notify checks that visiting a node, creates the node only if some check
+         * is interested in it.
+         *
+         * @param tree a node of the tree of the node to notify for.
+         * @param node the index of the node to notify for.
+         * @param dispatch the checks indexed by the token type.
+         */
+        private static void notifyVisit(CompactDetailAst tree, int node,
+                AbstractCheck[][] dispatch) {
+            final AbstractCheck[] checks = getChecksOfToken(tree.getTypeAt(node), dispatch);
+            if (checks.length > 0) {
+                final DetailAST ast = tree.getNodeAt(node);
+                for (AbstractCheck check : checks) {
+                    check.visitToken(ast);
+                }
+            }
+        }
+
+        /**
+         * Notify checks that leaving a node, creates the node only if some check
+         * is interested in it.
+         *
+         * @param tree a node of the tree of the node to notify for.
+         * @param node the index of the node to notify for.
+         * @param dispatch the checks indexed by the token type.
+         */
+        private static void notifyLeave(CompactDetailAst tree, int node,
+                AbstractCheck[][] dispatch) {
+            final AbstractCheck[] checks = getChecksOfToken(tree.getTypeAt(node), dispatch);
+            if (checks.length > 0) {
+                final DetailAST ast = tree.getNodeAt(node);
+                for (AbstractCheck check : checks) {
+                    check.leaveToken(ast);
+                }
+            }
+        }
+
+        /**
+         * Returns the checks interested in a token type.
+         *
+         * @param tokenId
+         *            the token type of the node to notify for
+         * @param dispatch
+         *            the checks indexed by the token type.
+         * @return the checks of the token type
+         */
+        private static AbstractCheck[] getChecksOfToken(int tokenId, AbstractCheck[][] dispatch) {
+            final AbstractCheck[] checks;
+            if (tokenId < dispatch.length) {
+                checks = dispatch[tokenId];
+            }
+            else {
+                checks = NO_CHECKS;
+            }
+            return checks;
+        }
+
+        /**
+         * Processes a node calling interested checks at each node.
+         * Uses iterative algorithm over the indexes of the nodes.
+         *
+         * @param root the root of tree for process, may be null
+         * @param dispatch the checks indexed by the token type.
+         */
+        private void processIter(CompactDetailAst root, AbstractCheck[][] dispatch) {
+            int curNode = getIndex(root);
+            while (curNode != NONE) {
+                notifyVisit(root, curNode, dispatch);
+                int toVisit = getFirstChild(root, curNode);
+                while (curNode != NONE && toVisit == NONE) {
+                    notifyLeave(root, curNode, dispatch);
+                    toVisit = root.getNextSiblingAt(curNode);
+                    curNode = root.getParentAt(curNode);
+                }
+                curNode = toVisit;
+            }
+        }
+
+        /**
+         * Processes the tree with comment nodes calling interested comment checks
+         * at each node, and the tree without comment nodes calling interested ordinary
+         * checks at each node, in a single pass. The tree without comment nodes is
+         * the tree with comment nodes less the comment nodes, so its nodes are visited
+         * and left in the same order as the corresponding non-comment nodes.
+         *
+         * @param root the root of tree with comment nodes, may be null
+         * @param ordinaryRoot the root of tree without comment nodes, may be null
+         */
+        private void processIterWithComments(CompactDetailAst root,
+                CompactDetailAst ordinaryRoot) {
+            int toVisitOrdinary = getIndex(ordinaryRoot);
+            int toLeaveOrdinary = getFirstLeaf(ordinaryRoot, toVisitOrdinary);
+            int curNode = getIndex(root);
+            while (curNode != NONE) {
+                notifyVisit(root, curNode, commentDispatch);
+                if (!TokenUtil.isCommentType(root.getTypeAt(curNode))) {
+                    notifyVisit(ordinaryRoot, toVisitOrdinary, ordinaryDispatch);
+                    toVisitOrdinary = getNextInPreOrder(ordinaryRoot, toVisitOrdinary);
+                }
+                int toVisit = getFirstChild(root, curNode);
+                while (curNode != NONE && toVisit == NONE) {
+                    notifyLeave(root, curNode, commentDispatch);
+                    if (!TokenUtil.isCommentType(root.getTypeAt(curNode))) {
+                        notifyLeave(ordinaryRoot, toLeaveOrdinary, ordinaryDispatch);
+                        toLeaveOrdinary = getNextInPostOrder(ordinaryRoot, toLeaveOrdinary);
+                    }
+                    toVisit = root.getNextSiblingAt(curNode);
+                    curNode = root.getParentAt(curNode);
+                }
+                curNode = toVisit;
+            }
+        }
+
+        /**
+         * Returns the index of a node in its tree.
+         *
+         * @param ast the node, may be null
+         * @return the index of the node, or {@code NONE} if it is null
+         */
+        private static int getIndex(CompactDetailAst ast) {
+            final int result;
+            if (ast == null) {
+                result = NONE;
+            }
+            else {
+                result = ast.getIndex();
+            }
+            return result;
+        }
+
+        /**
+         * Returns the node visited after the given one by {@link #processIter}.
+         *
+         * @param tree a node of the tree of the node
+         * @param node the index of the node
+         * @return the index of the next node to visit, or {@code NONE} if there is none
+         */
+        private int getNextInPreOrder(CompactDetailAst tree, int node) {
+            int curNode = node;
+            int result = getFirstChild(tree, curNode);
+            while (curNode != NONE && result == NONE) {
+                result = tree.getNextSiblingAt(curNode);
+                curNode = tree.getParentAt(curNode);
+            }
+            return result;
+        }
+
+        /**
+         * Returns the node left after the given one by {@link #processIter}.
+         *
+         * @param tree a node of the tree of the node
+         * @param node the index of the node
+         * @return the index of the next node to leave, or {@code NONE} if there is none
+         */
+        private int getNextInPostOrder(CompactDetailAst tree, int node) {
+            final int result;
+            final int sibling = tree.getNextSiblingAt(node);
+            if (sibling == NONE) {
+                result = tree.getParentAt(node);
+            }
+            else {
+                result = getFirstLeaf(tree, sibling);
+            }
+            return result;
+        }
+
+        /**
+         * Returns the first node left by {@link #processIter} in a subtree.
+         *
+         * @param tree a node of the tree of the subtree, may be null if the index is none
+         * @param node the index of the root of the subtree, may be {@code NONE}
+         * @return the index of the leftmost leaf of the subtree
+         */
+        private int getFirstLeaf(CompactDetailAst tree, int node) {
+            int result = node;
+            if (result != NONE) {
+                int child = getFirstChild(tree, result);
+                while (child != NONE) {
+                    result = child;
+                    child = getFirstChild(tree, result);
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Returns the first child of a node to walk, or {@code NONE} if the subtree
+         * of the node is skipped by every check of the set.
+         *
+         * @param tree a node of the tree of the node
+         * @param node the index of the node
+         * @return the index of the first child to walk
+         */
+        private int getFirstChild(CompactDetailAst tree, int node) {
+            final int result;
+            if (skippedSubtreeTokens.get(tree.getTypeAt(node))) {
+                result = NONE;
+            }
+            else {
+                result = tree.getFirstChildAt(node);
+            }
+            return result;
+        }
+
     }
 
     /**
-     * State of AST.
-     * Indicates whether tree contains certain nodes.
+     * Syntax trees of a file shared by the TreeWalkers which process the file.
+     * The trees are compact and immutable, the tree with comments is created
+     * from the comment tokens kept by the tree without comments, so every
+     * TreeWalker can walk both trees.
      */
-    private enum AstState {
+    private static final class ParsedFile {
+
+        /** The text of the file. */
+        private final FileText text;
+
+        /** The contents of the file filled with comments while parsing. */
+        private final FileContents contents;
+
+        /** The root of the tree without comment nodes. */
+        private final CompactDetailAst ast;
+
+        /** The node of the tree with comment nodes which corresponds to the root. */
+        private CompactDetailAst rootWithComments;
+
+        /** The first node of the tree with comment nodes. */
+        private CompactDetailAst astWithComments;
 
         /**
-         * Ordinary tree.
+         * Creates a new {@code ParsedFile} instance.
+         *
+         * @param text the text of the file
+         * @param contents the contents of the file
+         * @param ast the root of the tree without comment nodes
          */
-        ORDINARY,
+        /* package */ ParsedFile(FileText text, FileContents contents, CompactDetailAst ast) {
+            this.text = text;
+            this.contents = contents;
+            this.ast = ast;
+        }
 
         /**
-         * AST contains comment nodes.
+         * Returns the tree with comment nodes, creates it on the first call.
+         *
+         * @return the first node of the tree with comment nodes
          */
-        WITH_COMMENTS,
+        private DetailAST getAstWithComments() {
+            if (rootWithComments == null && ast != null) {
+                rootWithComments = ast.withComments();
+                // the first node in pre-order is the first top level node
+                astWithComments = rootWithComments.getNodeAt(0);
+            }
+            return astWithComments;
+        }
 
     }
 
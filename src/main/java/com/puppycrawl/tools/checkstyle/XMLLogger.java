@@ -41,6 +41,10 @@ import com.puppycrawl.tools.checkstyle.utils.CommonUtil;
  * It outputs everything in UTF-8 (default XML encoding is UTF-8) in case
  * we want to localize error messages or simply that file names are
  * localized and takes care about escaping as well.
+ *
+ * <p>The messages of a file are written as they arrive while no other file is
+ * audited at the same time. Messages of files audited concurrently with the written
+ * one are kept until their file is finished and the written file is closed.
  */
 // -@cs[AbbreviationAsWordInName] We can not change it as,
 // check's name is part of API (used in configurations).
@@ -68,6 +72,15 @@ public class XMLLogger
     private final Map<String, FileMessages> fileMessages =
             new ConcurrentHashMap<>();
 
+    /** Exceptions of the written file, written after its errors. */
+    private final List<Throwable> writtenFileExceptions = new ArrayList<>();
+
+    /** Writes of other files waiting for the written file to be closed. */
+    private final List<Runnable> deferredWrites = new ArrayList<>();
+
+    /** The name of the file which section is being written, null if there is none. */
+    private String writtenFileName;
+
     /**
      * Helper writer that allows easy encoding and printing.
      */
@@ -104,6 +117,11 @@ public class XMLLogger
 
     @Override
     public void auditFinished(AuditEvent event) {
+        synchronized (writerLock) {
+            if (writtenFileName != null) {
+                closeWrittenFile();
+            }
+        }
         writer.println("</checkstyle>");
         if (closeStream) {
             writer.close();
@@ -115,19 +133,58 @@ public class XMLLogger
 
     @Override
     public void fileStarted(AuditEvent event) {
-        fileMessages.put(event.getFileName(), new FileMessages());
+        final String fileName = event.getFileName();
+        synchronized (writerLock) {
+            if (writtenFileName == null) {
+                writtenFileName = fileName;
+                writeFileOpeningTag(fileName);
+            }
+            else {
+                fileMessages.put(fileName, new FileMessages());
+            }
+        }
     }
 
     @Override
     public void fileFinished(AuditEvent event) {
         final String fileName = event.getFileName();
-        final FileMessages messages = fileMessages.get(fileName);
-
         synchronized (writerLock) {
-            writeFileMessages(fileName, messages);
+            if (fileName.equals(writtenFileName)) {
+                closeWrittenFile();
+            }
+            else {
+                final FileMessages messages = fileMessages.remove(fileName);
+                writeOrDefer(() -> writeFileMessages(fileName, messages));
+            }
         }
+    }
+
+    /**
+     * Closes the section of the written file and performs the writes which
+     * waited for it.
+     */
+    private void closeWrittenFile() {
+        writtenFileExceptions.forEach(this::writeException);
+        writtenFileExceptions.clear();
+        writeFileClosingTag();
+        writtenFileName = null;
+        deferredWrites.forEach(Runnable::run);
+        deferredWrites.clear();
+    }
 
-        fileMessages.remove(fileName);
+    /**
+     * Performs a write which does not belong to the written file, defers it
+     * until the written file is closed if necessary.
+     *
+     * @param write the write to perform
+     */
+    private void writeOrDefer(Runnable write) {
+        if (writtenFileName == null) {
+            write.run();
+        }
+        else {
+            deferredWrites.add(write);
+        }
     }
 
     /**
@@ -169,14 +226,16 @@ public class XMLLogger
     public void addError(AuditEvent event) {
         if (event.getSeverityLevel() != SeverityLevel.IGNORE) {
             final String fileName = event.getFileName();
-            if (fileName == null || !fileMessages.containsKey(fileName)) {
-                synchronized (writerLock) {
+            synchronized (writerLock) {
+                if (fileName != null && fileName.equals(writtenFileName)) {
                     writeFileError(event);
                 }
-            }
-            else {
-                final FileMessages messages = fileMessages.get(fileName);
-                messages.addError(event);
+                else if (fileName == null || !fileMessages.containsKey(fileName)) {
+                    writeOrDefer(() -> writeFileError(event));
+                }
+                else {
+                    fileMessages.get(fileName).addError(event);
+                }
             }
         }
     }
@@ -187,17 +246,19 @@ public class XMLLogger
      * @param event An event to print.
      */
     private void writeFileError(AuditEvent event) {
-        writer.print("<error" + " line=\"" + event.getLine() + "\"");
+        writer.print("<error line=\"");
+        writer.print(event.getLine());
+        writer.print('"');
         if (event.getColumn() > 0) {
-            writer.print(" column=\"" + event.getColumn() + "\"");
+            writer.print(" column=\"");
+            writer.print(event.getColumn());
+            writer.print('"');
         }
-        writer.print(" severity=\""
-                + event.getSeverityLevel().getName()
-                + "\"");
-        writer.print(" message=\""
-                + encode(event.getMessage())
-                + "\"");
-        writer.print(" source=\"");
+        writer.print(" severity=\"");
+        writer.print(event.getSeverityLevel().getName());
+        writer.print("\" message=\"");
+        writer.print(encode(event.getMessage()));
+        writer.print("\" source=\"");
         if (event.getModuleId() == null) {
             writer.print(encode(event.getSourceName()));
         }
@@ -210,14 +271,16 @@ public class XMLLogger
     @Override
     public void addException(AuditEvent event, Throwable throwable) {
         final String fileName = event.getFileName();
-        if (fileName == null || !fileMessages.containsKey(fileName)) {
-            synchronized (writerLock) {
-                writeException(throwable);
+        synchronized (writerLock) {
+            if (fileName != null && fileName.equals(writtenFileName)) {
+                writtenFileExceptions.add(throwable);
+            }
+            else if (fileName == null || !fileMessages.containsKey(fileName)) {
+                writeOrDefer(() -> writeException(throwable));
+            }
+            else {
+                fileMessages.get(fileName).addException(throwable);
             }
-        }
-        else {
-            final FileMessages messages = fileMessages.get(fileName);
-            messages.addException(throwable);
         }
     }
 
@@ -246,7 +309,44 @@ public class XMLLogger
      * @return the escaped value if necessary.
      */
     public static String encode(String value) {
-        final StringBuilder sb = new StringBuilder(256);
+        final String result;
+        if (isEncodingRequired(value)) {
+            result = encodeCharacters(value);
+        }
+        else {
+            result = value;
+        }
+        return result;
+    }
+
+    /**
+     * Checks whether a value has characters to escape, so values which are safe
+     * as they are can be written without copying.
+     *
+     * @param value the value to check.
+     * @return true if the value has characters to escape.
+     */
+    private static boolean isEncodingRequired(String value) {
+        boolean result = false;
+        for (int i = 0; i < value.length(); i++) {
+            final char chr = value.charAt(i);
+            if (chr == '<' || chr == '>' || chr == '\'' || chr == '"' || chr == '&'
+                    || Character.isISOControl(chr)) {
+                result = true;
+                break;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Escapes every character of a value which requires it.
+     *
+     * @param value the value to escape.
+     * @return the escaped value.
+     */
+    private static String encodeCharacters(String value) {
+        final StringBuilder sb = new StringBuilder(value.length() + 16);
         for (int i = 0; i < value.length(); i++) {
             final char chr = value.charAt(i);
             switch (chr) {
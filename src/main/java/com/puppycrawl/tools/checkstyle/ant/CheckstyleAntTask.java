@@ -26,14 +26,19 @@ import java.io.OutputStream;
 import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Properties;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import org.apache.tools.ant.BuildEvent;
 import org.apache.tools.ant.BuildException;
+import org.apache.tools.ant.BuildListener;
 import org.apache.tools.ant.DirectoryScanner;
 import org.apache.tools.ant.Project;
 import org.apache.tools.ant.Task;
@@ -49,6 +54,7 @@ import com.puppycrawl.tools.checkstyle.DefaultLogger;
 import com.puppycrawl.tools.checkstyle.ModuleFactory;
 import com.puppycrawl.tools.checkstyle.PackageObjectFactory;
 import com.puppycrawl.tools.checkstyle.PropertiesExpander;
+import com.puppycrawl.tools.checkstyle.PropertyResolver;
 import com.puppycrawl.tools.checkstyle.ThreadModeSettings;
 import com.puppycrawl.tools.checkstyle.XMLLogger;
 import com.puppycrawl.tools.checkstyle.api.AuditListener;
@@ -73,6 +79,13 @@ public class CheckstyleAntTask extends Task {
     /** Suffix for time string. */
     private static final String TIME_SUFFIX = " ms.";
 
+    /**
+     * Name of the project reference which holds the configuration of the last
+     * execution in the build, which may be reused by the next execution.
+     */
+    private static final String REUSABLE_CONFIGURATION_REFERENCE =
+            "checkstyle.reusableConfiguration";
+
     /** Contains the paths to process. */
     private final List<Path> paths = new ArrayList<>();
 
@@ -116,6 +129,12 @@ public class CheckstyleAntTask extends Task {
      */
     private boolean executeIgnoredModules;
 
+    /** The number of threads used to audit files. */
+    private int checkerThreadsNumber = 1;
+
+    /** Whether to reuse the configuration of the previous execution in the same build. */
+    private boolean reuseConfiguration;
+
     ////////////////////////////////////////////////////////////////////////////
     // Setters for ANT specific attributes
     ////////////////////////////////////////////////////////////////////////////
@@ -261,6 +280,26 @@ public class CheckstyleAntTask extends Task {
         executeIgnoredModules = omit;
     }
 
+    /**
+     * Sets the number of threads used to audit files. Default is 1.
+     * Files are also scanned in parallel when more than one thread is used.
+     *
+     * @param checkerThreadsNumber the number of threads, must be greater than zero
+     */
+    public void setCheckerThreadsNumber(int checkerThreadsNumber) {
+        this.checkerThreadsNumber = checkerThreadsNumber;
+    }
+
+    /**
+     * Sets flag - whether to reuse the configuration of the previous execution
+     * in the same build, if it was loaded the same way.
+     *
+     * @param reuse whether to reuse the configuration
+     */
+    public void setReuseConfiguration(boolean reuse) {
+        reuseConfiguration = reuse;
+    }
+
     ////////////////////////////////////////////////////////////////////////////
     // Setters for Root Module's configuration attributes
     ////////////////////////////////////////////////////////////////////////////
@@ -299,6 +338,10 @@ public class CheckstyleAntTask extends Task {
             if (config == null) {
                 throw new BuildException("Must specify 'config'.", getLocation());
             }
+            if (checkerThreadsNumber < 1) {
+                throw new BuildException("Checker threads number must be greater than zero.",
+                        getLocation());
+            }
             realExecute(version);
         }
         finally {
@@ -396,19 +439,7 @@ public class CheckstyleAntTask extends Task {
     private RootModule createRootModule() {
         final RootModule rootModule;
         try {
-            final Properties props = createOverridingProperties();
-            final ThreadModeSettings threadModeSettings =
-                    ThreadModeSettings.SINGLE_THREAD_MODE_INSTANCE;
-            final ConfigurationLoader.IgnoredModulesOptions ignoredModulesOptions;
-            if (executeIgnoredModules) {
-                ignoredModulesOptions = ConfigurationLoader.IgnoredModulesOptions.EXECUTE;
-            }
-            else {
-                ignoredModulesOptions = ConfigurationLoader.IgnoredModulesOptions.OMIT;
-            }
-
-            final Configuration configuration = ConfigurationLoader.loadConfiguration(config,
-                    new PropertiesExpander(props), ignoredModulesOptions, threadModeSettings);
+            final Configuration configuration = getConfiguration();
 
             final ClassLoader moduleClassLoader =
                 Checker.class.getClassLoader();
@@ -427,6 +458,54 @@ public class CheckstyleAntTask extends Task {
         return rootModule;
     }
 
+    /**
+     * Returns the configuration of the previous execution in the same build
+     * if reuse is enabled and it was loaded the same way, loads the
+     * configuration otherwise. Only the configuration is reused, each
+     * execution creates and destroys its own root module.
+     *
+     * @return the configuration
+     * @throws CheckstyleException if the configuration can not be loaded
+     */
+    private Configuration getConfiguration() throws CheckstyleException {
+        final Properties props = createOverridingProperties();
+        ReusableConfiguration reusableConfiguration = null;
+        if (reuseConfiguration) {
+            reusableConfiguration = getProject().getReference(REUSABLE_CONFIGURATION_REFERENCE);
+        }
+        if (reusableConfiguration != null && reusableConfiguration.isLoadedFor(this, props)) {
+            log("Reusing configuration " + config, Project.MSG_VERBOSE);
+        }
+        else {
+            reusableConfiguration = new ReusableConfiguration(this);
+            final ThreadModeSettings threadModeSettings =
+                    new ThreadModeSettings(checkerThreadsNumber, 1);
+            reusableConfiguration.configuration = ConfigurationLoader.loadConfiguration(config,
+                    reusableConfiguration.recordResolvedProperties(props),
+                    getIgnoredModulesOptions(), threadModeSettings);
+            if (reuseConfiguration) {
+                reusableConfiguration.keepIn(getProject());
+            }
+        }
+        return reusableConfiguration.configuration;
+    }
+
+    /**
+     * Returns whether modules with severity ignore are executed.
+     *
+     * @return the option for ignored modules
+     */
+    private ConfigurationLoader.IgnoredModulesOptions getIgnoredModulesOptions() {
+        final ConfigurationLoader.IgnoredModulesOptions ignoredModulesOptions;
+        if (executeIgnoredModules) {
+            ignoredModulesOptions = ConfigurationLoader.IgnoredModulesOptions.EXECUTE;
+        }
+        else {
+            ignoredModulesOptions = ConfigurationLoader.IgnoredModulesOptions.OMIT;
+        }
+        return ignoredModulesOptions;
+    }
+
     /**
      * Create the Properties object based on the arguments specified
      * to the ANT task.
@@ -547,16 +626,25 @@ public class CheckstyleAntTask extends Task {
         final List<File> allFiles = new ArrayList<>();
         int concreteFilesCount = 0;
 
+        final Map<File, DirectoryScanner> scanners = stream(Arrays.asList(resources))
+                .distinct()
+                .map(File::new)
+                .filter(file -> !file.isFile())
+                .collect(Collectors.toMap(Function.identity(), file -> {
+                    final DirectoryScanner scanner = new DirectoryScanner();
+                    scanner.setBasedir(file);
+                    scanner.scan();
+                    return scanner;
+                }));
+
         for (String resource : resources) {
             final File file = new File(resource);
-            if (file.isFile()) {
+            final DirectoryScanner scanner = scanners.get(file);
+            if (scanner == null) {
                 concreteFilesCount++;
                 allFiles.add(file);
             }
             else {
-                final DirectoryScanner scanner = new DirectoryScanner();
-                scanner.setBasedir(file);
-                scanner.scan();
                 final List<File> scannedFiles = retrieveAllScannedFiles(scanner, pathIndex);
                 allFiles.addAll(scannedFiles);
             }
@@ -577,17 +665,38 @@ public class CheckstyleAntTask extends Task {
      */
     protected List<File> scanFileSets() {
         final List<File> allFiles = new ArrayList<>();
+        final List<DirectoryScanner> scanners = stream(fileSets)
+                .map(fileSet -> fileSet.getDirectoryScanner(getProject()))
+                .collect(Collectors.toList());
 
-        for (int i = 0; i < fileSets.size(); i++) {
-            final FileSet fileSet = fileSets.get(i);
-            final DirectoryScanner scanner = fileSet.getDirectoryScanner(getProject());
-            final List<File> scannedFiles = retrieveAllScannedFiles(scanner, i);
+        for (int i = 0; i < scanners.size(); i++) {
+            final List<File> scannedFiles = retrieveAllScannedFiles(scanners.get(i), i);
             allFiles.addAll(scannedFiles);
         }
 
         return allFiles;
     }
 
+    /**
+     * Returns a stream of elements, which is parallel if more than one thread
+     * is used to audit files. Scanning in parallel mostly helps on network
+     * file systems.
+     *
+     * @param elements the elements
+     * @param <T> the type of the elements
+     * @return the stream of the elements
+     */
+    private <T> Stream<T> stream(List<T> elements) {
+        final Stream<T> result;
+        if (checkerThreadsNumber > 1) {
+            result = elements.parallelStream();
+        }
+        else {
+            result = elements.stream();
+        }
+        return result;
+    }
+
     /**
      * Retrieves all matched files from the given scanner.
      *
@@ -607,6 +716,133 @@ public class CheckstyleAntTask extends Task {
             .collect(Collectors.toList());
     }
 
+    /**
+     * A configuration together with the settings it was loaded with, which
+     * decide whether a later execution can reuse it. It is kept as a reference
+     * of the project and removed when the build finishes.
+     */
+    private static final class ReusableConfiguration implements BuildListener {
+
+        /** The location of the configuration. */
+        private final String config;
+
+        /** The time the configuration file was last modified, 0 if it is not a file. */
+        private final long configLastModified;
+
+        /** Whether modules with severity ignore are executed. */
+        private final boolean executeIgnoredModules;
+
+        /** The number of threads used to audit files. */
+        private final int checkerThreadsNumber;
+
+        /** The values of the properties resolved by the configuration, by name. */
+        private final Map<String, String> resolvedProperties = new HashMap<>();
+
+        /** The configuration. */
+        private Configuration configuration;
+
+        /**
+         * Creates a new {@code ReusableConfiguration} instance.
+         *
+         * @param task the task which loads the configuration
+         */
+        /* package */ ReusableConfiguration(CheckstyleAntTask task) {
+            config = task.config;
+            configLastModified = new File(task.config).lastModified();
+            executeIgnoredModules = task.executeIgnoredModules;
+            checkerThreadsNumber = task.checkerThreadsNumber;
+        }
+
+        /**
+         * Returns a resolver of properties which records the resolved values.
+         *
+         * @param props the properties to resolve
+         * @return the resolver
+         */
+        private PropertyResolver recordResolvedProperties(Properties props) {
+            final PropertyResolver resolver = new PropertiesExpander(props);
+            return name -> {
+                final String value = resolver.resolve(name);
+                resolvedProperties.put(name, value);
+                return value;
+            };
+        }
+
+        /**
+         * Checks whether a task would load the same configuration.
+         *
+         * @param task the task
+         * @param props the properties of the task
+         * @return true if the configuration can be reused by the task
+         */
+        private boolean isLoadedFor(CheckstyleAntTask task, Properties props) {
+            return config.equals(task.config)
+                    && configLastModified == new File(task.config).lastModified()
+                    && executeIgnoredModules == task.executeIgnoredModules
+                    && checkerThreadsNumber == task.checkerThreadsNumber
+                    && resolvedProperties.entrySet().stream().allMatch(entry -> {
+                        return Objects.equals(entry.getValue(),
+                                props.getProperty(entry.getKey()));
+                    });
+        }
+
+        /**
+         * Keeps the configuration as a reference of a project, replacing the
+         * configuration of a previous execution, until the build finishes.
+         *
+         * @param project the project
+         */
+        private void keepIn(Project project) {
+            synchronized (project.getReferences()) {
+                final ReusableConfiguration previous =
+                        project.getReference(REUSABLE_CONFIGURATION_REFERENCE);
+                if (previous != null) {
+                    project.removeBuildListener(previous);
+                }
+                project.addReference(REUSABLE_CONFIGURATION_REFERENCE, this);
+                project.addBuildListener(this);
+            }
+        }
+
+        @Override
+        public void buildFinished(BuildEvent event) {
+            final Project project = event.getProject();
+            project.getReferences().remove(REUSABLE_CONFIGURATION_REFERENCE, this);
+            project.removeBuildListener(this);
+        }
+
+        @Override
+        public void buildStarted(BuildEvent event) {
+            // no code
+        }
+
+        @Override
+        public void targetStarted(BuildEvent event) {
+            // no code
+        }
+
+        @Override
+        public void targetFinished(BuildEvent event) {
+            // no code
+        }
+
+        @Override
+        public void taskStarted(BuildEvent event) {
+            // no code
+        }
+
+        @Override
+        public void taskFinished(BuildEvent event) {
+            // no code
+        }
+
+        @Override
+        public void messageLogged(BuildEvent event) {
+            // no code
+        }
+
+    }
+
     /**
      * Poor mans enumeration for the formatter types.
      */
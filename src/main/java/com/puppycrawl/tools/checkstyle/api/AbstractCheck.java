@@ -86,6 +86,19 @@ public abstract class AbstractCheck extends AbstractViolationReporter {
         return false;
     }
 
+    /**
+     * The tokens whose subtrees this check does not need to be notified about.
+     * The tree walker does not descend below a token of these types when every
+     * check walked in the same pass declares it.
+     *
+     * @return the token types below which the check does not need notifications,
+     *         empty array as a default value.
+     * @see TokenTypes
+     */
+    public int[] getSkippedSubtreeTokens() {
+        return CommonUtil.EMPTY_INT_ARRAY;
+    }
+
     /**
      * Adds a set of tokens the check is interested in.
      *
@@ -229,7 +242,7 @@ public abstract class AbstractCheck extends AbstractViolationReporter {
     public final void log(int lineNo, int colNo, String key,
             Object... args) {
         final int col = 1 + CommonUtil.lengthExpandedTabs(
-            getLines()[lineNo - 1], colNo, tabWidth);
+            getLine(lineNo - 1), colNo, tabWidth);
         context.get().messages.add(
             new LocalizedMessage(
                 lineNo,
@@ -259,7 +272,7 @@ public abstract class AbstractCheck extends AbstractViolationReporter {
         // is increased by one.
 
         final int col = 1 + CommonUtil.lengthExpandedTabs(
-                getLines()[ast.getLineNo() - 1], ast.getColumnNo(), tabWidth);
+                getLine(ast.getLineNo() - 1), ast.getColumnNo(), tabWidth);
         context.get().messages.add(
                 new LocalizedMessage(
                         ast.getLineNo(),
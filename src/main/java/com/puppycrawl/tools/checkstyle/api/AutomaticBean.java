@@ -76,6 +76,12 @@ public abstract class AutomaticBean
     /** Comma separator for StringTokenizer. */
     private static final String COMMA_SEPARATOR = ",";
 
+    /**
+     * The BeanUtilsBean shared by all beans, so the converters are registered and
+     * the properties of a class are introspected only once.
+     */
+    private static final BeanUtilsBean BEAN_UTILS = createBeanUtilsBean();
+
     /** The configuration of this bean. */
     private Configuration configuration;
 
@@ -212,8 +218,6 @@ public abstract class AutomaticBean
      */
     private void tryCopyProperty(String key, Object value, boolean recheck)
             throws CheckstyleException {
-        final BeanUtilsBean beanUtils = createBeanUtilsBean();
-
         try {
             if (recheck) {
                 // BeanUtilsBean.copyProperties silently ignores missing setters
@@ -228,7 +232,7 @@ public abstract class AutomaticBean
                 }
             }
             // finally we can set the bean property
-            beanUtils.copyProperty(this, key, value);
+            BEAN_UTILS.copyProperty(this, key, value);
         }
         catch (final InvocationTargetException | IllegalAccessException
                 | NoSuchMethodException ex) {
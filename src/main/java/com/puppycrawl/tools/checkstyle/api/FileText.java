@@ -19,24 +19,16 @@
 
 package com.puppycrawl.tools.checkstyle.api;
 
-import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.io.Reader;
-import java.io.StringReader;
 import java.nio.charset.Charset;
-import java.nio.charset.CharsetDecoder;
-import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
 import java.nio.charset.UnsupportedCharsetException;
 import java.nio.file.Files;
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.concurrent.atomic.AtomicReference;
 
 import com.puppycrawl.tools.checkstyle.utils.CommonUtil;
 
@@ -51,19 +43,19 @@ import com.puppycrawl.tools.checkstyle.utils.CommonUtil;
 public final class FileText {
 
     /**
-     * The number of characters to read in one go.
+     * The initial capacity of the array of line breaks of a file being read.
      */
-    private static final int READ_BUFFER_SIZE = 1024;
+    private static final int INITIAL_LINE_BREAKS = 64;
 
     /**
-     * Regular expression pattern matching all line terminators.
+     * The highest value of a byte which is decoded to the same character by
+     * every ASCII compatible charset.
      */
-    private static final Pattern LINE_TERMINATOR = Pattern.compile("\\n|\\r\\n?");
+    private static final int MAX_ASCII_BYTE = 0x7F;
 
-    // For now, we always keep both full text and lines array.
-    // In the long run, however, the one passed at initialization might be
-    // enough, while the other could be lazily created when requested.
-    // This would save memory but cost CPU cycles.
+    // The full text is always kept. The lines of a file which is read are
+    // only created when they are requested, from the positions of the line
+    // breaks found while the file is read.
 
     /**
      * The name of the file.
@@ -79,6 +71,7 @@ public final class FileText {
 
     /**
      * The lines of the file, without terminators.
+     * An element is {@code null} until the line is requested.
      */
     private final String[] lines;
 
@@ -96,6 +89,13 @@ public final class FileText {
      */
     private int[] lineBreaks;
 
+    /**
+     * The result of the scan of the lines, {@code null} until the lines are scanned.
+     * It is held by an atomic reference, so a scan by one thread is seen complete
+     * by the others.
+     */
+    private final AtomicReference<LineScan> lineScan = new AtomicReference<>();
+
     /**
      * Copy constructor.
      *
@@ -152,65 +152,118 @@ public final class FileText {
     public FileText(File file, String charsetName) throws IOException {
         this.file = file;
 
-        // We use our own decoder, to be sure we have complete control
-        // about replacements.
-        final CharsetDecoder decoder;
+        charset = forName(charsetName);
+
+        fullText = readFile(file, charset);
+        lineBreaks = scanLineBreaks(fullText);
+        lines = new String[lineBreaks.length - 1];
+    }
+
+    /**
+     * Creates a new file text representation from the content of a file
+     * which is already read.
+     *
+     * <p>The content will be decoded using the specified encoding, replacing
+     * malformed input and unmappable characters with the default
+     * replacement character.
+     *
+     * @param file the name of the file
+     * @param content the content of the file
+     * @param charsetName the encoding to use when decoding the content
+     * @throws NullPointerException if the content is null
+     */
+    public FileText(File file, byte[] content, String charsetName) {
+        this.file = file;
+
+        charset = forName(charsetName);
+
+        fullText = decode(content, charset);
+        lineBreaks = scanLineBreaks(fullText);
+        lines = new String[lineBreaks.length - 1];
+    }
+
+    /**
+     * Returns the charset with the given name.
+     *
+     * @param charsetName the name of the charset
+     * @return the charset
+     * @throws IllegalStateException if the charset is not supported
+     */
+    private static Charset forName(String charsetName) {
         try {
-            charset = Charset.forName(charsetName);
-            decoder = charset.newDecoder();
-            decoder.onMalformedInput(CodingErrorAction.REPLACE);
-            decoder.onUnmappableCharacter(CodingErrorAction.REPLACE);
+            return Charset.forName(charsetName);
         }
         catch (final UnsupportedCharsetException ex) {
             final String message = "Unsupported charset: " + charsetName;
             throw new IllegalStateException(message, ex);
         }
-
-        fullText = readFile(file, decoder);
-
-        // Use the BufferedReader to break down the lines as this
-        // is about 30% faster than using the
-        // LINE_TERMINATOR.split(fullText, -1) method
-        try (BufferedReader reader = new BufferedReader(new StringReader(fullText))) {
-            final ArrayList<String> textLines = new ArrayList<>();
-            while (true) {
-                final String line = reader.readLine();
-                if (line == null) {
-                    break;
-                }
-                textLines.add(line);
-            }
-            lines = textLines.toArray(CommonUtil.EMPTY_STRING_ARRAY);
-        }
     }
 
     /**
-     * Reads file using specific decoder and returns all its content as a String.
+     * Reads file using specific charset and returns all its content as a String.
+     * The whole file is read at once.
      *
      * @param inputFile File to read
-     * @param decoder Charset decoder
+     * @param charset Charset of the file
      * @return File's text
      * @throws IOException Unable to open or read the file
      * @throws FileNotFoundException when inputFile does not exists
      */
-    private static String readFile(final File inputFile, final CharsetDecoder decoder)
+    private static String readFile(final File inputFile, final Charset charset)
             throws IOException {
         if (!inputFile.exists()) {
             throw new FileNotFoundException(inputFile.getPath() + " (No such file or directory)");
         }
-        final StringBuilder buf = new StringBuilder(1024);
-        final InputStream stream = Files.newInputStream(inputFile.toPath());
-        try (Reader reader = new InputStreamReader(stream, decoder)) {
-            final char[] chars = new char[READ_BUFFER_SIZE];
-            while (true) {
-                final int len = reader.read(chars);
-                if (len == -1) {
-                    break;
-                }
-                buf.append(chars, 0, len);
+        return decode(Files.readAllBytes(inputFile.toPath()), charset);
+    }
+
+    /**
+     * Decodes the content of a file. Content consisting only of ASCII
+     * characters is not passed through the decoder of the charset.
+     *
+     * @param bytes the content of the file
+     * @param charset Charset of the file
+     * @return File's text
+     */
+    private static String decode(byte[] bytes, Charset charset) {
+        final String result;
+        if (isAsciiCompatible(charset) && isAscii(bytes)) {
+            result = new String(bytes, StandardCharsets.US_ASCII);
+        }
+        else {
+            result = new String(bytes, charset);
+        }
+        return result;
+    }
+
+    /**
+     * Checks whether a charset decodes every byte up to {@link #MAX_ASCII_BYTE}
+     * to the ASCII character with the same code.
+     *
+     * @param charset the charset
+     * @return true if the charset is compatible with ASCII
+     */
+    private static boolean isAsciiCompatible(Charset charset) {
+        return StandardCharsets.UTF_8.equals(charset)
+                || StandardCharsets.US_ASCII.equals(charset)
+                || StandardCharsets.ISO_8859_1.equals(charset);
+    }
+
+    /**
+     * Checks whether bytes are all ASCII characters.
+     *
+     * @param bytes the bytes
+     * @return true if no byte is above {@link #MAX_ASCII_BYTE}
+     */
+    private static boolean isAscii(byte[] bytes) {
+        boolean result = true;
+        for (byte value : bytes) {
+            if ((value & ~MAX_ASCII_BYTE) != 0) {
+                result = false;
+                break;
             }
         }
-        return buf.toString();
+        return result;
     }
 
     /**
@@ -221,7 +274,115 @@ public final class FileText {
      * @return the line with the given number
      */
     public String get(final int lineNo) {
-        return lines[lineNo];
+        String line = lines[lineNo];
+        if (line == null) {
+            line = fullText.substring(lineBreaks[lineNo], getLineEnd(lineNo));
+            lines[lineNo] = line;
+        }
+        return line;
+    }
+
+    /**
+     * Returns the position of the end of a line within the full text,
+     * excluding the terminator of the line.
+     *
+     * @param lineNo the number of the line, starting at zero
+     * @return the position following the last character of the line
+     */
+    private int getLineEnd(int lineNo) {
+        final int start = lineBreaks[lineNo];
+        int end = lineBreaks[lineNo + 1];
+        if (end > start && fullText.charAt(end - 1) == '\n') {
+            end--;
+        }
+        if (end > start && fullText.charAt(end - 1) == '\r') {
+            end--;
+        }
+        return end;
+    }
+
+    /**
+     * Returns the index of the first tab character of a line.
+     * The lines are scanned once, when the first tab or length is requested,
+     * so every check of the file shares the scan, and the lines are not created.
+     *
+     * @param lineNo the number of the line, starting at zero
+     * @return the index of the first tab character of the line,
+     *         {@code -1} if the line has no tabs
+     */
+    public int indexOfTab(int lineNo) {
+        return scanLines().tabIndexes[lineNo];
+    }
+
+    /**
+     * Returns the length of a line with tabs expanded, the same as
+     * {@code CommonUtil.lengthExpandedTabs(line, line.codePointCount(0, line.length()),
+     * tabWidth)}. Only a line with tabs is created to compute its length,
+     * the length of other lines is their number of code points.
+     *
+     * @param lineNo the number of the line, starting at zero
+     * @param tabWidth the distance between tab stop positions
+     * @return the length of the line with tabs expanded
+     */
+    public int lengthExpandedTabs(int lineNo, int tabWidth) {
+        final LineScan scan = scanLines();
+        final int result;
+        if (scan.tabIndexes[lineNo] < 0) {
+            result = scan.codePointCounts[lineNo];
+        }
+        else {
+            result = CommonUtil.lengthExpandedTabs(get(lineNo), scan.codePointCounts[lineNo],
+                    tabWidth);
+        }
+        return result;
+    }
+
+    /**
+     * Finds the number of code points and the first tab character of every line
+     * in a single scan, if the lines were not scanned yet. The lines which are
+     * not created yet are scanned within the full text. Threads which request
+     * the scan at the same time may each scan the lines, with the same result.
+     *
+     * @return the result of the scan
+     */
+    private LineScan scanLines() {
+        LineScan result = lineScan.get();
+        if (result == null) {
+            final int[] counts = new int[lines.length];
+            final int[] tabs = new int[lines.length];
+            for (int lineNo = 0; lineNo < lines.length; lineNo++) {
+                final CharSequence text;
+                final int start;
+                final int end;
+                if (lines[lineNo] == null) {
+                    text = fullText;
+                    start = lineBreaks[lineNo];
+                    end = getLineEnd(lineNo);
+                }
+                else {
+                    text = lines[lineNo];
+                    start = 0;
+                    end = text.length();
+                }
+                int count = end - start;
+                int tab = -1;
+                for (int pos = start; pos < end; pos++) {
+                    final char chr = text.charAt(pos);
+                    if (chr == '\t' && tab < 0) {
+                        tab = pos - start;
+                    }
+                    else if (Character.isHighSurrogate(chr) && pos + 1 < end
+                            && Character.isLowSurrogate(text.charAt(pos + 1))) {
+                        count--;
+                    }
+                }
+                counts[lineNo] = count;
+                tabs[lineNo] = tab;
+            }
+            result = new LineScan(counts, tabs);
+            lineScan.set(result);
+        }
+        return result;
     }
 
     /**
@@ -260,6 +421,9 @@ public final class FileText {
      * @return an array of all lines of the text
      */
     public String[] toLinesArray() {
+        for (int lineNo = 0; lineNo < lines.length; lineNo++) {
+            get(lineNo);
+        }
         return lines.clone();
     }
 
@@ -290,20 +454,47 @@ public final class FileText {
      */
     private int[] findLineBreaks() {
         if (lineBreaks == null) {
-            final int[] lineBreakPositions = new int[size() + 1];
-            lineBreakPositions[0] = 0;
-            int lineNo = 1;
-            final Matcher matcher = LINE_TERMINATOR.matcher(fullText);
-            while (matcher.find()) {
-                lineBreakPositions[lineNo] = matcher.end();
-                lineNo++;
+            lineBreaks = scanLineBreaks(fullText);
+        }
+        return lineBreaks;
+    }
+
+    /**
+     * Finds the positions of line breaks in a text, in a single scan.
+     * Lines are terminated by {@code \n}, {@code \r\n} or {@code \r},
+     * and a terminator at the end of the text does not start another line.
+     *
+     * @param text the text
+     * @return an array giving the first positions of each line, followed
+     *         by the length of the text
+     */
+    private static int[] scanLineBreaks(String text) {
+        int[] result = new int[INITIAL_LINE_BREAKS];
+        int count = 1;
+        final int length = text.length();
+        int pos = 0;
+        while (pos < length) {
+            final char chr = text.charAt(pos);
+            pos++;
+            if (chr == '\r' && pos < length && text.charAt(pos) == '\n') {
+                pos++;
+            }
+            if (chr == '\n' || chr == '\r') {
+                if (count == result.length) {
+                    result = Arrays.copyOf(result, count * 2);
+                }
+                result[count] = pos;
+                count++;
             }
-            if (lineNo < lineBreakPositions.length) {
-                lineBreakPositions[lineNo] = fullText.length();
+        }
+        if (result[count - 1] != length) {
+            if (count == result.length) {
+                result = Arrays.copyOf(result, count + 1);
             }
-            lineBreaks = lineBreakPositions;
+            result[count] = length;
+            count++;
         }
-        return lineBreaks;
+        return Arrays.copyOf(result, count);
     }
 
     /**
@@ -315,4 +506,30 @@ public final class FileText {
         return lines.length;
     }
 
+    /**
+     * The number of code points and the first tab character of every line.
+     * The fields are final, so the arrays are seen complete by every thread
+     * which sees the instance.
+     */
+    private static final class LineScan {
+
+        /** The number of code points of each line. */
+        private final int[] codePointCounts;
+
+        /** The index of the first tab character of each line, {@code -1} for none. */
+        private final int[] tabIndexes;
+
+        /**
+         * Creates a new {@code LineScan} instance.
+         *
+         * @param codePointCounts the number of code points of each line
+         * @param tabIndexes the index of the first tab character of each line
+         */
+        /* package */ LineScan(int[] codePointCounts, int[] tabIndexes) {
+            this.codePointCounts = codePointCounts;
+            this.tabIndexes = tabIndexes;
+        }
+
+    }
+
 }
@@ -57,6 +57,14 @@ public final class LocalizedMessage
     private static final Map<String, ResourceBundle> BUNDLE_CACHE =
         Collections.synchronizedMap(new HashMap<>());
 
+    /**
+     * A thread-local cache that maps message patterns to their parsed formats.
+     * Avoids parsing the same pattern for every message, formats are not
+     * shared between threads as they are not thread-safe.
+     */
+    private static final ThreadLocal<Map<String, MessageFormat>> FORMAT_CACHE =
+        ThreadLocal.withInitial(HashMap::new);
+
     /** The default severity level if one is not specified. */
     private static final SeverityLevel DEFAULT_SEVERITY = SeverityLevel.ERROR;
 
@@ -97,6 +105,9 @@ public final class LocalizedMessage
     /** A custom message overriding the default message from the bundle. */
     private final String customMessage;
 
+    /** The translated message, formatted when it is first requested. */
+    private transient String message;
+
     /**
      * Creates a new {@code LocalizedMessage} instance.
      *
@@ -349,6 +360,37 @@ public final class LocalizedMessage
         return key;
     }
 
+    /**
+     * Gets the name of the resource bundle to get the message from.
+     *
+     * @return the name of the resource bundle
+     */
+    public String getBundleName() {
+        return bundle;
+    }
+
+    /**
+     * Gets the arguments for the translation.
+     *
+     * @return a copy of the arguments, or null if there are none
+     */
+    public Object[] getArgs() {
+        Object[] result = null;
+        if (args != null) {
+            result = Arrays.copyOf(args, args.length);
+        }
+        return result;
+    }
+
+    /**
+     * Gets the pattern of the custom message overriding the default message from the bundle.
+     *
+     * @return the pattern of the custom message, or null if there is none
+     */
+    public String getCustomMessagePattern() {
+        return customMessage;
+    }
+
     /**
      * Gets the name of the source for this LocalizedMessage.
      *
@@ -452,9 +494,23 @@ public final class LocalizedMessage
      * @return the translated message
      */
     public String getMessage() {
-        String message = getCustomMessage();
+        String result = message;
+        if (result == null) {
+            result = formatMessage();
+            message = result;
+        }
+        return result;
+    }
+
+    /**
+     * Formats the translated message.
+     *
+     * @return the translated message
+     */
+    private String formatMessage() {
+        String result = getCustomMessage();
 
-        if (message == null) {
+        if (result == null) {
             try {
                 // Important to use the default class loader, and not the one in
                 // the GlobalProperties object. This is because the class loader in
@@ -462,18 +518,17 @@ public final class LocalizedMessage
                 // custom classes.
                 final ResourceBundle resourceBundle = getBundle(bundle);
                 final String pattern = resourceBundle.getString(key);
-                final MessageFormat formatter = new MessageFormat(pattern, Locale.ROOT);
-                message = formatter.format(args);
+                result = getFormat(pattern).format(args);
             }
             catch (final MissingResourceException ignored) {
                 // If the Check author didn't provide i18n resource bundles
                 // and logs audit event messages directly, this will return
                 // the author's original message
                 final MessageFormat formatter = new MessageFormat(key, Locale.ROOT);
-                message = formatter.format(args);
+                result = formatter.format(args);
             }
         }
-        return message;
+        return result;
     }
 
     /**
@@ -483,12 +538,23 @@ public final class LocalizedMessage
      *          if there is no custom message
      */
     private String getCustomMessage() {
-        String message = null;
+        String result = null;
         if (customMessage != null) {
-            final MessageFormat formatter = new MessageFormat(customMessage, Locale.ROOT);
-            message = formatter.format(args);
+            result = getFormat(customMessage).format(args);
         }
-        return message;
+        return result;
+    }
+
+    /**
+     * Returns the parsed format of a message pattern, parses it if the pattern
+     * was not used by the current thread yet.
+     *
+     * @param pattern the message pattern
+     * @return the parsed format
+     */
+    private static MessageFormat getFormat(String pattern) {
+        return FORMAT_CACHE.get().computeIfAbsent(pattern,
+            text -> new MessageFormat(text, Locale.ROOT));
     }
 
     /**
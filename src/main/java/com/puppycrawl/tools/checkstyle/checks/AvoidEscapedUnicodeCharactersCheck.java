@@ -429,7 +429,7 @@ public class AvoidEscapedUnicodeCharactersCheck
             final List<TextBlock> commentList = blockComments.get(lineNo);
             if (commentList != null) {
                 final TextBlock comment = commentList.get(commentList.size() - 1);
-                final String line = getLines()[lineNo - 1];
+                final String line = getLine(lineNo - 1);
                 result = isTrailingBlockComment(comment, line);
             }
         }
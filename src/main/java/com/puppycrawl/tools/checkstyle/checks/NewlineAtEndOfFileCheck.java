@@ -22,6 +22,7 @@ package com.puppycrawl.tools.checkstyle.checks;
 import java.io.File;
 import java.io.IOException;
 import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
 import java.util.Locale;
 
 import com.puppycrawl.tools.checkstyle.StatelessCheck;
@@ -191,11 +192,17 @@ public class NewlineAtEndOfFileCheck
 
     @Override
     protected void processFiltered(File file, FileText fileText) {
-        try {
-            readAndCheckFile(file);
+        if (fileText.getCharset() == null) {
+            // the text was reconstructed from lines, its terminators are not the original ones
+            try {
+                readAndCheckFile(file);
+            }
+            catch (final IOException ignored) {
+                log(1, MSG_KEY_UNABLE_OPEN, file.getPath());
+            }
         }
-        catch (final IOException ignored) {
-            log(1, MSG_KEY_UNABLE_OPEN, file.getPath());
+        else {
+            checkText(file, fileText.getFullText());
         }
     }
 
@@ -212,6 +219,22 @@ public class NewlineAtEndOfFileCheck
                 .toUpperCase(Locale.ENGLISH));
     }
 
+    /**
+     * Checks the line separator at the end of the text read from a file.
+     *
+     * @param file the file the text was read from
+     * @param text the full text of the file
+     */
+    private void checkText(File file, CharSequence text) {
+        if (lineSeparator == LineSeparatorOption.LF
+                && endsWithNewline(text, LineSeparatorOption.CRLF)) {
+            log(1, MSG_KEY_WRONG_ENDING, file.getPath());
+        }
+        else if (!endsWithNewline(text, lineSeparator)) {
+            log(1, MSG_KEY_NO_NEWLINE_EOF, file.getPath());
+        }
+    }
+
     /**
      * Reads the file provided and checks line separators.
      *
@@ -262,4 +285,17 @@ public class NewlineAtEndOfFileCheck
         return result;
     }
 
+    /**
+     * Checks whether a text ends with a line separator.
+     *
+     * @param text the text to check
+     * @param separator the line separator
+     * @return whether the text ends with the line separator
+     */
+    private static boolean endsWithNewline(CharSequence text, LineSeparatorOption separator) {
+        final int len = separator.length();
+        return text.length() >= len && separator.matches(text.subSequence(text.length() - len,
+                text.length()).toString().getBytes(StandardCharsets.US_ASCII));
+    }
+
 }
@@ -19,7 +19,9 @@
 
 package com.puppycrawl.tools.checkstyle.checks;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
@@ -27,6 +29,7 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 import com.puppycrawl.tools.checkstyle.StatelessCheck;
 import com.puppycrawl.tools.checkstyle.api.AbstractCheck;
@@ -137,7 +140,13 @@ public class SuppressWarningsHolder
      * file parsed.
      */
     private static final ThreadLocal<List<Entry>> ENTRIES =
-            ThreadLocal.withInitial(LinkedList::new);
+            ThreadLocal.withInitial(ArrayList::new);
+
+    /**
+     * A thread-local holder for the index of the suppression entries for the
+     * last file parsed, built when the first event of the file is checked.
+     */
+    private static final ThreadLocal<EntryIndex> ENTRY_INDEX = new ThreadLocal<>();
 
     /**
      * Compiled pattern used to match whitespace in text block content.
@@ -225,58 +234,37 @@ public class SuppressWarningsHolder
      *         source location
      */
     public static boolean isSuppressed(AuditEvent event) {
-        final List<Entry> entries = ENTRIES.get();
-        final String sourceName = event.getSourceName();
-        final String checkAlias = getAlias(sourceName);
+        final EntryIndex entryIndex = getEntryIndex();
         final int line = event.getLine();
         final int column = event.getColumn();
         boolean suppressed = false;
-        for (Entry entry : entries) {
-            final boolean afterStart = isSuppressedAfterEventStart(line, column, entry);
-            final boolean beforeEnd = isSuppressedBeforeEventEnd(line, column, entry);
-            final boolean nameMatches =
-                ALL_WARNING_MATCHING_ID.equals(entry.getCheckName())
-                    || entry.getCheckName().equalsIgnoreCase(checkAlias);
-            final boolean idMatches = event.getModuleId() != null
-                && event.getModuleId().equals(entry.getCheckName());
-            if (afterStart && beforeEnd && (nameMatches || idMatches)) {
+        for (Regions regions : entryIndex.getRegionsOfSource(event.getSourceName())) {
+            if (regions.contains(line, column)) {
                 suppressed = true;
                 break;
             }
         }
+        if (!suppressed && event.getModuleId() != null) {
+            final Regions regions = entryIndex.getRegionsOfName(event.getModuleId());
+            suppressed = regions != null && regions.contains(line, column);
+        }
         return suppressed;
     }
 
     /**
-     * Checks whether suppression entry position is after the audit event occurrence position
-     * in the source file.
-     *
-     * @param line the line number in the source file where the event occurred.
-     * @param column the column number in the source file where the event occurred.
-     * @param entry suppression entry.
-     * @return true if suppression entry position is after the audit event occurrence position
-     *         in the source file.
-     */
-    private static boolean isSuppressedAfterEventStart(int line, int column, Entry entry) {
-        return entry.getFirstLine() < line
-            || entry.getFirstLine() == line
-            && (column == 0 || entry.getFirstColumn() <= column);
-    }
-
-    /**
-     * Checks whether suppression entry position is before the audit event occurrence position
-     * in the source file.
+     * Returns the index of the suppression entries of the last file parsed,
+     * builds it if entries were added since it was built.
      *
-     * @param line the line number in the source file where the event occurred.
-     * @param column the column number in the source file where the event occurred.
-     * @param entry suppression entry.
-     * @return true if suppression entry position is before the audit event occurrence position
-     *         in the source file.
+     * @return the index of the suppression entries
      */
-    private static boolean isSuppressedBeforeEventEnd(int line, int column, Entry entry) {
-        return entry.getLastLine() > line
-            || entry.getLastLine() == line && entry
-                .getLastColumn() >= column;
+    private static EntryIndex getEntryIndex() {
+        final List<Entry> entries = ENTRIES.get();
+        EntryIndex result = ENTRY_INDEX.get();
+        if (result == null || result.entryCount != entries.size()) {
+            result = new EntryIndex(entries);
+            ENTRY_INDEX.set(result);
+        }
+        return result;
     }
 
     @Override
@@ -297,6 +285,7 @@ public class SuppressWarningsHolder
     @Override
     public void beginTree(DetailAST rootAST) {
         ENTRIES.get().clear();
+        ENTRY_INDEX.remove();
     }
 
     @Override
@@ -557,6 +546,7 @@ public class SuppressWarningsHolder
     public void destroy() {
         super.destroy();
         ENTRIES.remove();
+        ENTRY_INDEX.remove();
     }
 
     /** Records a particular suppression for a region of a file. */
@@ -638,4 +628,166 @@ public class SuppressWarningsHolder
 
     }
 
+    /**
+     * Index of the suppression entries of a file by the suppressed check name.
+     */
+    private static final class EntryIndex {
+
+        /** The number of entries indexed. */
+        private final int entryCount;
+
+        /** The suppression regions by the name of the suppressed check. */
+        private final Map<String, Regions> regionsByName = new HashMap<>();
+
+        /** The suppression regions matching the alias of a check, by its source name. */
+        private final Map<String, List<Regions>> regionsBySource = new HashMap<>();
+
+        /**
+         * Creates a new {@code EntryIndex} instance.
+         *
+         * @param entries the suppression entries of the file
+         */
+        /* package */ EntryIndex(List<Entry> entries) {
+            entryCount = entries.size();
+            entries.stream()
+                    .collect(Collectors.groupingBy(Entry::getCheckName))
+                    .forEach((checkName, checkEntries) -> {
+                        regionsByName.put(checkName, new Regions(checkEntries));
+                    });
+        }
+
+        /**
+         * Returns the suppression regions of the entries which name the alias
+         * of a check, or suppress all checks.
+         *
+         * @param sourceName the source name of the check
+         * @return the suppression regions of the check
+         */
+        private List<Regions> getRegionsOfSource(String sourceName) {
+            return regionsBySource.computeIfAbsent(sourceName,
+                    name -> getRegionsOfAlias(getAlias(name)));
+        }
+
+        /**
+         * Returns the suppression regions of the entries which name an alias,
+         * or suppress all checks.
+         *
+         * @param checkAlias the alias of a check
+         * @return the suppression regions of the alias
+         */
+        private List<Regions> getRegionsOfAlias(String checkAlias) {
+            final List<Regions> result = new ArrayList<>();
+            for (Map.Entry<String, Regions> checkRegions : regionsByName.entrySet()) {
+                final String checkName = checkRegions.getKey();
+                if (ALL_WARNING_MATCHING_ID.equals(checkName)
+                        || checkName.equalsIgnoreCase(checkAlias)) {
+                    result.add(checkRegions.getValue());
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Returns the suppression regions of the entries with a name.
+         *
+         * @param checkName the name of the suppressed check
+         * @return the suppression regions, or null if no entry has the name
+         */
+        private Regions getRegionsOfName(String checkName) {
+            return regionsByName.get(checkName);
+        }
+
+    }
+
+    /**
+     * Suppression regions of a check, sorted by their first position, with
+     * the greatest last position among each region and the preceding ones.
+     * A position is encoded as its line in the high and its column in the
+     * low half of a {@code long}, so positions compare as numbers.
+     */
+    private static final class Regions {
+
+        /** The first positions of the regions, in ascending order. */
+        private final long[] firstPositions;
+
+        /** The greatest last position of the regions up to each index. */
+        private final long[] maxLastPositions;
+
+        /**
+         * Creates a new {@code Regions} instance.
+         *
+         * @param entries the suppression entries of the check
+         */
+        /* package */ Regions(List<Entry> entries) {
+            final List<Entry> sortedEntries = new ArrayList<>(entries);
+            sortedEntries.sort(Comparator.comparingLong(entry -> {
+                return getPosition(entry.getFirstLine(), entry.getFirstColumn());
+            }));
+            firstPositions = new long[sortedEntries.size()];
+            maxLastPositions = new long[sortedEntries.size()];
+            long maxLastPosition = Long.MIN_VALUE;
+            for (int index = 0; index < sortedEntries.size(); index++) {
+                final Entry entry = sortedEntries.get(index);
+                firstPositions[index] = getPosition(entry.getFirstLine(), entry.getFirstColumn());
+                maxLastPosition = Math.max(maxLastPosition,
+                        getPosition(entry.getLastLine(), entry.getLastColumn()));
+                maxLastPositions[index] = maxLastPosition;
+            }
+        }
+
+        /**
+         * Checks whether a region contains the position of an event. An event
+         * without a column is contained by regions starting on its line.
+         *
+         * @param line the line number in the source file where the event occurred.
+         * @param column the column number in the source file where the event occurred.
+         * @return true if a region contains the position
+         */
+        private boolean contains(int line, int column) {
+            final long position = getPosition(line, column);
+            final long lastFirstPosition;
+            if (column == 0) {
+                lastFirstPosition = getPosition(line, Integer.MAX_VALUE);
+            }
+            else {
+                lastFirstPosition = position;
+            }
+            final int count = countFirstPositionsUpTo(lastFirstPosition);
+            return count > 0 && maxLastPositions[count - 1] >= position;
+        }
+
+        /**
+         * Counts the regions starting at or before a position.
+         *
+         * @param position the position
+         * @return the number of regions starting at or before the position
+         */
+        private int countFirstPositionsUpTo(long position) {
+            int low = 0;
+            int high = firstPositions.length;
+            while (low < high) {
+                final int middle = (low + high) >>> 1;
+                if (firstPositions[middle] <= position) {
+                    low = middle + 1;
+                }
+                else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+
+        /**
+         * Encodes a position in a source file.
+         *
+         * @param line the line number
+         * @param column the column number, may be negative
+         * @return the encoded position
+         */
+        private static long getPosition(int line, int column) {
+            return ((long) line << Integer.SIZE) + column;
+        }
+
+    }
+
 }
@@ -25,6 +25,7 @@ import com.puppycrawl.tools.checkstyle.api.DetailAST;
 import com.puppycrawl.tools.checkstyle.api.FullIdent;
 import com.puppycrawl.tools.checkstyle.api.TokenTypes;
 import com.puppycrawl.tools.checkstyle.utils.CommonUtil;
+import com.puppycrawl.tools.checkstyle.utils.TokenUtil;
 
 /**
  * <p>
@@ -132,6 +133,11 @@ public class AvoidStaticImportCheck
         return new int[] {TokenTypes.STATIC_IMPORT};
     }
 
+    @Override
+    public int[] getSkippedSubtreeTokens() {
+        return TokenUtil.getTypeDeclarationTokenIds();
+    }
+
     /**
      * Setter to control whether to allow for certain classes via a star notation
      * to be excluded such as {@code java.lang.Math.*} or specific static members
@@ -31,6 +31,7 @@ import com.puppycrawl.tools.checkstyle.api.DetailAST;
 import com.puppycrawl.tools.checkstyle.api.FullIdent;
 import com.puppycrawl.tools.checkstyle.api.TokenTypes;
 import com.puppycrawl.tools.checkstyle.utils.CommonUtil;
+import com.puppycrawl.tools.checkstyle.utils.TokenUtil;
 
 /**
  * <p>
@@ -835,6 +836,11 @@ public class CustomImportOrderCheck extends AbstractCheck {
         };
     }
 
+    @Override
+    public int[] getSkippedSubtreeTokens() {
+        return TokenUtil.getTypeDeclarationTokenIds();
+    }
+
     @Override
     public void beginTree(DetailAST rootAST) {
         importToGroupList.clear();
@@ -31,6 +31,7 @@ import com.puppycrawl.tools.checkstyle.api.DetailAST;
 import com.puppycrawl.tools.checkstyle.api.ExternalResourceHolder;
 import com.puppycrawl.tools.checkstyle.api.FullIdent;
 import com.puppycrawl.tools.checkstyle.api.TokenTypes;
+import com.puppycrawl.tools.checkstyle.utils.TokenUtil;
 
 /**
  * <p>
@@ -516,6 +517,11 @@ public class ImportControlCheck extends AbstractCheck implements ExternalResourc
         return new int[] {TokenTypes.PACKAGE_DEF, TokenTypes.IMPORT, TokenTypes.STATIC_IMPORT, };
     }
 
+    @Override
+    public int[] getSkippedSubtreeTokens() {
+        return TokenUtil.getTypeDeclarationTokenIds();
+    }
+
     @Override
     public void beginTree(DetailAST rootAST) {
         currentImportControl = null;
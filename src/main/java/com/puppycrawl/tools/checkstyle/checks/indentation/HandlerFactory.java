@@ -19,27 +19,31 @@
 
 package com.puppycrawl.tools.checkstyle.checks.indentation;
 
-import java.lang.reflect.Constructor;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Set;
+import java.util.stream.IntStream;
 
 import com.puppycrawl.tools.checkstyle.api.DetailAST;
 import com.puppycrawl.tools.checkstyle.api.TokenTypes;
-import com.puppycrawl.tools.checkstyle.utils.CommonUtil;
 
 /**
- * Factory for handlers. Looks up constructor via reflection.
+ * Factory for handlers. Creates handlers by the constructors registered
+ * for the token types.
  *
  */
 public class HandlerFactory {
 
     /**
-     * Registered handlers.
+     * Registered handler constructors, indexed by token type.
      */
-    private final Map<Integer, Constructor<?>> typeHandlers = new HashMap<>();
+    private HandlerConstructor[] typeHandlers = new HandlerConstructor[0];
 
-    /** Cache for created method call handlers. */
+    /**
+     * Cache for method call handlers created ahead of their nodes being visited.
+     * A handler is removed when its node is visited, so the cache only holds
+     * handlers of the nodes within the method calls being visited.
+     */
     private final Map<DetailAST, AbstractExpressionHandler> createdHandlers = new HashMap<>();
 
     /**
@@ -48,44 +52,44 @@ public class HandlerFactory {
      * @noinspection OverlyCoupledMethod
      */
     public HandlerFactory() {
-        register(TokenTypes.CASE_GROUP, CaseHandler.class);
-        register(TokenTypes.LITERAL_SWITCH, SwitchHandler.class);
-        register(TokenTypes.SLIST, SlistHandler.class);
-        register(TokenTypes.PACKAGE_DEF, PackageDefHandler.class);
-        register(TokenTypes.LITERAL_ELSE, ElseHandler.class);
-        register(TokenTypes.LITERAL_IF, IfHandler.class);
-        register(TokenTypes.LITERAL_TRY, TryHandler.class);
-        register(TokenTypes.LITERAL_CATCH, CatchHandler.class);
-        register(TokenTypes.LITERAL_FINALLY, FinallyHandler.class);
-        register(TokenTypes.LITERAL_DO, DoWhileHandler.class);
-        register(TokenTypes.LITERAL_WHILE, WhileHandler.class);
-        register(TokenTypes.LITERAL_FOR, ForHandler.class);
-        register(TokenTypes.METHOD_DEF, MethodDefHandler.class);
-        register(TokenTypes.CTOR_DEF, MethodDefHandler.class);
-        register(TokenTypes.CLASS_DEF, ClassDefHandler.class);
-        register(TokenTypes.ENUM_DEF, ClassDefHandler.class);
-        register(TokenTypes.OBJBLOCK, ObjectBlockHandler.class);
-        register(TokenTypes.INTERFACE_DEF, ClassDefHandler.class);
-        register(TokenTypes.IMPORT, ImportHandler.class);
-        register(TokenTypes.ARRAY_INIT, ArrayInitHandler.class);
-        register(TokenTypes.ANNOTATION_ARRAY_INIT, AnnotationArrayInitHandler.class);
-        register(TokenTypes.METHOD_CALL, MethodCallHandler.class);
-        register(TokenTypes.CTOR_CALL, MethodCallHandler.class);
-        register(TokenTypes.SUPER_CTOR_CALL, MethodCallHandler.class);
-        register(TokenTypes.LABELED_STAT, LabelHandler.class);
-        register(TokenTypes.STATIC_INIT, StaticInitHandler.class);
-        register(TokenTypes.INSTANCE_INIT, SlistHandler.class);
-        register(TokenTypes.VARIABLE_DEF, MemberDefHandler.class);
-        register(TokenTypes.LITERAL_NEW, NewHandler.class);
-        register(TokenTypes.INDEX_OP, IndexHandler.class);
-        register(TokenTypes.LITERAL_SYNCHRONIZED, SynchronizedHandler.class);
-        register(TokenTypes.LAMBDA, LambdaHandler.class);
-        register(TokenTypes.ANNOTATION_DEF, ClassDefHandler.class);
-        register(TokenTypes.ANNOTATION_FIELD_DEF, MethodDefHandler.class);
-        register(TokenTypes.SWITCH_RULE, SwitchRuleHandler.class);
-        register(TokenTypes.LITERAL_YIELD, YieldHandler.class);
-        register(TokenTypes.RECORD_DEF, MethodDefHandler.class);
-        register(TokenTypes.COMPACT_CTOR_DEF, MethodDefHandler.class);
+        register(TokenTypes.CASE_GROUP, CaseHandler::new);
+        register(TokenTypes.LITERAL_SWITCH, SwitchHandler::new);
+        register(TokenTypes.SLIST, SlistHandler::new);
+        register(TokenTypes.PACKAGE_DEF, PackageDefHandler::new);
+        register(TokenTypes.LITERAL_ELSE, ElseHandler::new);
+        register(TokenTypes.LITERAL_IF, IfHandler::new);
+        register(TokenTypes.LITERAL_TRY, TryHandler::new);
+        register(TokenTypes.LITERAL_CATCH, CatchHandler::new);
+        register(TokenTypes.LITERAL_FINALLY, FinallyHandler::new);
+        register(TokenTypes.LITERAL_DO, DoWhileHandler::new);
+        register(TokenTypes.LITERAL_WHILE, WhileHandler::new);
+        register(TokenTypes.LITERAL_FOR, ForHandler::new);
+        register(TokenTypes.METHOD_DEF, MethodDefHandler::new);
+        register(TokenTypes.CTOR_DEF, MethodDefHandler::new);
+        register(TokenTypes.CLASS_DEF, ClassDefHandler::new);
+        register(TokenTypes.ENUM_DEF, ClassDefHandler::new);
+        register(TokenTypes.OBJBLOCK, ObjectBlockHandler::new);
+        register(TokenTypes.INTERFACE_DEF, ClassDefHandler::new);
+        register(TokenTypes.IMPORT, ImportHandler::new);
+        register(TokenTypes.ARRAY_INIT, ArrayInitHandler::new);
+        register(TokenTypes.ANNOTATION_ARRAY_INIT, AnnotationArrayInitHandler::new);
+        register(TokenTypes.METHOD_CALL, MethodCallHandler::new);
+        register(TokenTypes.CTOR_CALL, MethodCallHandler::new);
+        register(TokenTypes.SUPER_CTOR_CALL, MethodCallHandler::new);
+        register(TokenTypes.LABELED_STAT, LabelHandler::new);
+        register(TokenTypes.STATIC_INIT, StaticInitHandler::new);
+        register(TokenTypes.INSTANCE_INIT, SlistHandler::new);
+        register(TokenTypes.VARIABLE_DEF, MemberDefHandler::new);
+        register(TokenTypes.LITERAL_NEW, NewHandler::new);
+        register(TokenTypes.INDEX_OP, IndexHandler::new);
+        register(TokenTypes.LITERAL_SYNCHRONIZED, SynchronizedHandler::new);
+        register(TokenTypes.LAMBDA, LambdaHandler::new);
+        register(TokenTypes.ANNOTATION_DEF, ClassDefHandler::new);
+        register(TokenTypes.ANNOTATION_FIELD_DEF, MethodDefHandler::new);
+        register(TokenTypes.SWITCH_RULE, SwitchRuleHandler::new);
+        register(TokenTypes.LITERAL_YIELD, YieldHandler::new);
+        register(TokenTypes.RECORD_DEF, MethodDefHandler::new);
+        register(TokenTypes.COMPACT_CTOR_DEF, MethodDefHandler::new);
     }
 
     /**
@@ -93,19 +97,14 @@ public class HandlerFactory {
      *
      * @param type
      *                type from TokenTypes
-     * @param handlerClass
-     *                the handler to register
-     * @param <T> type of the handler class object.
+     * @param handlerConstructor
+     *                the constructor of the handler to register
      */
-    private <T> void register(int type, Class<T> handlerClass) {
-        final Constructor<T> ctor = CommonUtil.getConstructor(handlerClass,
-                IndentationCheck.class,
-                // current AST
-                DetailAST.class,
-                // parent
-                AbstractExpressionHandler.class
-        );
-        typeHandlers.put(type, ctor);
+    private void register(int type, HandlerConstructor handlerConstructor) {
+        if (type >= typeHandlers.length) {
+            typeHandlers = Arrays.copyOf(typeHandlers, type + 1);
+        }
+        typeHandlers[type] = handlerConstructor;
     }
 
     /**
@@ -115,8 +114,7 @@ public class HandlerFactory {
      * @return true if handler is registered, false otherwise
      */
     public boolean isHandledType(int type) {
-        final Set<Integer> typeSet = typeHandlers.keySet();
-        return typeSet.contains(type);
+        return type >= 0 && type < typeHandlers.length && typeHandlers[type] != null;
     }
 
     /**
@@ -125,15 +123,9 @@ public class HandlerFactory {
      * @return int[] of TokenType types
      */
     public int[] getHandledTypes() {
-        final Set<Integer> typeSet = typeHandlers.keySet();
-        final int[] types = new int[typeSet.size()];
-        int index = 0;
-        for (final Integer val : typeSet) {
-            types[index] = val;
-            index++;
-        }
-
-        return types;
+        return IntStream.range(0, typeHandlers.length)
+            .filter(type -> typeHandlers[type] != null)
+            .toArray();
     }
 
     /**
@@ -149,7 +141,7 @@ public class HandlerFactory {
         DetailAST ast, AbstractExpressionHandler parent) {
         final AbstractExpressionHandler resultHandler;
         final AbstractExpressionHandler handler =
-            createdHandlers.get(ast);
+            createdHandlers.remove(ast);
         if (handler != null) {
             resultHandler = handler;
         }
@@ -157,9 +149,7 @@ public class HandlerFactory {
             resultHandler = createMethodCallHandler(indentCheck, ast, parent);
         }
         else {
-            final Constructor<?> handlerCtor = typeHandlers.get(ast.getType());
-            resultHandler = (AbstractExpressionHandler) CommonUtil.invokeConstructor(
-                handlerCtor, indentCheck, ast, parent);
+            resultHandler = typeHandlers[ast.getType()].create(indentCheck, ast, parent);
         }
         return resultHandler;
     }
@@ -192,4 +182,23 @@ public class HandlerFactory {
         createdHandlers.clear();
     }
 
+    /**
+     * Constructor of a handler.
+     */
+    @FunctionalInterface
+    private interface HandlerConstructor {
+
+        /**
+         * Creates a handler.
+         *
+         * @param indentCheck   the indentation check
+         * @param ast           ast to handle
+         * @param parent        the handler parent of this AST
+         * @return the new handler
+         */
+        AbstractExpressionHandler create(IndentationCheck indentCheck,
+            DetailAST ast, AbstractExpressionHandler parent);
+
+    }
+
 }
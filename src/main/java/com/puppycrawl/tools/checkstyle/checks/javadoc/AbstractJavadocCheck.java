@@ -19,7 +19,9 @@
 
 package com.puppycrawl.tools.checkstyle.checks.javadoc;
 
+import java.util.ArrayDeque;
 import java.util.Arrays;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Locale;
@@ -314,7 +316,7 @@ public abstract class AbstractJavadocCheck extends AbstractCheck {
 
             if (result.getParseErrorMessage() == null) {
                 if (acceptJavadocWithNonTightHtml() || !result.isNonTight()) {
-                    processTree(result.getTree());
+                    processTree(result);
                 }
 
                 if (violateExecutionOnNonTightHtml && result.isNonTight()) {
@@ -342,57 +344,42 @@ public abstract class AbstractJavadocCheck extends AbstractCheck {
     }
 
     /**
-     * Processes JavadocAST tree notifying Check.
+     * Processes JavadocAST tree notifying Check. The nodes the check is interested in
+     * are found in the index of the tree by type, so the tree is not walked.
      *
-     * @param root
-     *        root of JavadocAST tree.
+     * @param parseStatus
+     *        the result of parsing the tree.
      */
-    private void processTree(DetailNode root) {
+    private void processTree(ParseStatus parseStatus) {
+        final DetailNode root = parseStatus.getTree();
         beginJavadocTree(root);
-        walk(root);
-        finishJavadocTree(root);
-    }
-
-    /**
-     * Processes a node calling Check at interested nodes.
-     *
-     * @param root
-     *        the root of tree for process
-     */
-    private void walk(DetailNode root) {
-        DetailNode curNode = root;
-        while (curNode != null) {
-            boolean waitsForProcessing = shouldBeProcessed(curNode);
-
-            if (waitsForProcessing) {
-                visitJavadocToken(curNode);
+        final Deque<DetailNode> visitedNodes = new ArrayDeque<>();
+        for (DetailNode node : parseStatus.getNodes(javadocTokens)) {
+            while (!visitedNodes.isEmpty() && !isAncestor(visitedNodes.peek(), node)) {
+                leaveJavadocToken(visitedNodes.pop());
             }
-            DetailNode toVisit = JavadocUtil.getFirstChild(curNode);
-            while (curNode != null && toVisit == null) {
-                if (waitsForProcessing) {
-                    leaveJavadocToken(curNode);
-                }
-
-                toVisit = JavadocUtil.getNextSibling(curNode);
-                if (toVisit == null) {
-                    curNode = curNode.getParent();
-                    if (curNode != null) {
-                        waitsForProcessing = shouldBeProcessed(curNode);
-                    }
-                }
-            }
-            curNode = toVisit;
+            visitJavadocToken(node);
+            visitedNodes.push(node);
         }
+        while (!visitedNodes.isEmpty()) {
+            leaveJavadocToken(visitedNodes.pop());
+        }
+        finishJavadocTree(root);
     }
 
     /**
-     * Checks whether the current node should be processed by the check.
+     * Checks whether a node is an ancestor of another node.
      *
-     * @param curNode current node.
-     * @return true if the current node should be processed by the check.
+     * @param ancestor the possible ancestor.
+     * @param node the node.
+     * @return true if the first node is an ancestor of the second one.
      */
-    private boolean shouldBeProcessed(DetailNode curNode) {
-        return javadocTokens.contains(curNode.getType());
+    private static boolean isAncestor(DetailNode ancestor, DetailNode node) {
+        DetailNode parent = node.getParent();
+        while (parent != null && parent != ancestor) {
+            parent = parent.getParent();
+        }
+        return parent != null;
     }
 
     @Override
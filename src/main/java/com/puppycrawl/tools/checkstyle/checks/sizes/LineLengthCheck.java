@@ -25,7 +25,6 @@ import java.util.regex.Pattern;
 import com.puppycrawl.tools.checkstyle.StatelessCheck;
 import com.puppycrawl.tools.checkstyle.api.AbstractFileSetCheck;
 import com.puppycrawl.tools.checkstyle.api.FileText;
-import com.puppycrawl.tools.checkstyle.utils.CommonUtil;
 
 /**
  * <p>
@@ -142,13 +141,14 @@ public class LineLengthCheck extends AbstractFileSetCheck {
     @Override
     protected void processFiltered(File file, FileText fileText) {
         for (int i = 0; i < fileText.size(); i++) {
-            final String line = fileText.get(i);
-            final int realLength = CommonUtil.lengthExpandedTabs(
-                line, line.codePointCount(0, line.length()), getTabWidth());
+            final int realLength = fileText.lengthExpandedTabs(i, getTabWidth());
 
-            if (realLength > max && !IGNORE_PATTERN.matcher(line).find()
-                && !ignorePattern.matcher(line).find()) {
-                log(i + 1, MSG_KEY, max, realLength);
+            if (realLength > max) {
+                final String line = fileText.get(i);
+                if (!IGNORE_PATTERN.matcher(line).find()
+                    && !ignorePattern.matcher(line).find()) {
+                    log(i + 1, MSG_KEY, max, realLength);
+                }
             }
         }
     }
@@ -85,7 +85,7 @@ public abstract class AbstractParenPadCheck
      * @param ast the token representing a left parentheses
      */
     protected void processLeft(DetailAST ast) {
-        final String line = getLines()[ast.getLineNo() - 1];
+        final String line = getLine(ast.getLineNo() - 1);
         final int after = ast.getColumnNo() + 1;
         if (after < line.length()) {
             if (option == PadOption.NOSPACE
@@ -108,7 +108,7 @@ public abstract class AbstractParenPadCheck
     protected void processRight(DetailAST ast) {
         final int before = ast.getColumnNo() - 1;
         if (before >= 0) {
-            final String line = getLines()[ast.getLineNo() - 1];
+            final String line = getLine(ast.getLineNo() - 1);
             if (option == PadOption.NOSPACE
                 && Character.isWhitespace(line.charAt(before))
                 && !CommonUtil.hasWhitespaceBefore(before, line)) {
@@ -128,7 +128,7 @@ public class EmptyForInitializerPadCheck
             // empty for initializer. test pad before semi.
             final DetailAST semi = ast.getNextSibling();
             final int semiLineIdx = semi.getLineNo() - 1;
-            final String line = getLines()[semiLineIdx];
+            final String line = getLine(semiLineIdx);
             final int before = semi.getColumnNo() - 1;
             // don't check if semi at beginning of line
             if (!CommonUtil.hasWhitespaceBefore(before, line)) {
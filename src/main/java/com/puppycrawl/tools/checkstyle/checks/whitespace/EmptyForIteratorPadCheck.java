@@ -127,7 +127,7 @@ public class EmptyForIteratorPadCheck
         if (!ast.hasChildren()) {
             // empty for iterator. test pad after semi.
             final DetailAST semi = ast.getPreviousSibling();
-            final String line = getLines()[semi.getLineNo() - 1];
+            final String line = getLine(semi.getLineNo() - 1);
             final int after = semi.getColumnNo() + 1;
             // don't check if at end of line
             if (after < line.length()) {
@@ -174,9 +174,8 @@ public class FileTabCharacterCheck extends AbstractFileSetCheck {
     protected void processFiltered(File file, FileText fileText) {
         int lineNum = 0;
         for (int index = 0; index < fileText.size(); index++) {
-            final String line = fileText.get(index);
             lineNum++;
-            final int tabPosition = line.indexOf('\t');
+            final int tabPosition = fileText.indexOfTab(index);
             if (tabPosition != -1) {
                 if (eachLine) {
                     log(lineNum, tabPosition, MSG_CONTAINS_TAB);
@@ -210,7 +210,7 @@ public class MethodParamPadCheck
         }
 
         if (parenAST != null) {
-            final String line = getLines()[parenAST.getLineNo() - 1];
+            final String line = getLine(parenAST.getLineNo() - 1);
             if (CommonUtil.hasWhitespaceBefore(parenAST.getColumnNo(), line)) {
                 if (!allowLineBreaks) {
                     log(parenAST, MSG_LINE_PREVIOUS, parenAST.getText());
@@ -179,6 +179,35 @@ public class SuppressFilterElement
         }
     }
 
+    /**
+     * Returns the regular expression for names of filtered files.
+     *
+     * @return the pattern for file names, or null if it is not set
+     */
+    /* package */ String getFilePattern() {
+        return filePattern;
+    }
+
+    /**
+     * Is matching by file name.
+     *
+     * @param fileName the name of the file
+     * @return true if the file name is matching or not set
+     */
+    /* package */ boolean isFileNameMatching(String fileName) {
+        return fileRegexp == null || fileRegexp.matcher(fileName).find();
+    }
+
+    /**
+     * Is matching by Check name.
+     *
+     * @param sourceName the name of the Check
+     * @return true if the Check name is matching or not set
+     */
+    /* package */ boolean isCheckNameMatching(String sourceName) {
+        return checkRegexp == null || checkRegexp.matcher(sourceName).find();
+    }
+
     @Override
     public boolean accept(AuditEvent event) {
         return !isFileNameAndModuleNameMatching(event)
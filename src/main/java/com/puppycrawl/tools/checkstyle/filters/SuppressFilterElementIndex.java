@@ -0,0 +1,319 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2021 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle.filters;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+import com.puppycrawl.tools.checkstyle.api.AuditEvent;
+import com.puppycrawl.tools.checkstyle.api.Filter;
+import com.puppycrawl.tools.checkstyle.api.FilterSet;
+
+/**
+ * Filter which accepts the same events as a set of filters, but evaluates
+ * only the {@link SuppressFilterElement}s which may reject an event.
+ *
+ * <p>Every element is indexed by a trigram of a literal which its file name
+ * pattern requires, so the elements matching a file are found by looking up
+ * the trigrams of the file name. The elements matching the file are computed
+ * once per file, the elements matching a Check once per file and Check.
+ * Only the elements of the file audited last are kept, in a field of the index,
+ * so no state outlives the index in the threads which audited the files.
+ */
+final class SuppressFilterElementIndex implements Filter {
+
+    /** Length of the keys of the index. */
+    private static final int TRIGRAM_LENGTH = 3;
+
+    /** Characters which have a special meaning in regular expressions. */
+    private static final String METACHARACTERS = "\\[](){}.*+?^$|";
+
+    /** Filters which are not suppress filter elements, evaluated for every event. */
+    private final List<Filter> otherFilters = new ArrayList<>();
+
+    /** Elements without a literal to index, evaluated for every file. */
+    private final List<SuppressFilterElement> unindexedElements = new ArrayList<>();
+
+    /** Elements by a trigram of the literal required by their file name pattern. */
+    private final Map<String, List<SuppressFilterElement>> indexedElements = new HashMap<>();
+
+    /** Elements matching the file audited last, replaced when another file is audited. */
+    private final AtomicReference<FileElements> fileElements = new AtomicReference<>();
+
+    /**
+     * Creates a new {@code SuppressFilterElementIndex} instance.
+     *
+     * @param filterSet the filters to index
+     */
+    /* package */ SuppressFilterElementIndex(FilterSet filterSet) {
+        final Map<SuppressFilterElement, String> literals = new HashMap<>();
+        final Map<String, Integer> trigramCounts = new HashMap<>();
+        for (Filter filter : filterSet.getFilters()) {
+            if (filter instanceof SuppressFilterElement) {
+                final SuppressFilterElement element = (SuppressFilterElement) filter;
+                final String literal = getRequiredLiteral(element.getFilePattern());
+                if (literal.length() < TRIGRAM_LENGTH) {
+                    unindexedElements.add(element);
+                }
+                else {
+                    literals.put(element, literal);
+                    getTrigrams(literal).forEach(trigram -> {
+                        trigramCounts.merge(trigram, 1, Integer::sum);
+                    });
+                }
+            }
+            else {
+                otherFilters.add(filter);
+            }
+        }
+        literals.forEach((element, literal) -> {
+            final String rarestTrigram = getTrigrams(literal).stream()
+                    .min(Comparator.comparing(trigramCounts::get))
+                    .orElseThrow(IllegalStateException::new);
+            indexedElements.computeIfAbsent(rarestTrigram, key -> new ArrayList<>())
+                    .add(element);
+        });
+    }
+
+    @Override
+    public boolean accept(AuditEvent event) {
+        boolean result = otherFilters.stream().allMatch(filter -> filter.accept(event));
+        if (result && event.getFileName() != null && event.getLocalizedMessage() != null) {
+            for (SuppressFilterElement element
+                    : getFileElements(event.getFileName()).getElements(event.getSourceName())) {
+                if (!element.accept(event)) {
+                    result = false;
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the elements matching a file, computes them if the file was not
+     * the last one audited. Threads auditing different files at the same time
+     * replace the elements of each other, which costs a new computation only.
+     *
+     * @param fileName the name of the file
+     * @return the elements matching the file
+     */
+    private FileElements getFileElements(String fileName) {
+        FileElements result = fileElements.get();
+        if (result == null || !result.fileName.equals(fileName)) {
+            final List<SuppressFilterElement> candidates = new ArrayList<>(unindexedElements);
+            for (String trigram : getTrigrams(fileName)) {
+                final List<SuppressFilterElement> elements = indexedElements.get(trigram);
+                if (elements != null) {
+                    candidates.addAll(elements);
+                }
+            }
+            result = new FileElements(fileName, candidates.stream()
+                    .filter(element -> element.isFileNameMatching(fileName))
+                    .collect(Collectors.toList()));
+            fileElements.set(result);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the distinct trigrams of a string.
+     *
+     * @param value the string
+     * @return the trigrams of the string
+     */
+    private static Set<String> getTrigrams(String value) {
+        final Set<String> result = new HashSet<>();
+        for (int index = 0; index + TRIGRAM_LENGTH <= value.length(); index++) {
+            result.add(value.substring(index, index + TRIGRAM_LENGTH));
+        }
+        return result;
+    }
+
+    /**
+     * Returns the longest literal which every string matching a regular expression
+     * contains. Patterns with groups, alternatives or escape sequences with
+     * arguments are not analysed.
+     *
+     * @param pattern the regular expression, may be null
+     * @return the longest required literal, or an empty string if none is found
+     */
+    /* package */ static String getRequiredLiteral(String pattern) {
+        String result = "";
+        if (pattern != null && isAnalysable(pattern)) {
+            final StringBuilder literal = new StringBuilder(pattern.length());
+            int index = 0;
+            while (index < pattern.length()) {
+                final char chr = pattern.charAt(index);
+                int next = index + 1;
+                if (chr == '\\' && METACHARACTERS.indexOf(pattern.charAt(next)) >= 0
+                        || METACHARACTERS.indexOf(chr) < 0) {
+                    if (chr == '\\') {
+                        next++;
+                    }
+                    literal.append(pattern.charAt(next - 1));
+                    if (next < pattern.length() && "?*{".indexOf(pattern.charAt(next)) >= 0) {
+                        // the character is optional
+                        literal.setLength(literal.length() - 1);
+                    }
+                }
+                else {
+                    result = getLonger(result, literal);
+                    literal.setLength(0);
+                    next = getEndOfMetacharacters(pattern, index);
+                }
+                index = next;
+            }
+            result = getLonger(result, literal);
+        }
+        return result;
+    }
+
+    /**
+     * Checks whether a regular expression has neither groups nor alternatives,
+     * and its escape sequences are either escaped metacharacters or predefined
+     * character classes and boundaries, which have no arguments.
+     *
+     * @param pattern the regular expression
+     * @return true if the required literals of the expression can be found
+     */
+    private static boolean isAnalysable(String pattern) {
+        boolean result = pattern.indexOf('(') < 0 && pattern.indexOf('|') < 0;
+        int index = pattern.indexOf('\\');
+        while (result && index >= 0) {
+            final int escaped = index + 1;
+            result = escaped < pattern.length()
+                    && (METACHARACTERS.indexOf(pattern.charAt(escaped)) >= 0
+                        || "dDsSwWbBhHvVRAGZz".indexOf(pattern.charAt(escaped)) >= 0);
+            index = pattern.indexOf('\\', escaped + 1);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the index following a sequence of a regular expression which does
+     * not stand for a literal character, like a character class or a quantifier.
+     *
+     * @param pattern the regular expression
+     * @param start the index of the sequence
+     * @return the index following the sequence
+     */
+    private static int getEndOfMetacharacters(String pattern, int start) {
+        int index = start;
+        final char chr = pattern.charAt(index);
+        if (chr == '[') {
+            int depth = 0;
+            do {
+                if (pattern.charAt(index) == '\\') {
+                    index++;
+                }
+                else if (pattern.charAt(index) == '[') {
+                    depth++;
+                }
+                else if (pattern.charAt(index) == ']') {
+                    depth--;
+                }
+                index++;
+            } while (depth > 0 && index < pattern.length());
+        }
+        else if (chr == '{') {
+            index = pattern.indexOf('}', index) + 1;
+            if (index == 0) {
+                index = pattern.length();
+            }
+        }
+        else if (chr == '\\') {
+            index += 2;
+        }
+        else {
+            index++;
+        }
+        return index;
+    }
+
+    /**
+     * Returns the longer of two strings, the first one if they are equally long.
+     *
+     * @param first the first string
+     * @param second the second string
+     * @return the longer string
+     */
+    private static String getLonger(String first, CharSequence second) {
+        final String result;
+        if (second.length() > first.length()) {
+            result = second.toString();
+        }
+        else {
+            result = first;
+        }
+        return result;
+    }
+
+    /**
+     * Elements matching a file.
+     */
+    private static final class FileElements {
+
+        /** The name of the file. */
+        private final String fileName;
+
+        /** The elements matching the file. */
+        private final List<SuppressFilterElement> elements;
+
+        /** The elements matching the file and a Check, by the name of the Check. */
+        private final Map<String, List<SuppressFilterElement>> checkElements =
+                new ConcurrentHashMap<>();
+
+        /**
+         * Creates a new {@code FileElements} instance.
+         *
+         * @param fileName the name of the file
+         * @param elements the elements matching the file
+         */
+        /* package */ FileElements(String fileName, List<SuppressFilterElement> elements) {
+            this.fileName = fileName;
+            this.elements = elements;
+        }
+
+        /**
+         * Returns the elements matching the file and a Check.
+         *
+         * @param sourceName the name of the Check
+         * @return the elements matching the file and the Check
+         */
+        private List<SuppressFilterElement> getElements(String sourceName) {
+            return checkElements.computeIfAbsent(sourceName, name -> {
+                return elements.stream()
+                        .filter(element -> element.isCheckNameMatching(name))
+                        .collect(Collectors.toList());
+            });
+        }
+
+    }
+
+}
@@ -23,6 +23,7 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
@@ -339,6 +340,9 @@ public class SuppressWithPlainTextCommentFilter extends AutomaticBean implements
     /** Specify check ID pattern to suppress. */
     private String idFormat;
 
+    /** Suppressions of the file audited last by the current thread. */
+    private final ThreadLocal<FileSuppressions> fileSuppressions = new ThreadLocal<>();
+
     /**
      * Setter to specify comment pattern to trigger filter to begin suppression.
      *
@@ -388,11 +392,10 @@ public class SuppressWithPlainTextCommentFilter extends AutomaticBean implements
     public boolean accept(AuditEvent event) {
         boolean accepted = true;
         if (event.getLocalizedMessage() != null) {
-            final FileText fileText = getFileText(event.getFileName());
-            if (fileText != null) {
-                final List<Suppression> suppressions = getSuppressions(fileText);
-                accepted = getNearestSuppression(suppressions, event) == null;
-            }
+            final Suppression suppression =
+                    getFileSuppressions(event.getFileName()).getNearestSuppression(event);
+            accepted = suppression == null
+                    || suppression.suppressionType == SuppressionType.ON;
         }
         return accepted;
     }
@@ -402,6 +405,33 @@ public class SuppressWithPlainTextCommentFilter extends AutomaticBean implements
         // No code by default
     }
 
+    /**
+     * Returns the suppressions of a file. They are found once and reused for
+     * the following events of the file in the current thread, until the file
+     * is modified.
+     *
+     * @param fileName the name of the file.
+     * @return the suppressions of the file.
+     */
+    private FileSuppressions getFileSuppressions(String fileName) {
+        final long lastModified = new File(fileName).lastModified();
+        FileSuppressions result = fileSuppressions.get();
+        if (result == null || !result.fileName.equals(fileName)
+                || result.lastModified != lastModified) {
+            final FileText fileText = getFileText(fileName);
+            final List<Suppression> suppressions;
+            if (fileText == null) {
+                suppressions = new ArrayList<>();
+            }
+            else {
+                suppressions = getSuppressions(fileText);
+            }
+            result = new FileSuppressions(fileName, lastModified, suppressions);
+            fileSuppressions.set(result);
+        }
+        return result;
+    }
+
     /**
      * Returns {@link FileText} instance created based on the given file name.
      *
@@ -465,23 +495,64 @@ public class SuppressWithPlainTextCommentFilter extends AutomaticBean implements
         return Optional.ofNullable(suppression);
     }
 
-    /**
-     * Finds the nearest {@link Suppression} instance which can suppress
-     * the given {@link AuditEvent}. The nearest suppression is the suppression which scope
-     * is before the line and column of the event.
-     *
-     * @param suppressions {@link Suppression} instance.
-     * @param event {@link AuditEvent} instance.
-     * @return {@link Suppression} instance.
-     */
-    private static Suppression getNearestSuppression(List<Suppression> suppressions,
-                                                     AuditEvent event) {
-        return suppressions
-            .stream()
-            .filter(suppression -> suppression.isMatch(event))
-            .reduce((first, second) -> second)
-            .filter(suppression -> suppression.suppressionType != SuppressionType.ON)
-            .orElse(null);
+    /** The suppressions of a file, in the order of their lines. */
+    private static final class FileSuppressions {
+
+        /** The name of the file. */
+        private final String fileName;
+
+        /** The time the file was last modified when the suppressions were found. */
+        private final long lastModified;
+
+        /** The suppressions, at most one per line. */
+        private final List<Suppression> suppressions;
+
+        /** The line numbers of the suppressions. */
+        private final int[] lineNos;
+
+        /**
+         * Creates a new {@code FileSuppressions} instance.
+         *
+         * @param fileName the name of the file.
+         * @param lastModified the time the file was last modified.
+         * @param suppressions the suppressions, in the order of their lines.
+         */
+        /* package */ FileSuppressions(String fileName, long lastModified,
+                List<Suppression> suppressions) {
+            this.fileName = fileName;
+            this.lastModified = lastModified;
+            this.suppressions = suppressions;
+            lineNos = suppressions.stream().mapToInt(suppression -> suppression.lineNo).toArray();
+        }
+
+        /**
+         * Finds the nearest {@link Suppression} instance which matches the given
+         * {@link AuditEvent}. The nearest suppression is the last matching suppression
+         * which scope is before the line of the event. The suppressions after the
+         * line are skipped by a binary search.
+         *
+         * @param event {@link AuditEvent} instance.
+         * @return {@link Suppression} instance, or null if none matches.
+         */
+        private Suppression getNearestSuppression(AuditEvent event) {
+            int index = Arrays.binarySearch(lineNos, event.getLine());
+            if (index < 0) {
+                index = -index - 1;
+            }
+            else {
+                index++;
+            }
+            Suppression result = null;
+            while (result == null && index > 0) {
+                index--;
+                final Suppression suppression = suppressions.get(index);
+                if (suppression.isMatch(event)) {
+                    result = suppression;
+                }
+            }
+            return result;
+        }
+
     }
 
     /** Enum which represents the type of the suppression. */
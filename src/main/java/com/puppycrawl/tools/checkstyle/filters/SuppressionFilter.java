@@ -231,7 +231,7 @@ public class SuppressionFilter extends AutomaticBean implements Filter, External
      */
     private boolean optional;
     /** Set of individual suppresses. */
-    private FilterSet filters = new FilterSet();
+    private Filter filters = new FilterSet();
 
     /**
      * Setter to specify the location of the <em>suppressions XML document</em> file.
@@ -264,14 +264,16 @@ public class SuppressionFilter extends AutomaticBean implements Filter, External
         if (file != null) {
             if (optional) {
                 if (FilterUtil.isFileExists(file)) {
-                    filters = SuppressionsLoader.loadSuppressions(file);
+                    filters = new SuppressFilterElementIndex(
+                            SuppressionsLoader.loadSuppressions(file));
                 }
                 else {
                     filters = new FilterSet();
                 }
             }
             else {
-                filters = SuppressionsLoader.loadSuppressions(file);
+                filters = new SuppressFilterElementIndex(
+                        SuppressionsLoader.loadSuppressions(file));
             }
         }
     }
@@ -19,13 +19,17 @@
 
 package com.puppycrawl.tools.checkstyle.filters;
 
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 import java.util.regex.Pattern;
-import java.util.stream.Collectors;
 
 import com.puppycrawl.tools.checkstyle.TreeWalkerAuditEvent;
 import com.puppycrawl.tools.checkstyle.TreeWalkerFilter;
+import com.puppycrawl.tools.checkstyle.api.DetailAST;
 import com.puppycrawl.tools.checkstyle.utils.CommonUtil;
 import com.puppycrawl.tools.checkstyle.xpath.AbstractNode;
 import com.puppycrawl.tools.checkstyle.xpath.RootNode;
@@ -70,6 +74,9 @@ public class XpathFilterElement implements TreeWalkerFilter {
     /** Xpath query. */
     private final String xpathQuery;
 
+    /** Positions matching the xpath query in the file audited last by the current thread. */
+    private final ThreadLocal<MatchingNodes> matchingNodes = new ThreadLocal<>();
+
     /**
      * Creates a {@code XpathElement} instance.
      *
@@ -209,24 +216,30 @@ public class XpathFilterElement implements TreeWalkerFilter {
      * @return true if it is matching or not set.
      */
     private boolean isXpathQueryMatching(TreeWalkerAuditEvent event) {
-        boolean isMatching;
-        if (xpathExpression == null) {
-            isMatching = true;
+        return xpathExpression == null || getMatchingNodes(event).contains(event);
+    }
+
+    /**
+     * Returns the positions matching xpath expression in the file of the event,
+     * evaluates the expression if the file was not the last one audited by
+     * the current thread. Events without a tree are evaluated every time.
+     *
+     * @param event {@code TreeWalkerAuditEvent} object
+     * @return positions matching xpath expression in the file of the event
+     */
+    private MatchingNodes getMatchingNodes(TreeWalkerAuditEvent event) {
+        MatchingNodes result;
+        if (event.getRootAst() == null) {
+            result = new MatchingNodes(event, getItems(event));
         }
         else {
-            isMatching = false;
-            final List<AbstractNode> nodes = getItems(event)
-                    .stream().map(AbstractNode.class::cast).collect(Collectors.toList());
-            for (AbstractNode abstractNode : nodes) {
-                isMatching = abstractNode.getTokenType() == event.getTokenType()
-                        && abstractNode.getLineNumber() == event.getLine()
-                        && abstractNode.getColumnNumber() == event.getColumnCharIndex();
-                if (isMatching) {
-                    break;
-                }
+            result = matchingNodes.get();
+            if (result == null || !result.isOf(event)) {
+                result = new MatchingNodes(event, getItems(event));
+                matchingNodes.set(result);
             }
         }
-        return isMatching;
+        return result;
     }
 
     /**
@@ -277,4 +290,60 @@ public class XpathFilterElement implements TreeWalkerFilter {
                 && Objects.equals(xpathQuery, xpathFilter.xpathQuery);
     }
 
+    /**
+     * Positions of the nodes matching xpath expression in a file. Only a weak
+     * reference to the tree is kept, so the tree is not retained once its file
+     * is audited.
+     */
+    private static final class MatchingNodes {
+
+        /** The name of the file. */
+        private final String fileName;
+
+        /** The root of the tree of the file. */
+        private final WeakReference<DetailAST> rootAst;
+
+        /** The line, column and token type of each matching node. */
+        private final Set<List<Integer>> positions = new HashSet<>();
+
+        /**
+         * Creates a new {@code MatchingNodes} instance.
+         *
+         * @param event the event of the file
+         * @param items the items matching xpath expression in the tree of the file
+         */
+        /* package */ MatchingNodes(TreeWalkerAuditEvent event, List<Item> items) {
+            fileName = event.getFileName();
+            rootAst = new WeakReference<>(event.getRootAst());
+            for (Item item : items) {
+                final AbstractNode node = (AbstractNode) item;
+                positions.add(Arrays.asList(node.getLineNumber(), node.getColumnNumber(),
+                        node.getTokenType()));
+            }
+        }
+
+        /**
+         * Checks whether the positions were found in the file of an event.
+         *
+         * @param event the event
+         * @return true if the event belongs to the same file and tree
+         */
+        private boolean isOf(TreeWalkerAuditEvent event) {
+            return rootAst.get() == event.getRootAst()
+                    && fileName.equals(event.getFileName());
+        }
+
+        /**
+         * Checks whether a node matching xpath expression is at the position of an event.
+         *
+         * @param event the event
+         * @return true if a matching node has the line, column and token type of the event
+         */
+        private boolean contains(TreeWalkerAuditEvent event) {
+            return positions.contains(Arrays.asList(event.getLine(),
+                    event.getColumnCharIndex(), event.getTokenType()));
+        }
+
+    }
+
 }
@@ -48,6 +48,15 @@ public final class TokenUtil {
     /** Array of all token IDs. */
     private static final int[] TOKEN_IDS;
 
+    /** Array of the token IDs of type declarations. */
+    private static final int[] TYPE_DECLARATION_TOKEN_IDS = {
+        TokenTypes.CLASS_DEF,
+        TokenTypes.INTERFACE_DEF,
+        TokenTypes.ENUM_DEF,
+        TokenTypes.ANNOTATION_DEF,
+        TokenTypes.RECORD_DEF,
+    };
+
     /** Format for exception message when getting token by given id. */
     private static final String TOKEN_ID_EXCEPTION_FORMAT = "unknown TokenTypes id '%s'";
 
@@ -289,6 +298,18 @@ public final class TokenUtil {
                 || type == TokenTypes.RECORD_DEF;
     }
 
+    /**
+     * Get the token IDs of type declarations (CLASS_DEF, INTERFACE_DEF,
+     * ENUM_DEF, ANNOTATION_DEF, RECORD_DEF). Checks of imports skip the
+     * subtrees of these tokens, as imports are never found inside type
+     * declarations.
+     *
+     * @return array of token IDs
+     */
+    public static int[] getTypeDeclarationTokenIds() {
+        return Arrays.copyOf(TYPE_DECLARATION_TOKEN_IDS, TYPE_DECLARATION_TOKEN_IDS.length);
+    }
+
     /**
      * Determines if the token type belongs to the given types.
      *
@@ -24,10 +24,12 @@ import static com.puppycrawl.tools.checkstyle.Checker.EXCEPTION_MSG;
 import static com.puppycrawl.tools.checkstyle.DefaultLogger.AUDIT_FINISHED_MESSAGE;
 import static com.puppycrawl.tools.checkstyle.DefaultLogger.AUDIT_STARTED_MESSAGE;
 import static com.puppycrawl.tools.checkstyle.checks.NewlineAtEndOfFileCheck.MSG_KEY_NO_NEWLINE_EOF;
+import static com.puppycrawl.tools.checkstyle.checks.javadoc.JavadocPackageCheck.MSG_PACKAGE_INFO;
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
@@ -72,6 +74,7 @@ import com.puppycrawl.tools.checkstyle.api.Configuration;
 import com.puppycrawl.tools.checkstyle.api.Context;
 import com.puppycrawl.tools.checkstyle.api.DetailAST;
 import com.puppycrawl.tools.checkstyle.api.ExternalResourceHolder;
+import com.puppycrawl.tools.checkstyle.api.FileSetCheck;
 import com.puppycrawl.tools.checkstyle.api.FileText;
 import com.puppycrawl.tools.checkstyle.api.Filter;
 import com.puppycrawl.tools.checkstyle.api.FilterSet;
@@ -79,8 +82,11 @@ import com.puppycrawl.tools.checkstyle.api.LocalizedMessage;
 import com.puppycrawl.tools.checkstyle.api.MessageDispatcher;
 import com.puppycrawl.tools.checkstyle.api.TokenTypes;
 import com.puppycrawl.tools.checkstyle.checks.NewlineAtEndOfFileCheck;
+import com.puppycrawl.tools.checkstyle.checks.SuppressWarningsHolder;
 import com.puppycrawl.tools.checkstyle.checks.TranslationCheck;
 import com.puppycrawl.tools.checkstyle.checks.coding.HiddenFieldCheck;
+import com.puppycrawl.tools.checkstyle.checks.javadoc.JavadocPackageCheck;
+import com.puppycrawl.tools.checkstyle.filters.SuppressWarningsFilter;
 import com.puppycrawl.tools.checkstyle.filters.SuppressionFilter;
 import com.puppycrawl.tools.checkstyle.internal.testmodules.DebugAuditAdapter;
 import com.puppycrawl.tools.checkstyle.internal.testmodules.DebugFilter;
@@ -803,6 +809,43 @@ public class CheckerTest extends AbstractModuleTestSupport {
                 "Number of items in cache differs from expected");
     }
 
+    @Test
+    public void testCacheContentHash() throws Exception {
+        final DefaultConfiguration checkerConfig = new DefaultConfiguration("configuration");
+        checkerConfig.addAttribute("charset", StandardCharsets.UTF_8.name());
+        checkerConfig.addAttribute("cacheContentHash", "true");
+        final File cacheFile = File.createTempFile("junit", null, temporaryFolder);
+        checkerConfig.addAttribute("cacheFile", cacheFile.getPath());
+        final File file = File.createTempFile("file", ".java", temporaryFolder);
+        final List<File> files = Collections.singletonList(file);
+
+        final Checker checker = new Checker();
+        checker.setModuleClassLoader(Thread.currentThread().getContextClassLoader());
+        checker.configure(checkerConfig);
+        final DebugAuditAdapter auditAdapter = new DebugAuditAdapter();
+        checker.addListener(auditAdapter);
+        checker.process(files);
+        checker.destroy();
+
+        final byte[] cacheContent = Files.readAllBytes(cacheFile.toPath());
+        assertEquals("CSC", new String(cacheContent, 0, 3, StandardCharsets.US_ASCII),
+                "Cache file should be in binary format");
+        assertEquals(1, auditAdapter.getNumFilesStarted(), "File should be processed");
+
+        assertTrue(file.setLastModified(file.lastModified() - 10_000),
+                "Unable to change timestamp");
+        final Checker secondChecker = new Checker();
+        secondChecker.setModuleClassLoader(Thread.currentThread().getContextClassLoader());
+        secondChecker.configure(checkerConfig);
+        final DebugAuditAdapter secondAuditAdapter = new DebugAuditAdapter();
+        secondChecker.addListener(secondAuditAdapter);
+        secondChecker.process(files);
+        secondChecker.destroy();
+
+        assertEquals(0, secondAuditAdapter.getNumFilesStarted(),
+                "Unchanged file should be skipped despite the new timestamp");
+    }
+
     /**
      * It is OK to have long test method name here as it describes the test purpose.
      */
@@ -929,6 +972,73 @@ public class CheckerTest extends AbstractModuleTestSupport {
         }
     }
 
+    @Test
+    public void testCacheViolations() throws Exception {
+        final File cacheFile = File.createTempFile("junit", null, temporaryFolder);
+        final DefaultConfiguration violationCheck =
+                createModuleConfig(DummyFileSetViolationCheck.class);
+        final DefaultConfiguration checkerConfig = createRootConfig(violationCheck);
+        checkerConfig.addAttribute("cacheFile", cacheFile.getPath());
+
+        final String fileViolationPath =
+                File.createTempFile("ViolationFile", ".java", temporaryFolder).getPath();
+        final String[] expected = {
+            "1: test",
+        };
+
+        verify(checkerConfig, fileViolationPath, expected);
+
+        final Properties details = new Properties();
+        try (InputStream input = Files.newInputStream(cacheFile.toPath())) {
+            details.load(input);
+        }
+        assertNotNull(details.getProperty(fileViolationPath),
+                "violation file saved in cache");
+        final String violations = details.getProperty(
+                PropertyCacheFile.VIOLATIONS_KEY_PREFIX + fileViolationPath);
+        assertNotNull(violations, "violations of file saved in cache");
+
+        // replayed from cache
+        verify(checkerConfig, fileViolationPath, expected);
+
+        final Properties detailsAfterReplay = new Properties();
+        try (InputStream input = Files.newInputStream(cacheFile.toPath())) {
+            detailsAfterReplay.load(input);
+        }
+        assertEquals(violations, detailsAfterReplay.getProperty(
+                PropertyCacheFile.VIOLATIONS_KEY_PREFIX + fileViolationPath),
+                "violations of file changed in cache");
+    }
+
+    @Test
+    public void testCacheViolationsOfGlobalStatefulCheck() throws Exception {
+        final File cacheFile = File.createTempFile("junit", null, temporaryFolder);
+        final DefaultConfiguration checkConfig = createModuleConfig(JavadocPackageCheck.class);
+        final DefaultConfiguration checkerConfig = createRootConfig(checkConfig);
+        checkerConfig.addAttribute("cacheFile", cacheFile.getPath());
+
+        final File packageDirectory = new File(temporaryFolder, "package");
+        assertTrue(packageDirectory.mkdir(), "package directory should be created");
+        final String filePath =
+                File.createTempFile("File", ".java", packageDirectory).getPath();
+        final String[] expected = {
+            "1: " + getCheckMessage(JavadocPackageCheck.class, MSG_PACKAGE_INFO),
+        };
+
+        verify(checkerConfig, filePath, expected);
+
+        final Properties details = new Properties();
+        try (InputStream input = Files.newInputStream(cacheFile.toPath())) {
+            details.load(input);
+        }
+        assertNull(details.getProperty(filePath),
+                "file with violations of global stateful check saved in cache");
+
+        Files.write(new File(packageDirectory, "package-info.java").toPath(),
+                "package test;\n".getBytes(StandardCharsets.UTF_8));
+        verify(checkerConfig, filePath, CommonUtil.EMPTY_STRING_ARRAY);
+    }
+
     @Test
     public void testHaltOnException() throws Exception {
         final DefaultConfiguration checkConfig =
@@ -1447,6 +1557,113 @@ public class CheckerTest extends AbstractModuleTestSupport {
         checker.destroy();
     }
 
+    @Test
+    public void testMultiThreadModeReportsLikeSingleThreadMode() throws Exception {
+        final List<File> files = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            final File file = new File(temporaryFolder, "InputCheckerMultiThread" + i + ".java");
+            String content = "public class InputCheckerMultiThread" + i + " {\n"
+                    + "    private int field;\n"
+                    + "    @SuppressWarnings(\"hiddenfield\")\n"
+                    + "    public void suppressed(int field) { }\n"
+                    + "    public void hidden(int field) { }\n"
+                    + "}";
+            if (i % 2 == 0) {
+                content += "\n";
+            }
+            Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+            files.add(file);
+        }
+
+        final String singleThreadReport =
+                auditWithThreads(ThreadModeSettings.SINGLE_THREAD_MODE_INSTANCE, files);
+        final String multiThreadReport = auditWithThreads(new ThreadModeSettings(4, 1), files);
+
+        assertWithMessage("Single thread report should contain violations")
+                .that(singleThreadReport)
+                .contains("HiddenFieldCheck");
+        assertWithMessage("Multi thread report should be the same as single thread report")
+                .that(multiThreadReport)
+                .isEqualTo(singleThreadReport);
+    }
+
+    @Test
+    public void testMultiThreadModeCopiesFileSetChecks() throws Exception {
+        final ThreadModeSettings threadModeSettings = new ThreadModeSettings(2, 1);
+        final DefaultConfiguration root = new DefaultConfiguration("root", threadModeSettings);
+        root.addChild(new DefaultConfiguration(NewlineAtEndOfFileCheck.class.getName(),
+                threadModeSettings));
+        root.addChild(new DefaultConfiguration(TranslationCheck.class.getName(),
+                threadModeSettings));
+        final Checker checker = new Checker();
+        checker.setModuleClassLoader(Thread.currentThread().getContextClassLoader());
+        checker.configure(root);
+
+        final List<FileSetCheck> fileSetChecks =
+                Whitebox.getInternalState(checker, "fileSetChecks");
+        final List<List<FileSetCheck>> workerFileSetChecks =
+                Whitebox.getInternalState(checker, "workerFileSetChecks");
+        assertEquals(2, workerFileSetChecks.size(), "Invalid number of worker threads");
+        assertEquals(Collections.singletonList(fileSetChecks.get(0)),
+                workerFileSetChecks.get(0), "First worker should use the configured check");
+        final FileSetCheck copy = workerFileSetChecks.get(1).get(0);
+        assertTrue(copy instanceof NewlineAtEndOfFileCheck, "Invalid copy of the check");
+        assertNotSame(fileSetChecks.get(0), copy, "Worker should use its own copy of the check");
+        assertEquals(1, workerFileSetChecks.get(1).size(),
+                "Global stateful check should not be copied");
+    }
+
+    @Test
+    public void testMultiThreadModeHaltOnException() throws Exception {
+        final ThreadModeSettings threadModeSettings = new ThreadModeSettings(2, 1);
+        final DefaultConfiguration treeWalker =
+                new DefaultConfiguration(TreeWalker.class.getName(), threadModeSettings);
+        treeWalker.addChild(new DefaultConfiguration(CheckWhichThrowsError.class.getName(),
+                threadModeSettings));
+        final DefaultConfiguration root = new DefaultConfiguration("root", threadModeSettings);
+        root.addChild(treeWalker);
+        final Checker checker = new Checker();
+        checker.setModuleClassLoader(Thread.currentThread().getContextClassLoader());
+        checker.configure(root);
+
+        final String filePath = getPath("InputChecker.java");
+        try {
+            checker.process(Collections.singletonList(new File(filePath)));
+            fail("Exception is expected");
+        }
+        catch (CheckstyleException ex) {
+            assertEquals("Exception was thrown while processing " + filePath, ex.getMessage(),
+                    "Error message is not expected");
+        }
+    }
+
+    private static String auditWithThreads(ThreadModeSettings threadModeSettings,
+            List<File> files) throws Exception {
+        final DefaultConfiguration treeWalker =
+                new DefaultConfiguration(TreeWalker.class.getName(), threadModeSettings);
+        treeWalker.addChild(new DefaultConfiguration(HiddenFieldCheck.class.getName(),
+                threadModeSettings));
+        treeWalker.addChild(new DefaultConfiguration(SuppressWarningsHolder.class.getName(),
+                threadModeSettings));
+        final DefaultConfiguration root = new DefaultConfiguration("root", threadModeSettings);
+        root.addChild(new DefaultConfiguration(NewlineAtEndOfFileCheck.class.getName(),
+                threadModeSettings));
+        root.addChild(new DefaultConfiguration(JavadocPackageCheck.class.getName(),
+                threadModeSettings));
+        root.addChild(new DefaultConfiguration(SuppressWarningsFilter.class.getName(),
+                threadModeSettings));
+        root.addChild(treeWalker);
+
+        final Checker checker = new Checker();
+        checker.setModuleClassLoader(Thread.currentThread().getContextClassLoader());
+        checker.configure(root);
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        checker.addListener(new XMLLogger(out, OutputStreamOptions.NONE));
+        checker.process(files);
+        checker.destroy();
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+
     public static class DummyFilter implements Filter {
 
         @Override
@@ -0,0 +1,247 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2021 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.io.File;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.junit.jupiter.api.Test;
+import org.powermock.reflect.Whitebox;
+
+import com.puppycrawl.tools.checkstyle.api.DetailAST;
+import com.puppycrawl.tools.checkstyle.api.TokenTypes;
+import com.puppycrawl.tools.checkstyle.utils.TokenUtil;
+
+public class CompactDetailAstTest extends AbstractPathTestSupport {
+
+    @Override
+    protected String getPackageLocation() {
+        return "com/puppycrawl/tools/checkstyle/compactdetailast";
+    }
+
+    @Test
+    public void testTreeWithoutComments() throws Exception {
+        final File file = new File(getPath("InputCompactDetailAst.java"));
+        final DetailAST expected = JavaParser.parseFile(file, JavaParser.Options.WITHOUT_COMMENTS);
+
+        verifySameTree(expected, CompactDetailAst.of(expected));
+    }
+
+    @Test
+    public void testTreeWithComments() throws Exception {
+        final File file = new File(getPath("InputCompactDetailAst.java"));
+        final CompactDetailAst ast = CompactDetailAst.of(
+                JavaParser.parseFile(file, JavaParser.Options.WITHOUT_COMMENTS));
+        final CompactDetailAst rootWithComments = ast.withComments();
+        assertEquals(TokenTypes.PACKAGE_DEF, rootWithComments.getType(),
+                "Copy of the root should be returned");
+
+        final DetailAST actual = rootWithComments.getPreviousSibling();
+        assertNull(actual.getPreviousSibling(), "Comment should be the first node");
+        verifySameTree(JavaParser.parseFile(file, JavaParser.Options.WITH_COMMENTS), actual);
+    }
+
+    @Test
+    public void testEmptyTree() {
+        assertNull(CompactDetailAst.of(null), "Empty tree should have no nodes");
+    }
+
+    @Test
+    public void testNavigation() throws Exception {
+        final File file = new File(getPath("InputCompactDetailAst.java"));
+        final DetailAST ast = CompactDetailAst.of(
+                JavaParser.parseFile(file, JavaParser.Options.WITHOUT_COMMENTS));
+        final DetailAST classDef = ast.getNextSibling().getNextSibling();
+        final DetailAST objBlock = classDef.findFirstToken(TokenTypes.OBJBLOCK);
+
+        assertSame(classDef, objBlock.getParent(), "Nodes should be created once");
+        assertSame(objBlock, classDef.getLastChild(), "Invalid last child");
+        assertSame(objBlock.getFirstChild(), objBlock.getFirstChild().getNextSibling()
+                .getPreviousSibling(), "Nodes should be created once");
+        assertEquals(1, objBlock.getChildCount(TokenTypes.METHOD_DEF),
+                "Invalid child count");
+        assertEquals(true, classDef.branchContains(TokenTypes.FOR_EACH_CLAUSE),
+                "Class should contain the loop");
+        assertEquals(false, classDef.branchContains(TokenTypes.IMPORT),
+                "Class should not contain the import");
+        assertEquals(false, objBlock.getLastChild().branchContains(TokenTypes.SLIST),
+                "Inner class should not contain the method body");
+        assertEquals("public[7x0]", classDef.getFirstChild().getFirstChild().toString(),
+                "Invalid text");
+    }
+
+    @Test
+    public void testNodesAreCreatedOnRequest() throws Exception {
+        final File file = new File(getPath("InputCompactDetailAst.java"));
+        final CompactDetailAst ast = CompactDetailAst.of(
+                JavaParser.parseFile(file, JavaParser.Options.WITHOUT_COMMENTS));
+        final CompactDetailAst rootWithComments = ast.withComments();
+        assertEquals(1, getCreatedNodesCount(ast),
+                "Only the root should be created, also by the copy with comments");
+        assertEquals(1, getCreatedNodesCount(rootWithComments),
+                "Only the root of the copy should be created");
+
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final DetailAST classDef = executor.submit(
+                () -> ast.getNextSibling().getNextSibling()).get();
+            assertSame(classDef, ast.getNextSibling().getNextSibling(),
+                    "Node created by another thread should be the same instance");
+        }
+        finally {
+            executor.shutdown();
+        }
+        assertEquals(3, getCreatedNodesCount(ast), "Only requested nodes should be created");
+    }
+
+    @Test
+    public void testNavigationByIndex() throws Exception {
+        final File file = new File(getPath("InputCompactDetailAst.java"));
+        final CompactDetailAst ast = CompactDetailAst.of(
+                JavaParser.parseFile(file, JavaParser.Options.WITHOUT_COMMENTS));
+        int count = 0;
+        int node = ast.getIndex();
+        while (node != CompactDetailAst.NONE) {
+            count++;
+            int next = ast.getFirstChildAt(node);
+            while (node != CompactDetailAst.NONE && next == CompactDetailAst.NONE) {
+                next = ast.getNextSiblingAt(node);
+                node = ast.getParentAt(node);
+            }
+            node = next;
+        }
+        assertEquals(1, getCreatedNodesCount(ast), "Walk by index should not create nodes");
+
+        final DetailAST classDef = ast.getNextSibling().getNextSibling();
+        final int classDefIndex = ((CompactDetailAst) classDef).getIndex();
+        assertEquals(TokenTypes.CLASS_DEF, ast.getTypeAt(classDefIndex), "Invalid type");
+        assertSame(classDef.getFirstChild(),
+                ast.getNodeAt(ast.getFirstChildAt(classDefIndex)), "Invalid first child");
+        assertNull(ast.getNodeAt(ast.getParentAt(classDefIndex)), "Invalid parent");
+        final int[] types = Whitebox.getInternalState(
+                Whitebox.getInternalState(ast, "tree"), "types");
+        assertEquals(types.length, count, "Walk by index should visit every node");
+    }
+
+    @Test
+    public void testBranchContains() throws Exception {
+        final File file = new File(getPath("InputCompactDetailAst.java"));
+        final DetailAST expected = JavaParser.parseFile(file, JavaParser.Options.WITH_COMMENTS);
+        final DetailAST actual = CompactDetailAst.of(
+                JavaParser.parseFile(file, JavaParser.Options.WITHOUT_COMMENTS))
+                .withComments().getPreviousSibling();
+        final int[] types = TokenUtil.getAllTokenIds();
+        verifySameBranches(expected, actual, types);
+
+        final DetailAST classDef = actual.getNextSibling().getNextSibling().getNextSibling();
+        assertEquals(false, classDef.branchContains(-1), "Invalid type should not be found");
+        assertEquals(false, classDef.branchContains(Integer.MAX_VALUE),
+                "Invalid type should not be found");
+    }
+
+    /**
+     * Counts the nodes of the tree of a node which have been created.
+     *
+     * @param ast a node of the tree
+     * @return the number of created nodes
+     */
+    private static int getCreatedNodesCount(CompactDetailAst ast) {
+        final Object tree = Whitebox.getInternalState(ast, "tree");
+        final AtomicReferenceArray<?> nodes = Whitebox.getInternalState(tree, "nodes");
+        int count = 0;
+        for (int i = 0; i < nodes.length(); i++) {
+            if (nodes.get(i) != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Verifies that the nodes of two trees contain the same token types in their branches.
+     *
+     * @param expected the first node of the expected tree
+     * @param actual the first node of the actual tree
+     * @param types the token types to look for
+     */
+    private static void verifySameBranches(DetailAST expected, DetailAST actual, int... types) {
+        DetailAST expectedNode = expected;
+        DetailAST actualNode = actual;
+        while (expectedNode != null) {
+            for (int type : types) {
+                assertEquals(expectedNode.branchContains(type), actualNode.branchContains(type),
+                        "Invalid branch of " + expectedNode + " for " + type);
+            }
+            verifySameBranches(expectedNode.getFirstChild(), actualNode.getFirstChild(), types);
+            expectedNode = expectedNode.getNextSibling();
+            actualNode = actualNode.getNextSibling();
+        }
+    }
+
+    /**
+     * Verifies that the nodes of a tree and their following siblings have the same
+     * properties and relations as the nodes of another tree.
+     *
+     * @param expected the first node of the expected tree
+     * @param actual the first node of the actual tree
+     */
+    private static void verifySameTree(DetailAST expected, DetailAST actual) {
+        DetailAST expectedNode = expected;
+        DetailAST actualNode = actual;
+        while (expectedNode != null) {
+            final String message = "Invalid node " + expectedNode;
+            assertEquals(expectedNode.getType(), actualNode.getType(), message);
+            assertEquals(expectedNode.getText(), actualNode.getText(), message);
+            assertEquals(expectedNode.getLineNo(), actualNode.getLineNo(), message);
+            assertEquals(expectedNode.getColumnNo(), actualNode.getColumnNo(), message);
+            assertEquals(expectedNode.getChildCount(), actualNode.getChildCount(), message);
+            assertEquals(expectedNode.hasChildren(), actualNode.hasChildren(), message);
+            assertEquals(expectedNode.getParent() == null, actualNode.getParent() == null,
+                    message);
+            assertEquals(expectedNode.getPreviousSibling() == null,
+                    actualNode.getPreviousSibling() == null, message);
+            assertEquals(expectedNode.branchContains(TokenTypes.IDENT),
+                    actualNode.branchContains(TokenTypes.IDENT), message);
+            if (expectedNode.getParent() != null) {
+                assertEquals(expectedNode.getParent().getType(),
+                        actualNode.getParent().getType(), message);
+                assertEquals(expectedNode.getParent().getLastChild().toString(),
+                        actualNode.getParent().getLastChild().toString(), message);
+                assertEquals(expectedNode.getParent().getChildCount(expectedNode.getType()),
+                        actualNode.getParent().getChildCount(actualNode.getType()), message);
+                assertEquals(expectedNode.getParent().findFirstToken(expectedNode.getType())
+                                .toString(),
+                        actualNode.getParent().findFirstToken(actualNode.getType()).toString(),
+                        message);
+            }
+            verifySameTree(expectedNode.getFirstChild(), actualNode.getFirstChild());
+            expectedNode = expectedNode.getNextSibling();
+            actualNode = actualNode.getNextSibling();
+        }
+        assertNull(actualNode, "Actual tree should have no more nodes");
+    }
+
+}
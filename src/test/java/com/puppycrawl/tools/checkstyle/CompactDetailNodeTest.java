@@ -0,0 +1,159 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2021 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.Test;
+import org.powermock.reflect.Whitebox;
+
+import com.puppycrawl.tools.checkstyle.api.DetailAST;
+import com.puppycrawl.tools.checkstyle.api.DetailNode;
+import com.puppycrawl.tools.checkstyle.api.JavadocTokenTypes;
+import com.puppycrawl.tools.checkstyle.api.TokenTypes;
+import com.puppycrawl.tools.checkstyle.utils.JavadocUtil;
+
+public class CompactDetailNodeTest extends AbstractPathTestSupport {
+
+    @Override
+    protected String getPackageLocation() {
+        return "com/puppycrawl/tools/checkstyle/compactdetailnode";
+    }
+
+    @Test
+    public void testNavigation() throws Exception {
+        final DetailNode root = parseJavadoc().getTree();
+        final DetailNode firstChild = root.getChildren()[0];
+
+        assertNull(root.getParent(), "Root should have no parent");
+        assertEquals(-1, root.getIndex(), "Invalid index of root");
+        assertSame(root, firstChild.getParent(), "Nodes should be created once");
+        assertSame(firstChild, root.getChildren()[0], "Nodes should be created once");
+        assertSame(root.getChildren()[1], JavadocUtil.getNextSibling(firstChild),
+                "Invalid next sibling");
+        assertEquals(firstChild.getText(), firstChild.getText(), "Invalid text");
+        assertEquals("JAVADOC", root.getText(), "Invalid text of root");
+        assertEquals(JavadocTokenTypes.JAVADOC, root.getType(), "Invalid type of root");
+        assertEquals(5, firstChild.getLineNumber(), "Invalid line number");
+        assertEquals(7, firstChild.getColumnNumber(), "Column on first line should be adjusted");
+
+        final DetailNode element = root.getChildren()[8];
+        assertEquals(7, element.getLineNumber(), "Invalid line number");
+        assertEquals(7, element.getColumnNumber(), "Column on other lines should be kept");
+        assertEquals("CompactDetailNode[index=8, type=HTML_ELEMENT, text='HTML_ELEMENT', "
+                + "lineNumber=7, columnNumber=7]", element.toString(), "Invalid string");
+    }
+
+    @Test
+    public void testTextHasNoChildren() throws Exception {
+        final DetailNode root = parseJavadoc().getTree();
+        final DetailNode text = JavadocUtil.findFirstToken(root, JavadocTokenTypes.TEXT);
+        assertEquals(" First line with ", text.getText(), "Invalid text");
+        assertEquals(0, text.getChildren().length, "Text should have no children");
+    }
+
+    @Test
+    public void testNodesAreCreatedWhenRequested() throws Exception {
+        final DetailNode root = parseJavadoc().getTree();
+        final Object tree = Whitebox.getInternalState(root, "tree");
+        final Object[] nodes = Whitebox.getInternalState(tree, "nodes");
+
+        final List<DetailNode> tags = ((CompactDetailNode) root).findNodes(
+                Collections.singleton(JavadocTokenTypes.JAVADOC_TAG));
+        assertEquals(4, tags.size(), "Invalid number of tags");
+        assertEquals(5, Arrays.stream(nodes).filter(node -> node != null).count(),
+                "Only the root and the found nodes should be created");
+    }
+
+    @Test
+    public void testFindNodes() throws Exception {
+        final JavadocDetailNodeParser.ParseStatus status = parseJavadoc();
+        final DetailNode root = status.getTree();
+        final List<DetailNode> allNodes = new ArrayList<>();
+        collectNodes(root, allNodes);
+        final Set<Integer> allTypes = new TreeSet<>();
+        allNodes.forEach(node -> allTypes.add(node.getType()));
+
+        final List<Set<Integer>> typeSets = new ArrayList<>();
+        typeSets.add(allTypes);
+        typeSets.add(new TreeSet<>(Arrays.asList(JavadocTokenTypes.JAVADOC_INLINE_TAG,
+                JavadocTokenTypes.HTML_TAG_NAME, JavadocTokenTypes.EOF)));
+        typeSets.add(Collections.singleton(JavadocTokenTypes.JAVADOC_TAG));
+        typeSets.add(Collections.singleton(JavadocTokenTypes.AUTHOR_LITERAL));
+        typeSets.add(Collections.singleton(Integer.MAX_VALUE));
+        typeSets.add(Collections.singleton(Integer.MIN_VALUE));
+        for (Set<Integer> types : typeSets) {
+            final List<DetailNode> expected = new ArrayList<>();
+            allNodes.stream().filter(node -> types.contains(node.getType()))
+                    .forEach(expected::add);
+            assertEquals(expected, status.getNodes(types), "Invalid nodes of " + types);
+        }
+
+        final DetailNode tag = status.getNodes(
+                Collections.singleton(JavadocTokenTypes.JAVADOC_TAG)).get(0);
+        final List<Integer> tagTypes = Arrays.asList(JavadocTokenTypes.JAVADOC_INLINE_TAG,
+                JavadocTokenTypes.JAVADOC_TAG);
+        final List<DetailNode> expected = new ArrayList<>();
+        collectNodes(tag, expected);
+        expected.removeIf(node -> !tagTypes.contains(node.getType()));
+        assertEquals(expected, ((CompactDetailNode) tag).findNodes(tagTypes),
+                "Only nodes of the subtree should be found");
+    }
+
+    private JavadocDetailNodeParser.ParseStatus parseJavadoc() throws Exception {
+        final DetailAST ast = JavaParser.parseFile(
+                new File(getPath("InputCompactDetailNode.java")),
+                JavaParser.Options.WITH_COMMENTS);
+        return new JavadocDetailNodeParser().parseJavadocAsDetailNode(findJavadoc(ast));
+    }
+
+    private static DetailAST findJavadoc(DetailAST ast) {
+        DetailAST result = null;
+        for (DetailAST node = ast; node != null && result == null;
+                node = node.getNextSibling()) {
+            if (node.getType() == TokenTypes.BLOCK_COMMENT_BEGIN
+                    && JavadocUtil.isJavadocComment(node)) {
+                result = node;
+            }
+            else {
+                result = findJavadoc(node.getFirstChild());
+            }
+        }
+        return result;
+    }
+
+    private static void collectNodes(DetailNode node, List<DetailNode> nodes) {
+        nodes.add(node);
+        for (DetailNode child : node.getChildren()) {
+            collectNodes(child, nodes);
+        }
+    }
+
+}
@@ -0,0 +1,387 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2021 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.powermock.reflect.Whitebox;
+
+import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
+
+public class DaemonTest {
+
+    @TempDir
+    public File temporaryFolder;
+
+    private final ByteArrayOutputStream outBytes = new ByteArrayOutputStream();
+
+    private final ByteArrayOutputStream errBytes = new ByteArrayOutputStream();
+
+    private Daemon daemon;
+
+    private Thread daemonThread;
+
+    private int port;
+
+    private static String getPath(String filename) {
+        return new File("src/test/resources/com/puppycrawl/tools/checkstyle/main/" + filename)
+                .getAbsolutePath();
+    }
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        startDaemon(temporaryFolder.toPath());
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        daemon.close();
+        daemonThread.join();
+    }
+
+    private void startDaemon(Path tokenDirectory) throws IOException {
+        startDaemon(tokenDirectory, 10_000);
+    }
+
+    private void startDaemon(Path tokenDirectory, int clientTimeout) throws IOException {
+        final ServerSocket serverSocket = new ServerSocket(0, 0,
+                InetAddress.getLoopbackAddress());
+        port = serverSocket.getLocalPort();
+        daemon = new Daemon(serverSocket, tokenDirectory, clientTimeout);
+        daemonThread = new Thread(daemon::serve);
+        daemonThread.start();
+    }
+
+    private void restartDaemon(int clientTimeout) throws Exception {
+        daemon.close();
+        daemonThread.join();
+        startDaemon(temporaryFolder.toPath(), clientTimeout);
+    }
+
+    private int sendRequest(String... args) throws Exception {
+        return sendRequest(Paths.get("").toAbsolutePath(), System.getProperties(), args);
+    }
+
+    private int sendRequest(Path workingDirectory, Properties systemProperties,
+            String... args) throws Exception {
+        outBytes.reset();
+        errBytes.reset();
+        try (PrintStream out = new PrintStream(outBytes, true, StandardCharsets.UTF_8.name());
+             PrintStream err = new PrintStream(errBytes, true, StandardCharsets.UTF_8.name())) {
+            return Daemon.sendRequest(temporaryFolder.toPath(), port, workingDirectory,
+                    systemProperties, args, out, err);
+        }
+    }
+
+    private Map<?, ?> getConfigurations() {
+        return Whitebox.getInternalState(daemon, "configurations");
+    }
+
+    private Object getKeptConfiguration() {
+        final Map<?, ?> configurations = getConfigurations();
+        assertEquals(1, configurations.size(), "Invalid number of kept configurations");
+        return Whitebox.getInternalState(configurations.values().iterator().next(),
+                "configuration");
+    }
+
+    @Test
+    public void testOutputIsSameAsOfMain() throws Exception {
+        final String[] args = {"-c", getPath("InputMainConfig-classname2-error.xml"),
+            getPath("InputMain.java")};
+        final ByteArrayOutputStream expectedOut = new ByteArrayOutputStream();
+        final ByteArrayOutputStream expectedErr = new ByteArrayOutputStream();
+        final int expectedExitStatus;
+        try (PrintStream out = new PrintStream(expectedOut, true, StandardCharsets.UTF_8.name());
+             PrintStream err = new PrintStream(expectedErr, true,
+                     StandardCharsets.UTF_8.name())) {
+            expectedExitStatus = Main.run(null, null, null, out, err, args);
+        }
+
+        for (int i = 0; i < 2; i++) {
+            assertEquals(expectedExitStatus, sendRequest(args), "Invalid exit status");
+            assertEquals(expectedOut.toString(StandardCharsets.UTF_8.name()),
+                    outBytes.toString(StandardCharsets.UTF_8.name()), "Invalid output");
+            assertEquals(expectedErr.toString(StandardCharsets.UTF_8.name()),
+                    errBytes.toString(StandardCharsets.UTF_8.name()), "Invalid error output");
+        }
+        assertEquals(2, expectedExitStatus, "Invalid number of errors");
+    }
+
+    @Test
+    public void testConfigurationIsReused() throws Exception {
+        final String[] args = {"-c", getPath("InputMainConfig-classname.xml"),
+            getPath("InputMain.java")};
+        assertEquals(0, sendRequest(args), "Invalid exit status");
+        final Object configuration = getKeptConfiguration();
+        assertEquals(0, sendRequest(args), "Invalid exit status");
+        assertSame(configuration, getKeptConfiguration(), "Configuration should be reused");
+        assertEquals(0, sendRequest("-C", "2", args[0], args[1], args[2]),
+                "Invalid exit status");
+        assertEquals(2, getConfigurations().size(),
+                "Thread settings should not share configurations");
+    }
+
+    @Test
+    public void testConfigurationIsReusedWithOtherUnresolvedProperties() throws Exception {
+        final String[] args = {"-c", getPath("InputMainConfig-classname.xml"),
+            getPath("InputMain.java")};
+        final Properties systemProperties = new Properties();
+        systemProperties.putAll(System.getProperties());
+        final Path workingDirectory = Paths.get("").toAbsolutePath();
+        systemProperties.setProperty("checkstyle.test.unused", "first");
+        assertEquals(0, sendRequest(workingDirectory, systemProperties, args),
+                "Invalid exit status");
+        final Object configuration = getKeptConfiguration();
+        systemProperties.setProperty("checkstyle.test.unused", "second");
+        assertEquals(0, sendRequest(workingDirectory, systemProperties, args),
+                "Invalid exit status");
+        assertSame(configuration, getKeptConfiguration(),
+                "Properties which are not expanded should not matter");
+    }
+
+    @Test
+    public void testModifiedConfigurationIsNotReused() throws Exception {
+        final File config = new File(temporaryFolder, "config.xml");
+        Files.copy(Paths.get(getPath("InputMainConfig-classname.xml")), config.toPath());
+        final String[] args = {"-c", config.getPath(), getPath("InputMain.java")};
+        assertEquals(0, sendRequest(args), "Invalid exit status");
+        final Object configuration = getKeptConfiguration();
+        Files.copy(Paths.get(getPath("InputMainConfig-classname2-error.xml")), config.toPath(),
+                StandardCopyOption.REPLACE_EXISTING);
+        assertTrue(config.setLastModified(config.lastModified() - 10_000),
+                "Modification time should be set");
+        assertEquals(2, sendRequest(args), "Modified configuration should be loaded");
+        assertNotSame(configuration, getKeptConfiguration(),
+                "Configuration should not be reused");
+    }
+
+    @Test
+    public void testCacheFileIsPersisted() throws Exception {
+        final File config = new File(temporaryFolder, "config.xml");
+        final String content = new String(Files.readAllBytes(
+                Paths.get(getPath("InputMainConfig-classname.xml"))), StandardCharsets.UTF_8)
+                .replace("<module name=\"Checker\">", "<module name=\"Checker\">"
+                        + "<property name=\"cacheFile\" value=\""
+                        + new File(temporaryFolder, "cache").getPath() + "\"/>");
+        Files.write(config.toPath(), content.getBytes(StandardCharsets.UTF_8));
+        assertEquals(0, sendRequest("-c", config.getPath(), getPath("InputMain.java")),
+                "Invalid exit status");
+        assertTrue(new File(temporaryFolder, "cache").exists(), "Cache should be persisted");
+    }
+
+    @Test
+    public void testStateOfModulesIsNotShared() throws Exception {
+        final File directory = new File(temporaryFolder, "sources");
+        assertTrue(directory.mkdir(), "Directory should be created");
+        final File file = new File(directory, "InputMain.java");
+        Files.copy(Paths.get(getPath("InputMain.java")), file.toPath());
+        final File config = new File(temporaryFolder, "config.xml");
+        Files.write(config.toPath(), ("<?xml version=\"1.0\"?>\n"
+                + "<!DOCTYPE module PUBLIC \"-//Checkstyle//DTD Checkstyle Configuration 1.3//EN\""
+                + " \"https://checkstyle.org/dtds/configuration_1_3.dtd\">\n"
+                + "<module name=\"Checker\"><module name=\"JavadocPackage\"/></module>\n")
+                .getBytes(StandardCharsets.UTF_8));
+
+        for (int i = 0; i < 2; i++) {
+            assertEquals(1, sendRequest("-c", config.getPath(), file.getPath()),
+                    "Missing package-info.java should be reported by every execution");
+        }
+    }
+
+    @Test
+    public void testExecutionsWithOtherLocaleWait() throws Exception {
+        daemon.lockLocale(Locale.ENGLISH);
+        final Thread sameLocale = new Thread(() -> lockAndUnlockLocale(Locale.ENGLISH));
+        sameLocale.start();
+        sameLocale.join(10_000);
+        assertFalse(sameLocale.isAlive(), "Execution with the same locale should not wait");
+
+        final Thread otherLocale = new Thread(() -> lockAndUnlockLocale(Locale.GERMAN));
+        otherLocale.start();
+        while (otherLocale.getState() != Thread.State.WAITING) {
+            assertTrue(otherLocale.isAlive(), "Execution with another locale should wait");
+            Thread.sleep(10);
+        }
+        daemon.unlockLocale();
+        otherLocale.join(10_000);
+        assertFalse(otherLocale.isAlive(), "Execution should continue after unlock");
+    }
+
+    private void lockAndUnlockLocale(Locale locale) {
+        try {
+            daemon.lockLocale(locale);
+            daemon.unlockLocale();
+        }
+        catch (CheckstyleException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    @Test
+    public void testRelativePathsAreResolvedAgainstClient() throws Exception {
+        final File directory = new File(temporaryFolder, "client");
+        assertTrue(directory.mkdir(), "Directory should be created");
+        Files.copy(Paths.get(getPath("InputMain.java")),
+                new File(directory, "InputMain.java").toPath());
+        Files.copy(Paths.get(getPath("InputMainConfig-classname2-error.xml")),
+                new File(directory, "config.xml").toPath());
+
+        try (PrintStream out = new PrintStream(outBytes, true, StandardCharsets.UTF_8.name());
+             PrintStream err = new PrintStream(errBytes, true, StandardCharsets.UTF_8.name())) {
+            assertEquals(2, Main.run(daemon, directory.toPath(), null, out, err,
+                    "-c", "config.xml", "-o", "result.txt", "InputMain.java"),
+                    "Invalid exit status");
+        }
+        final String result = new String(Files.readAllBytes(
+                new File(directory, "result.txt").toPath()), StandardCharsets.UTF_8);
+        assertTrue(result.contains("(InputMain.java:3:14)"),
+                "Result should contain the violations: " + result);
+    }
+
+    @Test
+    public void testSystemPropertiesOfClientAreExpanded() throws Exception {
+        final File config = new File(temporaryFolder, "config.xml");
+        final String content = new String(Files.readAllBytes(
+                Paths.get(getPath("InputMainConfig-classname2-error.xml"))),
+                StandardCharsets.UTF_8)
+                .replace("^[a-z0-9]*$", "${checkstyle.test.format}");
+        Files.write(config.toPath(), content.getBytes(StandardCharsets.UTF_8));
+        final Properties systemProperties = new Properties();
+        systemProperties.putAll(System.getProperties());
+        final Path workingDirectory = Paths.get("").toAbsolutePath();
+
+        systemProperties.setProperty("checkstyle.test.format", "^[a-z0-9]*$");
+        assertEquals(2, sendRequest(workingDirectory, systemProperties, "-c", config.getPath(),
+                getPath("InputMain.java")), "Invalid exit status");
+        systemProperties.setProperty("checkstyle.test.format", "^.*$");
+        assertEquals(0, sendRequest(workingDirectory, systemProperties, "-c", config.getPath(),
+                getPath("InputMain.java")), "Property of client should be expanded");
+        assertEquals(1, getConfigurations().size(),
+                "Configuration should be replaced");
+    }
+
+    @Test
+    public void testOtherWorkingDirectoryIsRejected() throws Exception {
+        assertEquals(-1, sendRequest(temporaryFolder.toPath(), System.getProperties(),
+                "-c", getPath("InputMainConfig-classname.xml"), getPath("InputMain.java")),
+                "Invalid exit status");
+        final String errorOutput = errBytes.toString(StandardCharsets.UTF_8.name());
+        assertTrue(errorOutput.startsWith("The daemon runs in "),
+                "Invalid error output: " + errorOutput);
+        assertTrue(getConfigurations().isEmpty(), "No configuration should be kept");
+    }
+
+    @Test
+    public void testSilentClientDoesNotBlockOthers() throws Exception {
+        restartDaemon(60_000);
+        try (Socket silentClient = new Socket(InetAddress.getLoopbackAddress(), port)) {
+            assertEquals(0, sendRequest("-c", getPath("InputMainConfig-classname.xml"),
+                    getPath("InputMain.java")), "Invalid exit status");
+            assertFalse(silentClient.isClosed(), "Silent client should still be connected");
+        }
+    }
+
+    @Test
+    public void testSilentClientIsDropped() throws Exception {
+        restartDaemon(100);
+        try (Socket silentClient = new Socket(InetAddress.getLoopbackAddress(), port)) {
+            silentClient.setSoTimeout(10_000);
+            assertEquals(-1, silentClient.getInputStream().read(),
+                    "Silent client should be dropped");
+        }
+    }
+
+    @Test
+    public void testInvalidInput() throws Exception {
+        assertEquals(-1, sendRequest(getPath("InputMain.java")), "Invalid exit status");
+        assertEquals("Must specify a config XML file." + System.lineSeparator(),
+                outBytes.toString(StandardCharsets.UTF_8.name()), "Invalid output");
+        assertTrue(getConfigurations().isEmpty(), "No configuration should be kept");
+    }
+
+    @Test
+    public void testWrongToken() throws Exception {
+        Files.write(new File(temporaryFolder, ".checkstyle-daemon-" + port).toPath(),
+                "wrong".getBytes(StandardCharsets.UTF_8));
+        final String config = getPath("InputMainConfig-classname.xml");
+        final String file = getPath("InputMain.java");
+        final CheckstyleException ex = assertThrows(CheckstyleException.class,
+            () -> sendRequest("-c", config, file));
+        assertTrue(ex.getMessage().startsWith("Unable to run the command line by the daemon"),
+                "Invalid exception message: " + ex.getMessage());
+        assertTrue(getConfigurations().isEmpty(), "No configuration should be kept");
+    }
+
+    @Test
+    public void testMainSendsCommandLineToDaemon() throws Exception {
+        daemon.close();
+        daemonThread.join();
+        startDaemon(Paths.get(System.getProperty("user.home")));
+        try (PrintStream out = new PrintStream(outBytes, true, StandardCharsets.UTF_8.name());
+             PrintStream err = new PrintStream(errBytes, true, StandardCharsets.UTF_8.name())) {
+            assertEquals(2, Main.run(null, null, null, out, err,
+                    "--daemon-port", String.valueOf(port),
+                    "-c", getPath("InputMainConfig-classname2-error.xml"),
+                    getPath("InputMain.java")), "Invalid exit status");
+        }
+        assertEquals(1, getConfigurations().size(), "Configuration should be kept by daemon");
+        final String errorOutput = errBytes.toString(StandardCharsets.UTF_8.name());
+        final String summary = "Checkstyle found 2 style error(s).";
+        assertEquals(errorOutput.indexOf(summary), errorOutput.lastIndexOf(summary),
+                "Summary should be printed once: " + errorOutput);
+        assertTrue(errorOutput.startsWith(summary), "Invalid error output: " + errorOutput);
+    }
+
+    @Test
+    public void testCloseDropsConfigurations() throws Exception {
+        assertEquals(0, sendRequest("-c", getPath("InputMainConfig-classname.xml"),
+                getPath("InputMain.java")), "Invalid exit status");
+        daemon.close();
+        assertTrue(getConfigurations().isEmpty(), "Configurations should be dropped");
+        assertFalse(new File(temporaryFolder, ".checkstyle-daemon-" + port).exists(),
+                "Token file should be deleted");
+    }
+
+}
@@ -25,10 +25,19 @@ import java.io.File;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 
 import org.junit.jupiter.api.Test;
 
 import com.puppycrawl.tools.checkstyle.api.DetailAST;
+import com.puppycrawl.tools.checkstyle.api.DetailNode;
+import com.puppycrawl.tools.checkstyle.api.JavadocTokenTypes;
+import com.puppycrawl.tools.checkstyle.api.TokenTypes;
+import com.puppycrawl.tools.checkstyle.checks.javadoc.JavadocNodeImpl;
+import com.puppycrawl.tools.checkstyle.utils.JavadocUtil;
 
 public class JavadocDetailNodeParserTest extends AbstractModuleTestSupport {
 
@@ -53,4 +62,75 @@ public class JavadocDetailNodeParserTest extends AbstractModuleTestSupport {
         assertEquals(expected, actual, "Invalid parse result");
     }
 
+    @Test
+    public void testParserIsReused() throws Exception {
+        final DetailAST ast = JavaParser.parseFile(
+            new File(getPath("InputJavadocDetailNodeParserReuse.java")),
+            JavaParser.Options.WITH_COMMENTS);
+        final List<DetailAST> comments = new ArrayList<>();
+        findJavadocComments(ast, comments);
+        assertEquals(7, comments.size(), "Invalid number of comments");
+
+        final JavadocDetailNodeParser parser = new JavadocDetailNodeParser();
+        for (DetailAST comment : comments) {
+            final JavadocDetailNodeParser.ParseStatus expected =
+                    new JavadocDetailNodeParser().parseJavadocAsDetailNode(comment);
+            final JavadocDetailNodeParser.ParseStatus actual =
+                    parser.parseJavadocAsDetailNode(comment);
+            final String message = "Invalid parse result of comment at line "
+                    + comment.getLineNo();
+            assertEquals(toString(expected), toString(actual), message);
+        }
+    }
+
+    @Test
+    public void testGetNodesOfOtherTree() {
+        final JavadocNodeImpl root = new JavadocNodeImpl();
+        root.setType(JavadocTokenTypes.JAVADOC);
+        final JavadocNodeImpl tag = new JavadocNodeImpl();
+        tag.setType(JavadocTokenTypes.JAVADOC_TAG);
+        tag.setParent(root);
+        final JavadocNodeImpl text = new JavadocNodeImpl();
+        text.setType(JavadocTokenTypes.TEXT);
+        text.setParent(root);
+        text.setIndex(1);
+        root.setChildren(tag, text);
+        final JavadocDetailNodeParser.ParseStatus status =
+                new JavadocDetailNodeParser.ParseStatus();
+        assertEquals(Collections.emptyList(),
+                status.getNodes(Collections.singleton(JavadocTokenTypes.JAVADOC)),
+                "Status without tree should have no nodes");
+
+        status.setTree(root);
+        assertEquals(Arrays.<DetailNode>asList(root, text),
+                status.getNodes(Arrays.asList(JavadocTokenTypes.TEXT, JavadocTokenTypes.JAVADOC)),
+                "Invalid nodes");
+    }
+
+    private static String toString(JavadocDetailNodeParser.ParseStatus status) {
+        final StringBuilder result = new StringBuilder(256);
+        if (status.getTree() != null) {
+            result.append(DetailNodeTreeStringPrinter.printTree(status.getTree(), "", ""));
+        }
+        if (status.getParseErrorMessage() != null) {
+            result.append(status.getParseErrorMessage().getLineNumber())
+                .append(status.getParseErrorMessage().getMessageKey())
+                .append(Arrays.toString(status.getParseErrorMessage().getMessageArguments()));
+        }
+        if (status.isNonTight()) {
+            result.append(status.getFirstNonTightHtmlTag());
+        }
+        return result.toString();
+    }
+
+    private static void findJavadocComments(DetailAST ast, List<DetailAST> comments) {
+        for (DetailAST node = ast; node != null; node = node.getNextSibling()) {
+            if (node.getType() == TokenTypes.BLOCK_COMMENT_BEGIN
+                    && JavadocUtil.isJavadocComment(node)) {
+                comments.add(node);
+            }
+            findJavadocComments(node.getFirstChild(), comments);
+        }
+    }
+
 }
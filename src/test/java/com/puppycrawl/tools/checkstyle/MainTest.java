@@ -61,7 +61,6 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.api.io.TempDir;
-import org.powermock.reflect.Whitebox;
 
 import com.puppycrawl.tools.checkstyle.api.AuditListener;
 import com.puppycrawl.tools.checkstyle.api.AutomaticBean;
@@ -80,11 +79,12 @@ public class MainTest {
 
     private static final String USAGE = String.format(Locale.ROOT,
           "Usage: checkstyle [-dEghjJtTV] [-b=<xpath>] [-c=<configurationFile>] "
-                  + "[-f=<format>]%n"
-                  + "                  [-o=<outputPath>] [-p=<propertiesFile>] "
-                  + "[-s=<suppressionLineColumnNumber>]%n"
-                  + "                  [-w=<tabWidth>] [-e=<exclude>]... [-x=<excludeRegex>]... "
-                  + "<files>...%n"
+                  + "[-C=<checkerThreadsNumber>]%n"
+                  + "                  [-f=<format>] [-o=<outputPath>] [-p=<propertiesFile>] "
+                  + "[-P=<daemonPort>]%n"
+                  + "                  [-s=<suppressionLineColumnNumber>] [-w=<tabWidth>] "
+                  + "[-W=<treeWalkerThreadsNumber>]%n"
+                  + "                  [-e=<exclude>]... [-x=<excludeRegex>]... <files>...%n"
                   + "Checkstyle verifies that the specified source code files adhere to the"
                   + " specified rules. By default%n"
                   + "violations are reported to standard out in plain format. Checkstyle requires"
@@ -100,6 +100,12 @@ public class MainTest {
                   + " filesystem location, or a name%n"
                   + "                              passed to the ClassLoader.getResource()"
                   + " method.%n"
+                  + "  -C, --checker-threads-number=<checkerThreadsNumber>%n"
+                  + "                            Sets the number of threads used to audit files"
+                  + " (must be greater than%n"
+                  + "                              zero). Violations are reported in the same"
+                  + " order as with one thread.%n"
+                  + "                              Default value is 1.%n"
                   + "  -d, --debug               Prints all debug logging of CheckStyle utility.%n"
                   + "  -e, --exclude=<exclude>   Directory/file to exclude from CheckStyle. The"
                   + " path can be the full,%n"
@@ -142,6 +148,12 @@ public class MainTest {
                   + " run on to be specified.%n"
                   + "  -o=<outputPath>           Sets the output file. Defaults to stdout.%n"
                   + "  -p=<propertiesFile>       Sets the property files to load.%n"
+                  + "  -P, --daemon-port=<daemonPort>%n"
+                  + "                            Runs the command line by the Checkstyle daemon"
+                  + " which listens on this%n"
+                  + "                              port of the loopback interface and keeps the"
+                  + " configurations of%n"
+                  + "                              previous executions.%n"
                   + "  -s=<suppressionLineColumnNumber>%n"
                   + "                            Prints xpath suppressions at the file's line and"
                   + " column position.%n"
@@ -175,6 +187,11 @@ public class MainTest {
                   + "  -w, --tabWidth=<tabWidth> Sets the length of the tab character. Used only"
                   + " with -s option. Default%n"
                   + "                              value is 8.%n"
+                  + "  -W, --tree-walker-threads-number=<treeWalkerThreadsNumber>%n"
+                  + "                            Sets the number of threads used by each"
+                  + " TreeWalker to run its checks on%n"
+                  + "                              a file (must be greater than zero). Default"
+                  + " value is 1.%n"
                   + "  -x, --exclude-regexp=<excludeRegex>%n"
                   + "                            Directory/file pattern to exclude from CheckStyle."
                   + " Multiple excludes%n"
@@ -340,6 +357,46 @@ public class MainTest {
         assertEquals("", systemErr.getCapturedData(), "Unexpected system error log");
     }
 
+    @Test
+    public void testInvalidCheckerThreadsNumber(@SysOut Capturable systemOut) {
+        assertExitWithStatus(-1, () -> {
+            invokeMain("-c", "/google_checks.xml", "-C", "0", getPath("InputMain.java"));
+        });
+        assertWithMessage("Unexpected output log")
+                .that(systemOut.getCapturedData())
+                .startsWith(addEndOfLine("Checker threads number must be greater than zero"));
+    }
+
+    @Test
+    public void testInvalidTreeWalkerThreadsNumber(@SysOut Capturable systemOut) {
+        assertExitWithStatus(-1, () -> {
+            invokeMain("-c", "/google_checks.xml", "-W", "0", getPath("InputMain.java"));
+        });
+        assertWithMessage("Unexpected output log")
+                .that(systemOut.getCapturedData())
+                .startsWith(addEndOfLine("TreeWalker threads number must be greater than zero"));
+    }
+
+    @Test
+    public void testTreeWalkerThreadsNumber(@SysOut Capturable systemOut) throws IOException {
+        Main.main("-c", getPath("InputMainConfig-classname.xml"), "-W", "2",
+                getPath("InputMain.java"));
+        assertWithMessage("Unexpected output log")
+                .that(systemOut.getCapturedData())
+                .startsWith(addEndOfLine(auditStartMessage.getMessage(),
+                        auditFinishMessage.getMessage()));
+    }
+
+    @Test
+    public void testCheckerThreadsNumber(@SysOut Capturable systemOut) throws IOException {
+        Main.main("-c", getPath("InputMainConfig-classname.xml"), "-C", "2",
+                getPath("InputMain.java"));
+        assertWithMessage("Unexpected output log")
+                .that(systemOut.getCapturedData())
+                .startsWith(addEndOfLine(auditStartMessage.getMessage(),
+                        auditFinishMessage.getMessage()));
+    }
+
     @Test
     public void testNonExistentOutputFormat(@SysErr Capturable systemErr,
             @SysOut Capturable systemOut) {
@@ -763,67 +820,41 @@ public class MainTest {
         assertEquals("", systemErr.getCapturedData(), "Unexpected system error log");
     }
 
-    /**
-     * Test doesn't need to be serialized.
-     *
-     * @noinspection SerializableInnerClassWithNonSerializableOuterClass
-     */
     @Test
+    @SuppressWarnings("unchecked")
     public void testListFilesNotFile() throws Exception {
-        final File fileMock = new File("") {
-            private static final long serialVersionUID = 1L;
-
-            @Override
-            public boolean canRead() {
-                return true;
-            }
-
-            @Override
-            public boolean isDirectory() {
-                return false;
-            }
-
-            @Override
-            public boolean isFile() {
-                return false;
-            }
-        };
+        final Method method = Main.class.getDeclaredMethod("listFiles", File.class, List.class);
+        method.setAccessible(true);
 
-        final List<File> result = Whitebox.invokeMethod(Main.class, "listFiles",
-                fileMock, new ArrayList<Pattern>());
+        final List<File> result = (List<File>) method.invoke(null,
+                new File(temporaryFolder, "missing"), new ArrayList<Pattern>());
         assertEquals(0, result.size(), "Invalid result size");
     }
 
-    /**
-     * Test doesn't need to be serialized.
-     *
-     * @noinspection SerializableInnerClassWithNonSerializableOuterClass
-     */
     @Test
-    public void testListFilesDirectoryWithNull() throws Exception {
-        final File[] nullResult = null;
-        final File fileMock = new File("") {
-            private static final long serialVersionUID = 1L;
-
-            @Override
-            public boolean canRead() {
-                return true;
-            }
-
-            @Override
-            public boolean isDirectory() {
-                return true;
-            }
-
-            @Override
-            public File[] listFiles() {
-                return nullResult;
-            }
-        };
-
-        final List<File> result = Whitebox.invokeMethod(Main.class, "listFiles",
-                fileMock, new ArrayList<Pattern>());
-        assertEquals(0, result.size(), "Invalid result size");
+    @SuppressWarnings("unchecked")
+    public void testListFilesOfNestedDirectories() throws Exception {
+        final File first = new File(temporaryFolder, "first");
+        final File second = new File(first, "second");
+        final File excluded = new File(first, "excluded");
+        assertTrue(second.mkdirs(), "Directory should be created");
+        assertTrue(excluded.mkdirs(), "Directory should be created");
+        final File firstFile = new File(first, "First.java");
+        final File secondFile = new File(second, "Second.java");
+        final File excludedFile = new File(excluded, "Excluded.java");
+        for (File file : new File[] {firstFile, secondFile, excludedFile}) {
+            assertTrue(file.createNewFile(), "File should be created");
+        }
+        final Method method = Main.class.getDeclaredMethod("listFiles", File.class, List.class);
+        method.setAccessible(true);
+        final List<Pattern> patternsToExclude = new ArrayList<>();
+        patternsToExclude.add(Pattern.compile("excluded$"));
+
+        final List<File> result = (List<File>) method.invoke(null, temporaryFolder,
+                patternsToExclude);
+        assertEquals(2, result.size(), "Invalid result size");
+        assertTrue(result.contains(firstFile), "File should be found");
+        assertTrue(result.contains(secondFile), "File in subdirectory should be found");
     }
 
     @Test
@@ -19,9 +19,12 @@
 
 package com.puppycrawl.tools.checkstyle;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
@@ -29,17 +32,26 @@ import static org.junit.jupiter.api.Assertions.fail;
 import java.io.BufferedInputStream;
 import java.io.BufferedReader;
 import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.math.BigInteger;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.security.MessageDigest;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Locale;
 import java.util.Properties;
 import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
@@ -47,6 +59,9 @@ import org.junit.jupiter.api.io.TempDir;
 import com.google.common.io.BaseEncoding;
 import com.google.common.io.ByteStreams;
 import com.puppycrawl.tools.checkstyle.api.Configuration;
+import com.puppycrawl.tools.checkstyle.api.LocalizedMessage;
+import com.puppycrawl.tools.checkstyle.api.SeverityLevel;
+import com.puppycrawl.tools.checkstyle.checks.NewlineAtEndOfFileCheck;
 import com.puppycrawl.tools.checkstyle.utils.CommonUtil;
 
 public class PropertyCacheFileTest extends AbstractPathTestSupport {
@@ -284,4 +299,290 @@ public class PropertyCacheFileTest extends AbstractPathTestSupport {
         assertEquals(1, detailsAfterChangeInConfig.size(), "Invalid cache size");
     }
 
+    @Test
+    public void testPersistAndLoadInBinaryFormat() throws IOException {
+        final Configuration config = new DefaultConfiguration("myName");
+        final File cacheFile = File.createTempFile("junit", null, temporaryFolder);
+        final PropertyCacheFile cache = new PropertyCacheFile(config, cacheFile.getPath());
+        cache.setContentHash(true);
+        cache.load();
+        cache.put("myFile", 1);
+        cache.persist();
+
+        final byte[] content = Files.readAllBytes(cacheFile.toPath());
+        assertEquals("CSC", new String(content, 0, 3, StandardCharsets.US_ASCII),
+                "Cache file should start with the binary format header");
+
+        final PropertyCacheFile loadedCache =
+                new PropertyCacheFile(config, cacheFile.getPath());
+        loadedCache.load();
+        assertTrue(loadedCache.isInCache("myFile", 1),
+                "Should return true when file is in loaded cache");
+        assertEquals(cache.get(PropertyCacheFile.CONFIG_HASH_KEY),
+                loadedCache.get(PropertyCacheFile.CONFIG_HASH_KEY), "Invalid config hash key");
+    }
+
+    @Test
+    public void testLoadPropertiesFormatInContentHashMode() throws IOException {
+        final Configuration config = new DefaultConfiguration("myName");
+        final File cacheFile = File.createTempFile("junit", null, temporaryFolder);
+        final PropertyCacheFile cache = new PropertyCacheFile(config, cacheFile.getPath());
+        cache.load();
+        cache.put("myFile", 1);
+        cache.persist();
+
+        final PropertyCacheFile loadedCache =
+                new PropertyCacheFile(config, cacheFile.getPath());
+        loadedCache.setContentHash(true);
+        loadedCache.load();
+        assertTrue(loadedCache.isInCache("myFile", 1),
+                "Should return true when file is in cache in properties format");
+    }
+
+    @Test
+    public void testLoadTruncatedBinaryFormat() throws IOException {
+        final Configuration config = new DefaultConfiguration("myName");
+        final File cacheFile = File.createTempFile("junit", null, temporaryFolder);
+        final PropertyCacheFile cache = new PropertyCacheFile(config, cacheFile.getPath());
+        cache.setContentHash(true);
+        cache.load();
+        cache.put("myFile", 1);
+        cache.persist();
+
+        final byte[] content = Files.readAllBytes(cacheFile.toPath());
+        Files.write(cacheFile.toPath(), Arrays.copyOf(content, content.length - 3));
+        final PropertyCacheFile loadedCache =
+                new PropertyCacheFile(config, cacheFile.getPath());
+        loadedCache.load();
+        assertFalse(loadedCache.isInCache("myFile", 1),
+                "Should return false when cache file is truncated");
+        assertEquals(cache.get(PropertyCacheFile.CONFIG_HASH_KEY),
+                loadedCache.get(PropertyCacheFile.CONFIG_HASH_KEY), "Invalid config hash key");
+    }
+
+    @Test
+    public void testLoadBinaryFormatWithInvalidLength() throws IOException {
+        final Configuration config = new DefaultConfiguration("myName");
+        final File cacheFile = File.createTempFile("junit", null, temporaryFolder);
+        final PropertyCacheFile cache = new PropertyCacheFile(config, cacheFile.getPath());
+        cache.setContentHash(true);
+        cache.load();
+        cache.persist();
+
+        for (int length : new int[] {-1, Integer.MAX_VALUE}) {
+            final ByteArrayOutputStream content = new ByteArrayOutputStream();
+            try (DataOutputStream stream = new DataOutputStream(content)) {
+                stream.write(new byte[] {'C', 'S', 'C', 0, 1});
+                stream.writeInt(1);
+                stream.writeInt(length);
+            }
+            Files.write(cacheFile.toPath(), content.toByteArray());
+            final PropertyCacheFile loadedCache =
+                    new PropertyCacheFile(config, cacheFile.getPath());
+            loadedCache.load();
+            assertEquals(cache.get(PropertyCacheFile.CONFIG_HASH_KEY),
+                    loadedCache.get(PropertyCacheFile.CONFIG_HASH_KEY),
+                    "Cache should be reset when a length is " + length);
+        }
+    }
+
+    @Test
+    public void testGetFileStamp() throws IOException {
+        final Configuration config = new DefaultConfiguration("myName");
+        final String filePath = File.createTempFile("junit", null, temporaryFolder).getPath();
+        final PropertyCacheFile cache = new PropertyCacheFile(config, filePath);
+        final File file = File.createTempFile("file", ".java", temporaryFolder);
+        Files.write(file.toPath(), "class A {}".getBytes(StandardCharsets.UTF_8));
+
+        final byte[] content = Files.readAllBytes(file.toPath());
+        assertEquals(file.lastModified(), cache.getFileStamp(file, content),
+                "Timestamp should be used by default");
+
+        cache.setContentHash(true);
+        final long stamp = cache.getFileStamp(file, content);
+        assertTrue(file.setLastModified(file.lastModified() - 10_000),
+                "Unable to change timestamp");
+        assertEquals(stamp, cache.getFileStamp(file, content),
+                "Content hash should not depend on timestamp");
+        assertNotEquals(stamp, cache.getFileStamp(file,
+                "class B {}".getBytes(StandardCharsets.UTF_8)),
+                "Content hash should depend on content");
+    }
+
+    @Test
+    public void testViolations() throws IOException {
+        final Configuration config = new DefaultConfiguration("myName");
+        final File cacheFile = File.createTempFile("junit", null, temporaryFolder);
+        final PropertyCacheFile cache = new PropertyCacheFile(config, cacheFile.getPath());
+        cache.setContentHash(true);
+        cache.load();
+        final SortedSet<LocalizedMessage> violations = new TreeSet<>();
+        violations.add(new LocalizedMessage(1, 2, "messages", "key",
+                new Object[] {"arg", 1}, SeverityLevel.WARNING, "moduleId", Checker.class,
+                null));
+        violations.add(new LocalizedMessage(3, 4, "messages", "key",
+                null, SeverityLevel.ERROR, null, Checker.class, "custom"));
+        violations.add(new LocalizedMessage(5, 6, "messages", "key",
+                new Object[] {BigInteger.TEN, 1.5, 'c', true}, SeverityLevel.INFO, null,
+                TreeWalker.class, null));
+        cache.put("myFile", 1);
+        cache.putViolations("myFile", violations);
+        cache.persist();
+
+        final PropertyCacheFile loadedCache =
+                new PropertyCacheFile(config, cacheFile.getPath());
+        loadedCache.load();
+        assertEquals(violations, loadedCache.getViolations("myFile"),
+                "Invalid violations");
+        assertTrue(loadedCache.getViolations("otherFile").isEmpty(),
+                "Violations should be empty when file has no violations");
+
+        loadedCache.putViolations("myFile", new TreeSet<>());
+        assertNull(loadedCache.get(PropertyCacheFile.VIOLATIONS_KEY_PREFIX + "myFile"),
+                "Violations should be removed");
+        loadedCache.putViolations("myFile", violations);
+        loadedCache.remove("myFile");
+        assertNull(loadedCache.get(PropertyCacheFile.VIOLATIONS_KEY_PREFIX + "myFile"),
+                "Violations should be removed with file");
+    }
+
+    @Test
+    public void testViolationsWithArgumentsOfOtherClasses() throws IOException {
+        final Configuration config = new DefaultConfiguration("myName");
+        final String filePath = File.createTempFile("junit", null, temporaryFolder).getPath();
+        final PropertyCacheFile cache = new PropertyCacheFile(config, filePath);
+        final Object object = new Object();
+        final SortedSet<LocalizedMessage> violations = new TreeSet<>();
+        violations.add(new LocalizedMessage(1, 2, "messages", "key",
+                new Object[] {object, new AtomicInteger(3), null}, SeverityLevel.WARNING, null,
+                Checker.class, null));
+        cache.put("myFile", 1);
+        cache.putViolations("myFile", violations);
+
+        final SortedSet<LocalizedMessage> restored = cache.getViolations("myFile");
+        assertEquals(1, restored.size(), "Invalid number of violations");
+        assertArrayEquals(new Object[] {object.toString(), 3.0, null},
+                restored.first().getArgs(), "Arguments should be restored as they are shown");
+    }
+
+    @Test
+    public void testViolationsOfModuleLoadedByModuleClassLoader() throws Exception {
+        final Configuration config = new DefaultConfiguration("myName");
+        final File cacheFile = File.createTempFile("junit", null, temporaryFolder);
+        final ClassLoader moduleClassLoader =
+                new ModuleClassLoader(NewlineAtEndOfFileCheck.class.getName());
+        final Class<?> sourceClass = Class.forName(NewlineAtEndOfFileCheck.class.getName(),
+                false, moduleClassLoader);
+        assertNotSame(NewlineAtEndOfFileCheck.class, sourceClass,
+                "Module should be loaded by the module class loader");
+        final SortedSet<LocalizedMessage> violations = new TreeSet<>();
+        violations.add(new LocalizedMessage(1, 2, "messages", "key", null,
+                SeverityLevel.WARNING, null, sourceClass, null));
+        final PropertyCacheFile cache = new PropertyCacheFile(config, cacheFile.getPath());
+        cache.load();
+        cache.put("myFile", 1);
+        cache.putViolations("myFile", violations);
+        cache.persist();
+
+        final PropertyCacheFile loadedCache =
+                new PropertyCacheFile(config, cacheFile.getPath());
+        loadedCache.setModuleClassLoader(moduleClassLoader);
+        loadedCache.load();
+        assertEquals(violations, loadedCache.getViolations("myFile"),
+                "Module should be resolved by the module class loader");
+    }
+
+    @Test
+    public void testViolationsBroken() throws IOException {
+        final Configuration config = new DefaultConfiguration("myName");
+        final File cacheFile = File.createTempFile("junit", null, temporaryFolder);
+        final PropertyCacheFile cache = new PropertyCacheFile(config, cacheFile.getPath());
+        cache.load();
+        final SortedSet<LocalizedMessage> violations = new TreeSet<>();
+        violations.add(new LocalizedMessage(1, 2, "messages", "key",
+                new Object[] {"arg"}, SeverityLevel.WARNING, null, Checker.class, null));
+        cache.putViolations("myFile", violations);
+        final String value = cache.get(PropertyCacheFile.VIOLATIONS_KEY_PREFIX + "myFile");
+        final byte[] bytes = BaseEncoding.base64().decode(value);
+
+        final Properties details = new Properties();
+        details.setProperty(PropertyCacheFile.CONFIG_HASH_KEY,
+                cache.get(PropertyCacheFile.CONFIG_HASH_KEY));
+        details.setProperty(PropertyCacheFile.VIOLATIONS_KEY_PREFIX + "brokenFile", "#");
+        details.setProperty(PropertyCacheFile.VIOLATIONS_KEY_PREFIX + "truncatedFile",
+                BaseEncoding.base64().encode(Arrays.copyOf(bytes, bytes.length - 1)));
+        details.setProperty(PropertyCacheFile.VIOLATIONS_KEY_PREFIX + "wrongSourceFile",
+                BaseEncoding.base64().encode(replace(bytes, Checker.class.getName(),
+                        "com.puppycrawl.tools.checkstyle.Chacker")));
+        details.setProperty(PropertyCacheFile.VIOLATIONS_KEY_PREFIX + "wrongArgumentFile",
+                BaseEncoding.base64().encode(replace(bytes, String.class.getName(),
+                        "java.lang.Strong")));
+        try (OutputStream out = Files.newOutputStream(cacheFile.toPath())) {
+            details.store(out, null);
+        }
+        cache.load();
+
+        assertNull(cache.getViolations("brokenFile"),
+                "Violations should not be restored from invalid value");
+        assertNull(cache.getViolations("truncatedFile"),
+                "Violations should not be restored from truncated value");
+        assertNull(cache.getViolations("wrongSourceFile"),
+                "Violations should not be restored with source which is not found");
+        assertNull(cache.getViolations("wrongArgumentFile"),
+                "Violations should not be restored with argument of unknown class");
+    }
+
+    private static byte[] replace(byte[] bytes, String target, String replacement) {
+        return new String(bytes, StandardCharsets.ISO_8859_1)
+                .replace(target, replacement)
+                .getBytes(StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * Loads a module itself instead of delegating to its parent, like a class loader
+     * of a plugin which loads custom checks.
+     */
+    private static final class ModuleClassLoader extends ClassLoader {
+
+        private final String moduleName;
+
+        /* package */ ModuleClassLoader(String moduleName) {
+            super(ModuleClassLoader.class.getClassLoader());
+            this.moduleName = moduleName;
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve)
+                throws ClassNotFoundException {
+            final Class<?> result;
+            if (moduleName.equals(name)) {
+                synchronized (getClassLoadingLock(name)) {
+                    final Class<?> loadedClass = findLoadedClass(name);
+                    if (loadedClass == null) {
+                        result = defineModule(name);
+                    }
+                    else {
+                        result = loadedClass;
+                    }
+                }
+            }
+            else {
+                result = super.loadClass(name, resolve);
+            }
+            return result;
+        }
+
+        private Class<?> defineModule(String name) throws ClassNotFoundException {
+            try (InputStream stream = getParent().getResourceAsStream(
+                    name.replace('.', '/') + ".class")) {
+                final byte[] bytes = ByteStreams.toByteArray(stream);
+                return defineClass(name, bytes, 0, bytes.length);
+            }
+            catch (IOException ex) {
+                throw new ClassNotFoundException(name, ex);
+            }
+        }
+
+    }
+
 }
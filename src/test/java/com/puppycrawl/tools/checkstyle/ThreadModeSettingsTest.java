@@ -22,7 +22,6 @@ package com.puppycrawl.tools.checkstyle;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.fail;
 
 import java.util.Set;
 
@@ -43,14 +42,8 @@ public class ThreadModeSettingsTest {
     public void testResolveCheckerInMultiThreadMode() {
         final ThreadModeSettings configuration = new ThreadModeSettings(2, 2);
 
-        try {
-            configuration.resolveName(ThreadModeSettings.CHECKER_MODULE_NAME);
-            fail("An exception is expected");
-        }
-        catch (IllegalArgumentException ex) {
-            assertEquals("Multi thread mode for Checker module is not implemented",
-                    ex.getMessage(), "Invalid exception message");
-        }
+        final String name = configuration.resolveName(ThreadModeSettings.CHECKER_MODULE_NAME);
+        assertEquals(ThreadModeSettings.CHECKER_MODULE_NAME, name, "Invalid name resolved");
     }
 
     @Test
@@ -65,14 +58,9 @@ public class ThreadModeSettingsTest {
     public void testResolveTreeWalker() {
         final ThreadModeSettings configuration = new ThreadModeSettings(2, 2);
 
-        try {
-            configuration.resolveName(ThreadModeSettings.TREE_WALKER_MODULE_NAME);
-            fail("Exception is expected");
-        }
-        catch (IllegalArgumentException ex) {
-            assertEquals("Multi thread mode for TreeWalker module is not implemented",
-                    ex.getMessage(), "Invalid exception message");
-        }
+        final String name =
+                configuration.resolveName(ThreadModeSettings.TREE_WALKER_MODULE_NAME);
+        assertEquals(ThreadModeSettings.TREE_WALKER_MODULE_NAME, name, "Invalid name resolved");
     }
 
     @Test
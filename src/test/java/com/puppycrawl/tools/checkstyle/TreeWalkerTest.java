@@ -21,6 +21,9 @@ package com.puppycrawl.tools.checkstyle;
 
 import static com.puppycrawl.tools.checkstyle.checks.naming.AbstractNameCheck.MSG_INVALID_PATTERN;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
@@ -34,6 +37,7 @@ import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -46,6 +50,7 @@ import com.puppycrawl.tools.checkstyle.api.AbstractCheck;
 import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
 import com.puppycrawl.tools.checkstyle.api.Configuration;
 import com.puppycrawl.tools.checkstyle.api.Context;
+import com.puppycrawl.tools.checkstyle.api.DetailAST;
 import com.puppycrawl.tools.checkstyle.api.FileContents;
 import com.puppycrawl.tools.checkstyle.api.FileText;
 import com.puppycrawl.tools.checkstyle.api.TokenTypes;
@@ -53,6 +58,8 @@ import com.puppycrawl.tools.checkstyle.checks.blocks.LeftCurlyCheck;
 import com.puppycrawl.tools.checkstyle.checks.coding.EmptyStatementCheck;
 import com.puppycrawl.tools.checkstyle.checks.coding.HiddenFieldCheck;
 import com.puppycrawl.tools.checkstyle.checks.indentation.CommentsIndentationCheck;
+import com.puppycrawl.tools.checkstyle.checks.javadoc.AbstractJavadocCheck;
+import com.puppycrawl.tools.checkstyle.checks.javadoc.AtclauseOrderCheck;
 import com.puppycrawl.tools.checkstyle.checks.javadoc.JavadocPackageCheck;
 import com.puppycrawl.tools.checkstyle.checks.javadoc.JavadocParagraphCheck;
 import com.puppycrawl.tools.checkstyle.checks.naming.ConstantNameCheck;
@@ -62,6 +69,7 @@ import com.puppycrawl.tools.checkstyle.filters.SuppressWithNearbyCommentFilter;
 import com.puppycrawl.tools.checkstyle.filters.SuppressionCommentFilter;
 import com.puppycrawl.tools.checkstyle.filters.SuppressionXpathFilter;
 import com.puppycrawl.tools.checkstyle.utils.CommonUtil;
+import com.puppycrawl.tools.checkstyle.utils.TokenUtil;
 
 public class TreeWalkerTest extends AbstractModuleTestSupport {
 
@@ -399,6 +407,124 @@ public class TreeWalkerTest extends AbstractModuleTestSupport {
                 expected);
     }
 
+    @Test
+    public void testMultiThreadMode() throws Exception {
+        final DefaultConfiguration filterConfig =
+                createModuleConfig(SuppressionCommentFilter.class);
+        filterConfig.addAttribute("checkCPP", "false");
+
+        final DefaultConfiguration treeWalkerConfig = new DefaultConfiguration(
+                TreeWalker.class.getName(), new ThreadModeSettings(1, 3));
+        treeWalkerConfig.addChild(createModuleConfig(MemberNameCheck.class));
+        treeWalkerConfig.addChild(createModuleConfig(TypeNameCheck.class));
+        treeWalkerConfig.addChild(createModuleConfig(ConstantNameCheck.class));
+        treeWalkerConfig.addChild(createModuleConfig(CommentsIndentationCheck.class));
+        treeWalkerConfig.addChild(createModuleConfig(HiddenFieldCheck.class));
+        treeWalkerConfig.addChild(filterConfig);
+
+        final DefaultConfiguration checkerConfig = createRootConfig(treeWalkerConfig);
+
+        final File file = new File(getPath("InputTreeWalkerSuppressionCommentFilter.java"));
+
+        final String[] expected = {
+            "9:17: " + getCheckMessage(MemberNameCheck.class, "name.invalidPattern", "P",
+                    "^[a-z][a-zA-Z0-9]*$"),
+            "4:17: " + getCheckMessage(MemberNameCheck.class, "name.invalidPattern", "I",
+                    "^[a-z][a-zA-Z0-9]*$"),
+        };
+
+        verify(checkerConfig,
+                file.getPath(),
+                expected);
+    }
+
+    @Test
+    public void testMultiThreadModeDistributesChecks() throws Exception {
+        final DefaultConfiguration treeWalkerConfig = new DefaultConfiguration(
+                TreeWalker.class.getName(), new ThreadModeSettings(1, 2));
+        treeWalkerConfig.addChild(createModuleConfig(MemberNameCheck.class));
+        treeWalkerConfig.addChild(createModuleConfig(TypeNameCheck.class));
+        treeWalkerConfig.addChild(createModuleConfig(ConstantNameCheck.class));
+        final TreeWalker treeWalker = new TreeWalker();
+        final PackageObjectFactory factory = new PackageObjectFactory(
+            new HashSet<>(), Thread.currentThread().getContextClassLoader());
+        treeWalker.setModuleFactory(factory);
+        treeWalker.configure(treeWalkerConfig);
+
+        final List<?> checkSets = Whitebox.getInternalState(treeWalker, "checkSets");
+        assertEquals(2, checkSets.size(), "Invalid number of check sets");
+        final Set<AbstractCheck> firstChecks =
+                Whitebox.getInternalState(checkSets.get(0), "ordinaryChecks");
+        final Set<AbstractCheck> secondChecks =
+                Whitebox.getInternalState(checkSets.get(1), "ordinaryChecks");
+        assertEquals(2, firstChecks.size(), "Invalid number of checks in the first set");
+        assertEquals(1, secondChecks.size(), "Invalid number of checks in the second set");
+    }
+
+    @Test
+    public void testMultiThreadModeKeepsJavadocChecksTogether() throws Exception {
+        final DefaultConfiguration treeWalkerConfig = new DefaultConfiguration(
+                TreeWalker.class.getName(), new ThreadModeSettings(1, 2));
+        treeWalkerConfig.addChild(createModuleConfig(CommentsIndentationCheck.class));
+        treeWalkerConfig.addChild(createModuleConfig(JavadocParagraphCheck.class));
+        treeWalkerConfig.addChild(createModuleConfig(AtclauseOrderCheck.class));
+        final TreeWalker treeWalker = new TreeWalker();
+        final PackageObjectFactory factory = new PackageObjectFactory(
+            new HashSet<>(), Thread.currentThread().getContextClassLoader());
+        treeWalker.setModuleFactory(factory);
+        treeWalker.configure(treeWalkerConfig);
+
+        final List<?> checkSets = Whitebox.getInternalState(treeWalker, "checkSets");
+        final Set<AbstractCheck> firstChecks =
+                Whitebox.getInternalState(checkSets.get(0), "commentChecks");
+        final Set<AbstractCheck> secondChecks =
+                Whitebox.getInternalState(checkSets.get(1), "commentChecks");
+        assertEquals(1, firstChecks.size(), "Invalid number of checks in the first set");
+        assertEquals(2, secondChecks.stream()
+                .filter(check -> check instanceof AbstractJavadocCheck).count(),
+                "Javadoc checks should be in the same set");
+    }
+
+    @Test
+    public void testMultiThreadModeRethrowsExceptionOfCheck() throws Exception {
+        final DefaultConfiguration treeWalkerConfig = new DefaultConfiguration(
+                TreeWalker.class.getName(), new ThreadModeSettings(1, 2));
+        treeWalkerConfig.addChild(createModuleConfig(MemberNameCheck.class));
+        treeWalkerConfig.addChild(createModuleConfig(CheckWhichThrowsError.class));
+        final DefaultConfiguration checkerConfig = createRootConfig(treeWalkerConfig);
+        final String filePath = getPath("InputTreeWalker.java");
+
+        try {
+            verify(checkerConfig, filePath);
+            fail("Exception is expected");
+        }
+        catch (CheckstyleException ex) {
+            assertEquals("Exception was thrown while processing " + filePath, ex.getMessage(),
+                    "Invalid exception message");
+            assertTrue(ex.getCause() instanceof IndexOutOfBoundsException,
+                    "Invalid exception cause");
+        }
+    }
+
+    @Test
+    public void testMultiThreadModeWaitsForOtherWalksOnException() throws Exception {
+        final DefaultConfiguration treeWalkerConfig = new DefaultConfiguration(
+                TreeWalker.class.getName(), new ThreadModeSettings(1, 2));
+        treeWalkerConfig.addChild(createModuleConfig(CheckWhichThrowsError.class));
+        treeWalkerConfig.addChild(createModuleConfig(SlowCheck.class));
+        final DefaultConfiguration checkerConfig = createRootConfig(treeWalkerConfig);
+        SlowCheck.FINISHED.set(false);
+
+        try {
+            verify(checkerConfig, getPath("InputTreeWalker.java"));
+            fail("Exception is expected");
+        }
+        catch (CheckstyleException ex) {
+            assertTrue(SlowCheck.FINISHED.get(),
+                    "Walk in the other thread should be finished before the exception");
+        }
+    }
+
     @Test
     public void testFinishLocalSetupFullyInitialized() {
         final TreeWalker treeWalker = new TreeWalker();
@@ -507,6 +633,103 @@ public class TreeWalkerTest extends AbstractModuleTestSupport {
         verify(checkerConfig, filePath, expected);
     }
 
+    @Test
+    public void testTreeIsSharedByTreeWalkers() throws Exception {
+        VerifySharedTreeCheck.resetRoots();
+        final DefaultConfiguration firstTreeWalkerConfig = createModuleConfig(TreeWalker.class);
+        firstTreeWalkerConfig.addChild(createModuleConfig(VerifySharedTreeCheck.class));
+        firstTreeWalkerConfig.addChild(createModuleConfig(VerifySharedTreeCommentCheck.class));
+        final DefaultConfiguration secondTreeWalkerConfig = createModuleConfig(TreeWalker.class);
+        secondTreeWalkerConfig.addChild(createModuleConfig(VerifySharedTreeCheck.class));
+        secondTreeWalkerConfig.addChild(createModuleConfig(VerifySharedTreeCommentCheck.class));
+        final DefaultConfiguration checkerConfig = createRootConfig(firstTreeWalkerConfig);
+        checkerConfig.addChild(secondTreeWalkerConfig);
+
+        final String[] expected = CommonUtil.EMPTY_STRING_ARRAY;
+        verify(checkerConfig, getPath("InputTreeWalkerSharedTree.java"), expected);
+
+        final List<DetailAST> roots = VerifySharedTreeCheck.getRoots();
+        assertEquals(4, roots.size(), "Invalid number of walked trees");
+        final DetailAST rootAST = roots.get(0);
+        final DetailAST rootWithComments = roots.get(1);
+        assertSame(rootAST, roots.get(2), "Tree should be shared");
+        assertSame(rootWithComments, roots.get(3), "Tree with comments should be shared");
+        assertEquals(TokenTypes.PACKAGE_DEF, rootAST.getType(), "Invalid root");
+        assertNull(rootAST.getPreviousSibling(), "Tree should not have comments");
+        assertEquals(TokenTypes.SINGLE_LINE_COMMENT, rootWithComments.getType(),
+                "Invalid root of tree with comments");
+    }
+
+    @Test
+    public void testSinglePassWalkOfBothTrees() throws Exception {
+        RecordWalkCheck.resetEvents();
+        final DefaultConfiguration treeWalkerConfig = createModuleConfig(TreeWalker.class);
+        treeWalkerConfig.addChild(createModuleConfig(RecordWalkCheck.class));
+        treeWalkerConfig.addChild(createModuleConfig(RecordWalkCommentCheck.class));
+        final DefaultConfiguration checkerConfig = createRootConfig(treeWalkerConfig);
+
+        final String[] expected = CommonUtil.EMPTY_STRING_ARRAY;
+        verify(checkerConfig, getPath("InputTreeWalkerSharedTree.java"), expected);
+
+        final List<String> events = RecordWalkCheck.getEvents();
+        final List<String> ordinaryEvents = new ArrayList<>();
+        final List<String> commentEvents = new ArrayList<>();
+        for (int index = 0; index < events.size(); index++) {
+            final String event = events.get(index);
+            if (event.startsWith("ordinary ")) {
+                final String nodeEvent = event.substring("ordinary ".length());
+                ordinaryEvents.add(nodeEvent);
+                assertEquals("comment " + nodeEvent, events.get(index - 1),
+                        "Ordinary check should be notified right after comment check");
+            }
+            else if (!event.contains("COMMENT")) {
+                commentEvents.add(event.substring("comment ".length()));
+            }
+        }
+        assertEquals(commentEvents, ordinaryEvents,
+                "Both trees should be walked in the same order");
+        assertEquals("visit PACKAGE_DEF 2:0", ordinaryEvents.get(0), "Invalid first event");
+        assertEquals("leave CLASS_DEF 5:0", ordinaryEvents.get(ordinaryEvents.size() - 1),
+                "Invalid last event");
+        assertTrue(events.contains("comment visit SINGLE_LINE_COMMENT 6:4"),
+                "Comment check should visit comments");
+    }
+
+    @Test
+    public void testSkippedSubtrees() throws Exception {
+        RecordWalkCheck.resetEvents();
+        final DefaultConfiguration checkConfig = createModuleConfig(RecordWalkSkippingCheck.class);
+        final String[] expected = CommonUtil.EMPTY_STRING_ARRAY;
+        verify(checkConfig, getPath("InputTreeWalkerSharedTree.java"), expected);
+
+        final List<String> events = RecordWalkCheck.getEvents();
+        assertTrue(events.contains("ordinary visit OBJBLOCK 5:39"),
+                "Root of skipped subtree should be visited");
+        assertTrue(events.contains("ordinary leave OBJBLOCK 5:39"),
+                "Root of skipped subtree should be left");
+        assertFalse(events.contains("ordinary visit LCURLY 5:39"),
+                "Skipped subtree should not be walked");
+        assertEquals("ordinary leave CLASS_DEF 5:0", events.get(events.size() - 1),
+                "Invalid last event");
+    }
+
+    @Test
+    public void testSubtreeSkippedOnlyByAllChecks() throws Exception {
+        RecordWalkCheck.resetEvents();
+        final DefaultConfiguration treeWalkerConfig = createModuleConfig(TreeWalker.class);
+        treeWalkerConfig.addChild(createModuleConfig(RecordWalkSkippingCheck.class));
+        treeWalkerConfig.addChild(createModuleConfig(RecordWalkCommentCheck.class));
+        final DefaultConfiguration checkerConfig = createRootConfig(treeWalkerConfig);
+        final String[] expected = CommonUtil.EMPTY_STRING_ARRAY;
+        verify(checkerConfig, getPath("InputTreeWalkerSharedTree.java"), expected);
+
+        final List<String> events = RecordWalkCheck.getEvents();
+        assertTrue(events.contains("ordinary visit LCURLY 5:39"),
+                "Subtree should be walked for the check which does not skip it");
+        assertTrue(events.contains("comment visit SINGLE_LINE_COMMENT 6:4"),
+                "Subtree should be walked for the check which does not skip it");
+    }
+
     public static class BadJavaDocCheck extends AbstractCheck {
 
         @Override
@@ -601,6 +824,181 @@ public class TreeWalkerTest extends AbstractModuleTestSupport {
 
     }
 
+    public static class VerifySharedTreeCheck extends AbstractCheck {
+
+        private static final List<DetailAST> ROOTS = new ArrayList<>();
+
+        @Override
+        public int[] getDefaultTokens() {
+            return CommonUtil.EMPTY_INT_ARRAY;
+        }
+
+        @Override
+        public int[] getAcceptableTokens() {
+            return getDefaultTokens();
+        }
+
+        @Override
+        public int[] getRequiredTokens() {
+            return getDefaultTokens();
+        }
+
+        @Override
+        public void beginTree(DetailAST rootAST) {
+            ROOTS.add(rootAST);
+        }
+
+        public static void resetRoots() {
+            ROOTS.clear();
+        }
+
+        public static List<DetailAST> getRoots() {
+            return new ArrayList<>(ROOTS);
+        }
+
+    }
+
+    public static class VerifySharedTreeCommentCheck extends VerifySharedTreeCheck {
+
+        @Override
+        public boolean isCommentNodesRequired() {
+            return true;
+        }
+
+    }
+
+    public static class RecordWalkCheck extends AbstractCheck {
+
+        private static final List<String> EVENTS = new ArrayList<>();
+
+        @Override
+        public int[] getDefaultTokens() {
+            return Arrays.stream(TokenUtil.getAllTokenIds())
+                    .filter(tokenId -> !TokenUtil.isCommentType(tokenId))
+                    .toArray();
+        }
+
+        @Override
+        public int[] getAcceptableTokens() {
+            return getDefaultTokens();
+        }
+
+        @Override
+        public int[] getRequiredTokens() {
+            return CommonUtil.EMPTY_INT_ARRAY;
+        }
+
+        @Override
+        public void visitToken(DetailAST ast) {
+            addEvent("visit", ast);
+        }
+
+        @Override
+        public void leaveToken(DetailAST ast) {
+            addEvent("leave", ast);
+        }
+
+        private void addEvent(String event, DetailAST ast) {
+            final String prefix;
+            if (isCommentNodesRequired()) {
+                prefix = "comment ";
+            }
+            else {
+                prefix = "ordinary ";
+            }
+            EVENTS.add(prefix + event + " " + TokenUtil.getTokenName(ast.getType())
+                    + " " + ast.getLineNo() + ":" + ast.getColumnNo());
+        }
+
+        public static void resetEvents() {
+            EVENTS.clear();
+        }
+
+        public static List<String> getEvents() {
+            return new ArrayList<>(EVENTS);
+        }
+
+    }
+
+    public static class RecordWalkCommentCheck extends RecordWalkCheck {
+
+        @Override
+        public int[] getDefaultTokens() {
+            return TokenUtil.getAllTokenIds();
+        }
+
+        @Override
+        public boolean isCommentNodesRequired() {
+            return true;
+        }
+
+    }
+
+    public static class RecordWalkSkippingCheck extends RecordWalkCheck {
+
+        @Override
+        public int[] getSkippedSubtreeTokens() {
+            return new int[] {TokenTypes.OBJBLOCK};
+        }
+
+    }
+
+    public static class CheckWhichThrowsError extends AbstractCheck {
+
+        @Override
+        public int[] getDefaultTokens() {
+            return new int[] {TokenTypes.CLASS_DEF};
+        }
+
+        @Override
+        public int[] getAcceptableTokens() {
+            return new int[] {TokenTypes.CLASS_DEF};
+        }
+
+        @Override
+        public int[] getRequiredTokens() {
+            return new int[] {TokenTypes.CLASS_DEF};
+        }
+
+        @Override
+        public void visitToken(DetailAST ast) {
+            throw new IndexOutOfBoundsException("test");
+        }
+
+    }
+
+    public static class SlowCheck extends AbstractCheck {
+
+        private static final AtomicBoolean FINISHED = new AtomicBoolean();
+
+        @Override
+        public int[] getDefaultTokens() {
+            return new int[] {TokenTypes.CLASS_DEF};
+        }
+
+        @Override
+        public int[] getAcceptableTokens() {
+            return new int[] {TokenTypes.CLASS_DEF};
+        }
+
+        @Override
+        public int[] getRequiredTokens() {
+            return new int[] {TokenTypes.CLASS_DEF};
+        }
+
+        @Override
+        public void finishTree(DetailAST rootAST) {
+            try {
+                Thread.sleep(500);
+            }
+            catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            FINISHED.set(true);
+        }
+
+    }
+
     public static class RequiredTokenIsEmptyIntArray extends AbstractCheck {
 
         @Override
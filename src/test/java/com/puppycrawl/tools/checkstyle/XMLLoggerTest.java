@@ -22,6 +22,7 @@ package com.puppycrawl.tools.checkstyle;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
@@ -82,6 +83,16 @@ public class XMLLoggerTest extends AbstractXmlTestSupport {
         outStream.close();
     }
 
+    @Test
+    public void testEncodeWithoutCharactersToEscape() {
+        final String value = "Name 'abc' must match pattern";
+        final String safeValue = value.replace('\'', '_');
+        assertSame(safeValue, XMLLogger.encode(safeValue),
+                "Value without characters to escape should not be copied");
+        assertEquals("Name &apos;abc&apos; must match pattern", XMLLogger.encode(value),
+                "Invalid encoded value");
+    }
+
     @Test
     public void testIsReference()
             throws IOException {
@@ -331,6 +342,30 @@ public class XMLLoggerTest extends AbstractXmlTestSupport {
         assertEquals(1, outStream.getCloseCount(), "Invalid close count");
     }
 
+    @Test
+    public void testConcurrentFiles() throws Exception {
+        final XMLLogger logger = new XMLLogger(outStream, OutputStreamOptions.CLOSE);
+        logger.auditStarted(null);
+        final LocalizedMessage message =
+                new LocalizedMessage(1, 1,
+                        "messages.properties", "key", null, SeverityLevel.ERROR, null,
+                        getClass(), null);
+        final AuditEvent firstEvent = new AuditEvent(this, "Test.java", message);
+        final AuditEvent secondEvent = new AuditEvent(this, "Test2.java", message);
+        final AuditEvent noFileEvent = new AuditEvent(this, null, message);
+        logger.fileStarted(firstEvent);
+        logger.addError(firstEvent);
+        logger.fileStarted(secondEvent);
+        logger.addError(secondEvent);
+        logger.addError(noFileEvent);
+        logger.fileFinished(secondEvent);
+        logger.addError(firstEvent);
+        logger.fileFinished(firstEvent);
+        logger.auditFinished(null);
+        verifyXml(getPath("ExpectedXMLLoggerConcurrentFiles.xml"), outStream,
+                message.getMessage());
+    }
+
     @Test
     public void testAuditFinishedWithoutFileFinished() throws Exception {
         final XMLLogger logger = new XMLLogger(outStream, OutputStreamOptions.CLOSE);
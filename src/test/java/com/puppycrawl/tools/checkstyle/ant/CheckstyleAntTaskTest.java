@@ -27,6 +27,7 @@ import static org.hamcrest.CoreMatchers.startsWith;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
@@ -696,6 +697,98 @@ public class CheckstyleAntTaskTest extends AbstractPathTestSupport {
         assertTrue(TestRootModuleChecker.isProcessed(), "Checker is not processed");
     }
 
+    @Test
+    public void testCheckerThreadsNumber() throws IOException {
+        final Project project = new Project();
+        for (int threads = 1; threads <= 2; threads++) {
+            final CheckstyleAntTask antTask = getCheckstyleAntTask();
+            antTask.setProject(project);
+            antTask.setCheckerThreadsNumber(threads);
+            for (String input : new String[] {VIOLATED_INPUT, WARNING_INPUT, FLAWLESS_INPUT}) {
+                final FileSet fileSet = new FileSet();
+                fileSet.setFile(new File(getPath(input)));
+                antTask.addFileset(fileSet);
+            }
+            antTask.setFailOnViolation(false);
+            antTask.setFailureProperty("threads" + threads);
+            antTask.execute();
+
+            assertEquals("Got 2 errors and 1 warnings.", project.getProperty("threads" + threads),
+                    "Number of errors is unexpected with " + threads + " threads");
+        }
+    }
+
+    @Test
+    public void testInvalidCheckerThreadsNumber() throws IOException {
+        final CheckstyleAntTask antTask = getCheckstyleAntTask();
+        antTask.setFile(new File(getPath(FLAWLESS_INPUT)));
+        antTask.setCheckerThreadsNumber(0);
+        try {
+            antTask.execute();
+            fail("Exception is expected");
+        }
+        catch (BuildException ex) {
+            assertEquals("Checker threads number must be greater than zero.", ex.getMessage(),
+                    "Error message is unexpected");
+        }
+    }
+
+    @Test
+    public void testReuseConfiguration() throws IOException {
+        final Project project = new Project();
+        final CheckstyleAntTaskLogStub first = getReusingAntTask(project, "first", null);
+        first.execute();
+        final CheckstyleAntTaskLogStub second = getReusingAntTask(project, "second", null);
+        second.execute();
+        final CheckstyleAntTaskLogStub otherProperty =
+                getReusingAntTask(project, "otherProperty", "warning");
+        otherProperty.execute();
+
+        assertEquals(0, getReuseLogCount(first), "Configuration should be loaded");
+        assertEquals(1, getReuseLogCount(second), "Configuration should be reused");
+        assertEquals(0, getReuseLogCount(otherProperty),
+                "Configuration should be loaded for other properties");
+        assertEquals("Got 2 errors and 0 warnings.", project.getProperty("first"),
+                "Number of errors is unexpected");
+        assertEquals(project.getProperty("first"), project.getProperty("second"),
+                "Reused configuration should find the same errors");
+        assertEquals("Got 0 errors and 2 warnings.", project.getProperty("otherProperty"),
+                "Number of errors is unexpected");
+
+        assertNotNull(project.getReference("checkstyle.reusableConfiguration"),
+                "Configuration should be kept by the project");
+        project.fireBuildFinished(null);
+        assertNull(project.getReference("checkstyle.reusableConfiguration"),
+                "Configuration should be removed when the build finishes");
+        assertTrue(project.getBuildListeners().isEmpty(),
+                "Configuration should not listen to the project anymore");
+    }
+
+    private CheckstyleAntTaskLogStub getReusingAntTask(Project project, String failureProperty,
+            String lineLengthSeverity) throws IOException {
+        final CheckstyleAntTaskLogStub antTask = new CheckstyleAntTaskLogStub();
+        antTask.setConfig(getPath(CONFIG_FILE));
+        antTask.setProject(project);
+        antTask.setFile(new File(getPath(VIOLATED_INPUT)));
+        antTask.setReuseConfiguration(true);
+        antTask.setMaxWarnings(0);
+        antTask.setFailOnViolation(false);
+        antTask.setFailureProperty(failureProperty);
+        if (lineLengthSeverity != null) {
+            final CheckstyleAntTask.Property property = new CheckstyleAntTask.Property();
+            property.setKey("lineLength.severity");
+            property.setValue(lineLengthSeverity);
+            antTask.addProperty(property);
+        }
+        return antTask;
+    }
+
+    private static long getReuseLogCount(CheckstyleAntTaskLogStub antTask) {
+        return antTask.getLoggedMessages().stream()
+                .filter(msg -> msg.startsWith("Reusing configuration"))
+                .count();
+    }
+
     private static class CheckstyleAntTaskLogStub extends CheckstyleAntTask {
 
         private final List<String> loggedMessages = new ArrayList<>();
@@ -22,7 +22,6 @@ package com.puppycrawl.tools.checkstyle.api;
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
-import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.fail;
 
 import java.io.File;
@@ -30,18 +29,25 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.powermock.reflect.Whitebox;
 
 import com.puppycrawl.tools.checkstyle.AbstractPathTestSupport;
 import com.puppycrawl.tools.checkstyle.internal.utils.CheckUtil;
+import com.puppycrawl.tools.checkstyle.utils.CommonUtil;
 
 public class FileTextTest extends AbstractPathTestSupport {
 
+    @TempDir
+    public File temporaryFolder;
+
     @Override
     protected String getPackageLocation() {
         return "com/puppycrawl/tools/checkstyle/api/filetext";
@@ -102,7 +108,8 @@ public class FileTextTest extends AbstractPathTestSupport {
         final String filepath = getPath("InputFileTextImportControl.xml");
         final FileText fileText = new FileText(new File(filepath), charset.name());
         final FileText copy = new FileText(fileText);
-        assertNull(Whitebox.getInternalState(copy, "lineBreaks"), "LineBreaks not null");
+        assertNotNull(Whitebox.getInternalState(copy, "lineBreaks"),
+                "LineBreaks should be found when the file is read");
         final LineColumn lineColumn = copy.lineColumn(100);
         assertEquals(3, lineColumn.getLine(), "Invalid line");
         if (CheckUtil.CRLF.equals(CheckUtil.getLineSeparatorForFile(filepath, charset))) {
@@ -124,6 +131,104 @@ public class FileTextTest extends AbstractPathTestSupport {
         assertEquals(0, lineColumn.getColumn(), "Invalid column");
     }
 
+    @Test
+    public void testLinesAreCreatedWhenRequested() throws IOException {
+        final File file = File.createTempFile("junit", null, temporaryFolder);
+        Files.write(file.toPath(), "a\r\nb\rc\n\r\nd".getBytes(StandardCharsets.US_ASCII));
+        final FileText fileText = new FileText(file, StandardCharsets.UTF_8.name());
+
+        assertEquals(5, fileText.size(), "Invalid number of lines");
+        assertArrayEquals(new String[5], Whitebox.getInternalState(fileText, "lines"),
+                "Lines should not be created before requested");
+        assertEquals("c", fileText.get(2), "Invalid line");
+        assertEquals("", fileText.get(3), "Invalid line");
+        assertArrayEquals(new String[] {null, null, "c", "", null},
+                Whitebox.getInternalState(fileText, "lines"),
+                "Only requested lines should be created");
+        assertArrayEquals(new String[] {"a", "b", "c", "", "d"}, fileText.toLinesArray(),
+                "Invalid lines");
+        assertEquals(new LineColumn(5, 0), fileText.lineColumn(9), "Invalid line column");
+    }
+
+    @Test
+    public void testTerminatorAtEndOfFile() throws IOException {
+        final File file = File.createTempFile("junit", null, temporaryFolder);
+        Files.write(file.toPath(), "a\n\r".getBytes(StandardCharsets.US_ASCII));
+        final FileText fileText = new FileText(file, StandardCharsets.UTF_8.name());
+
+        assertArrayEquals(new String[] {"a", ""}, fileText.toLinesArray(), "Invalid lines");
+
+        final File emptyFile = File.createTempFile("junit", null, temporaryFolder);
+        assertEquals(0, new FileText(emptyFile, StandardCharsets.UTF_8.name()).size(),
+                "Empty file should have no lines");
+    }
+
+    @Test
+    public void testNonAsciiText() throws IOException {
+        final File file = File.createTempFile("junit", null, temporaryFolder);
+        final byte[] malformed = {'a', (byte) 0xFF, '\n'};
+        final String nonAscii = "\u00e4\u20ac";
+        Files.write(file.toPath(), (nonAscii + '\n').getBytes(StandardCharsets.UTF_8));
+        Files.write(file.toPath(), malformed, StandardOpenOption.APPEND);
+
+        final FileText utf8 = new FileText(file, StandardCharsets.UTF_8.name());
+        assertArrayEquals(new String[] {nonAscii, "a" + '\ufffd'}, utf8.toLinesArray(),
+                "Invalid decoded lines");
+        final FileText latin1 = new FileText(file, StandardCharsets.ISO_8859_1.name());
+        assertEquals("a" + '\u00ff', latin1.get(1), "Invalid decoded line");
+    }
+
+    @Test
+    public void testReadContent() throws IOException {
+        final File file = File.createTempFile("junit", null, temporaryFolder);
+        final String nonAscii = "\u00e4";
+        final byte[] content = ("a\r\n" + nonAscii + '\n').getBytes(StandardCharsets.UTF_8);
+        Files.write(file.toPath(), content);
+
+        final FileText expected = new FileText(file, StandardCharsets.UTF_8.name());
+        final FileText fileText = new FileText(file, content, StandardCharsets.UTF_8.name());
+        assertEquals(file, fileText.getFile(), "Invalid file");
+        assertEquals(expected.getFullText(), fileText.getFullText(), "Invalid text");
+        assertArrayEquals(expected.toLinesArray(), fileText.toLinesArray(), "Invalid lines");
+
+        try {
+            final Object test = new FileText(file, content, "STRANGE_CHARSET");
+            fail("IllegalStateException is expected but got " + test);
+        }
+        catch (IllegalStateException ex) {
+            assertEquals("Unsupported charset: STRANGE_CHARSET", ex.getMessage(),
+                    "Invalid exception message");
+        }
+    }
+
+    @Test
+    public void testTabsAndExpandedLengths() throws IOException {
+        final File file = File.createTempFile("junit", null, temporaryFolder);
+        final String emoji = "\ud83d\ude00";
+        final List<String> lines = Arrays.asList("a\tbc", "no tabs", "", emoji + "\t\tx",
+                "\t" + emoji, emoji + emoji + "y");
+        Files.write(file.toPath(), String.join("\r\n", lines).getBytes(StandardCharsets.UTF_8));
+        final FileText fileText = new FileText(file, StandardCharsets.UTF_8.name());
+
+        assertEquals(-1, fileText.indexOfTab(1), "Invalid tab index");
+        assertEquals(7, fileText.lengthExpandedTabs(1, 4), "Invalid expanded length");
+        assertArrayEquals(new String[lines.size()], Whitebox.getInternalState(fileText, "lines"),
+                "Lines should not be created to find tabs or lengths");
+        for (FileText text : new FileText[] {fileText, new FileText(file, lines)}) {
+            for (int lineNo = 0; lineNo < lines.size(); lineNo++) {
+                final String line = lines.get(lineNo);
+                assertEquals(line.indexOf('\t'), text.indexOfTab(lineNo),
+                        "Invalid tab index of line " + lineNo);
+                for (int tabWidth : new int[] {4, 8}) {
+                    assertEquals(CommonUtil.lengthExpandedTabs(line,
+                            line.codePointCount(0, line.length()), tabWidth),
+                            text.lengthExpandedTabs(lineNo, tabWidth),
+                            "Invalid expanded length of line " + lineNo);
+                }
+            }
+        }
+    }
+
     @Test
     public void testLines() throws IOException {
         final List<String> lines = Collections.singletonList("abc");
@@ -28,13 +28,19 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.net.URL;
 import java.net.URLConnection;
 import java.net.URLStreamHandler;
+import java.text.MessageFormat;
 import java.util.Arrays;
 import java.util.Locale;
 import java.util.Map;
@@ -314,6 +320,44 @@ public class LocalizedMessageTest {
         assertEquals(0, bundleCache.size(), "Invalid bundle cache size");
     }
 
+    @DefaultLocale("fr")
+    @Test
+    public void testFormatCache() {
+        LocalizedMessage.setLocale(Locale.ROOT);
+        final Map<String, MessageFormat> formatCache = Whitebox
+                .<ThreadLocal<Map<String, MessageFormat>>>getInternalState(
+                        LocalizedMessage.class, "FORMAT_CACHE").get();
+        formatCache.clear();
+
+        assertEquals("Empty statement.", createSampleLocalizedMessage().getMessage(),
+                "Invalid message");
+        assertEquals("Empty statement.", createSampleLocalizedMessageWithLine(2).getMessage(),
+                "Invalid message");
+        assertEquals(1, formatCache.size(), "Invalid format cache size");
+    }
+
+    @DefaultLocale("fr")
+    @Test
+    public void testMessageIsFormattedOnce() throws Exception {
+        LocalizedMessage.setLocale(Locale.ROOT);
+        final LocalizedMessage localizedMessage = createSampleLocalizedMessage();
+        final String message = localizedMessage.getMessage();
+
+        assertSame(message, localizedMessage.getMessage(), "Message should be formatted once");
+
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream output = new ObjectOutputStream(bytes)) {
+            output.writeObject(localizedMessage);
+        }
+        try (ObjectInputStream input =
+                new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            final LocalizedMessage deserialized = (LocalizedMessage) input.readObject();
+            assertNull(Whitebox.getInternalState(deserialized, "message"),
+                    "Formatted message should not be serialized");
+            assertEquals(message, deserialized.getMessage(), "Invalid message");
+        }
+    }
+
     @Test
     public void testTokenType() {
         final LocalizedMessage localizedMessage1 = new LocalizedMessage(1, 1, TokenTypes.CLASS_DEF,
@@ -29,12 +29,15 @@ import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.powermock.reflect.Whitebox;
 
 import com.puppycrawl.tools.checkstyle.AbstractModuleTestSupport;
@@ -47,6 +50,9 @@ import com.puppycrawl.tools.checkstyle.utils.CommonUtil;
 public class NewlineAtEndOfFileCheckTest
     extends AbstractModuleTestSupport {
 
+    @TempDir
+    public File temporaryFolder;
+
     @Override
     protected String getPackageLocation() {
         return "com/puppycrawl/tools/checkstyle/checks/newlineatendoffile";
@@ -222,6 +228,23 @@ public class NewlineAtEndOfFileCheckTest
                 "Violation message differs from expected");
     }
 
+    @Test
+    public void testFileIsNotReopened() throws Exception {
+        final DefaultConfiguration checkConfig = createModuleConfig(NewlineAtEndOfFileCheck.class);
+        checkConfig.addAttribute("lineSeparator", LineSeparatorOption.LF.toString());
+        final NewlineAtEndOfFileCheck check = new NewlineAtEndOfFileCheck();
+        check.configure(checkConfig);
+        final File file = File.createTempFile("junit", null, temporaryFolder);
+        Files.write(file.toPath(), "txt\r\n".getBytes(StandardCharsets.US_ASCII));
+        final FileText fileText = new FileText(file, StandardCharsets.UTF_8.name());
+        assertEquals(true, file.delete(), "File should be deleted");
+
+        final Set<LocalizedMessage> messages = check.process(file, fileText);
+        assertEquals(1, messages.size(), "Amount of messages is unexpected");
+        assertEquals(getCheckMessage(MSG_KEY_WRONG_ENDING), messages.iterator().next()
+                .getMessage(), "Violation message differs from expected");
+    }
+
     @Test
     public void testWrongSeparatorLength() throws Exception {
         try (RandomAccessFile file =
@@ -230,6 +230,31 @@ public class SuppressWarningsHolderTest extends AbstractModuleTestSupport {
         assertTrue(SuppressWarningsHolder.isSuppressed(event), "Event is not suppressed");
     }
 
+    @Test
+    public void testIsSuppressedByOneOfManyRegions() throws Exception {
+        populateHolder("check", 30, 5, 40, 0);
+        populateHolder("check", 10, 1, 20, 1);
+        populateHolder("check", 12, 3, 14, 2);
+        populateHolder("other", 20, 0, 30, 0);
+
+        assertTrue(SuppressWarningsHolder.isSuppressed(createAuditEvent("check", 13, 1)),
+                "Event is not suppressed");
+        assertTrue(SuppressWarningsHolder.isSuppressed(createAuditEvent("check", 15, 10)),
+                "Event is not suppressed");
+        assertFalse(SuppressWarningsHolder.isSuppressed(createAuditEvent("check", 25, 5)),
+                "Event is suppressed");
+        assertTrue(SuppressWarningsHolder.isSuppressed(createAuditEvent("check", 30, 0)),
+                "Event is not suppressed");
+        assertFalse(SuppressWarningsHolder.isSuppressed(createAuditEvent("check", 30, 4)),
+                "Event is suppressed");
+        assertTrue(SuppressWarningsHolder.isSuppressed(createAuditEvent("check", 40, 0)),
+                "Event is not suppressed");
+        assertFalse(SuppressWarningsHolder.isSuppressed(createAuditEvent("check", 40, 1)),
+                "Event is suppressed");
+        assertTrue(SuppressWarningsHolder.isSuppressed(createAuditEvent("other", 25, 5)),
+                "Event is not suppressed");
+    }
+
     @Test
     public void testIsSuppressedWithAllArgument() throws Exception {
         populateHolder("all", 100, 100, 350, 350);
@@ -29,6 +29,7 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
 import java.io.BufferedReader;
+import java.io.File;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
@@ -37,17 +38,23 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import org.junit.jupiter.api.Test;
+import org.powermock.reflect.Whitebox;
 
 import com.puppycrawl.tools.checkstyle.AbstractModuleTestSupport;
 import com.puppycrawl.tools.checkstyle.Checker;
 import com.puppycrawl.tools.checkstyle.DefaultConfiguration;
+import com.puppycrawl.tools.checkstyle.JavaParser;
 import com.puppycrawl.tools.checkstyle.api.AuditEvent;
 import com.puppycrawl.tools.checkstyle.api.AuditListener;
 import com.puppycrawl.tools.checkstyle.api.Configuration;
+import com.puppycrawl.tools.checkstyle.api.DetailAST;
+import com.puppycrawl.tools.checkstyle.api.FileContents;
+import com.puppycrawl.tools.checkstyle.api.FileText;
 import com.puppycrawl.tools.checkstyle.utils.CommonUtil;
 
 /**
@@ -166,6 +173,23 @@ public class IndentationCheckTest extends AbstractModuleTestSupport {
         verify(checker, filePath, expected);
     }
 
+    private static int walk(IndentationCheck check, DetailAST ast,
+            Map<DetailAST, AbstractExpressionHandler> createdHandlers) {
+        int result = 0;
+        for (DetailAST node = ast; node != null; node = node.getNextSibling()) {
+            final boolean handled = check.getHandlerFactory().isHandledType(node.getType());
+            if (handled) {
+                check.visitToken(node);
+            }
+            result = Math.max(result, createdHandlers.size());
+            result = Math.max(result, walk(check, node.getFirstChild(), createdHandlers));
+            if (handled) {
+                check.leaveToken(node);
+            }
+        }
+        return result;
+    }
+
     @Override
     protected String getPackageLocation() {
         return "com/puppycrawl/tools/checkstyle/checks/indentation/indentation";
@@ -193,6 +217,27 @@ public class IndentationCheckTest extends AbstractModuleTestSupport {
         assertArrayEquals(expected, acceptableTokens, "Default acceptable tokens are invalid");
     }
 
+    @Test
+    public void testCreatedHandlersAreReleased() throws Exception {
+        final FileText fileText = new FileText(
+                new File(getPath("InputIndentationChainedMethodCalls.java")),
+                StandardCharsets.UTF_8.name());
+        final DetailAST rootAst = JavaParser.parseFileText(fileText,
+                JavaParser.Options.WITHOUT_COMMENTS);
+        final IndentationCheck check = new IndentationCheck();
+        check.configure(createModuleConfig(IndentationCheck.class));
+        check.setFileContents(new FileContents(fileText));
+        final Map<DetailAST, AbstractExpressionHandler> createdHandlers =
+                Whitebox.getInternalState(check.getHandlerFactory(), "createdHandlers");
+
+        check.beginTree(rootAst);
+        final int maxCreatedHandlers = walk(check, rootAst, createdHandlers);
+        check.finishTree(rootAst);
+
+        assertTrue(maxCreatedHandlers > 0, "Handlers should be created ahead of their nodes");
+        assertTrue(createdHandlers.isEmpty(), "Handlers should be released when visited");
+    }
+
     @Test
     public void testThrowsIndentProperty() {
         final IndentationCheck indentationCheck = new IndentationCheck();
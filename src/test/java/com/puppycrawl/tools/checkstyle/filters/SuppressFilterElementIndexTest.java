@@ -0,0 +1,158 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2021 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle.filters;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+
+import com.puppycrawl.tools.checkstyle.api.AuditEvent;
+import com.puppycrawl.tools.checkstyle.api.FilterSet;
+import com.puppycrawl.tools.checkstyle.api.LocalizedMessage;
+import com.puppycrawl.tools.checkstyle.checks.naming.ConstantNameCheck;
+import com.puppycrawl.tools.checkstyle.checks.naming.MemberNameCheck;
+
+public class SuppressFilterElementIndexTest {
+
+    @Test
+    public void testGetRequiredLiteral() {
+        final String[][] literals = {
+            {null, ""},
+            {"", ""},
+            {"Input", "Input"},
+            {"[\\\\/]src[\\\\/]main[\\\\/]Input\\.java$", "Input.java"},
+            {"^abc\\.d+ef", "abc.d"},
+            {"abcd?ef", "abc"},
+            {"ab*cdef", "cdef"},
+            {"abc{2}de", "ab"},
+            {"[a[b]c]de", "de"},
+            {"ab\\dcd", "ab"},
+            {"ab\\\\cd", "ab\\cd"},
+            {"abcd.e", "abcd"},
+            {"(abc)d", ""},
+            {"abc|def", ""},
+            {"\\Qabc\\E", ""},
+            {"\\x41bcd", ""},
+        };
+        for (String[] literal : literals) {
+            assertEquals(literal[1], SuppressFilterElementIndex.getRequiredLiteral(literal[0]),
+                    "Invalid literal of " + literal[0]);
+        }
+    }
+
+    @Test
+    public void testAcceptSameAsFilterSet() {
+        final FilterSet filterSet = new FilterSet();
+        filterSet.addFilter(new SuppressFilterElement("Input\\.java", "ConstantName", null,
+                null, null, null));
+        filterSet.addFilter(new SuppressFilterElement("[\\\\/]other[\\\\/]", null, null,
+                null, "10", null));
+        filterSet.addFilter(new SuppressFilterElement("ab?c", "MemberName", null,
+                null, null, null));
+        filterSet.addFilter(new SuppressFilterElement(null, null, "msg", null, null, null));
+        filterSet.addFilter(new SuppressFilterElement("Input", null, null, "moduleId",
+                null, null));
+        final SuppressFilterElementIndex index = new SuppressFilterElementIndex(filterSet);
+
+        final String[] fileNames = {
+            "/src/Input.java", "/other/Input.java", "/other/ac.java", "/src/ac.java",
+            "/src/Other.java", "/src/abc.java",
+        };
+        final Class<?>[] sources = {ConstantNameCheck.class, MemberNameCheck.class};
+        for (String fileName : fileNames) {
+            for (Class<?> source : sources) {
+                for (int line = 9; line <= 10; line++) {
+                    verifySameResult(filterSet, index, fileName, source, line);
+                }
+            }
+        }
+        assertTrue(index.accept(new AuditEvent(this, "/src/Input.java")),
+                "Event without message should be accepted");
+    }
+
+    @Test
+    public void testAcceptFromSeveralThreads() throws Exception {
+        final FilterSet filterSet = new FilterSet();
+        filterSet.addFilter(new SuppressFilterElement("Input\\.java", "ConstantName", null,
+                null, null, null));
+        filterSet.addFilter(new SuppressFilterElement("Other\\.java", "MemberName", null,
+                null, "10", null));
+        final SuppressFilterElementIndex index = new SuppressFilterElementIndex(filterSet);
+
+        final String[] fileNames = {"/src/Input.java", "/src/Other.java", "/src/abc.java"};
+        final ExecutorService executor = Executors.newFixedThreadPool(fileNames.length);
+        try {
+            final List<Future<?>> results = new ArrayList<>();
+            for (String fileName : fileNames) {
+                results.add(executor.submit(() -> {
+                    for (int iteration = 0; iteration < 100; iteration++) {
+                        for (int line = 9; line <= 10; line++) {
+                            verifySameResult(filterSet, index, fileName,
+                                    ConstantNameCheck.class, line);
+                            verifySameResult(filterSet, index, fileName,
+                                    MemberNameCheck.class, line);
+                        }
+                    }
+                }));
+            }
+            for (Future<?> result : results) {
+                result.get();
+            }
+        }
+        finally {
+            executor.shutdown();
+        }
+    }
+
+    private void verifySameResult(FilterSet filterSet, SuppressFilterElementIndex index,
+            String fileName, Class<?> source, int line) {
+        for (String moduleId : new String[] {null, "moduleId"}) {
+            for (String message : new String[] {"msg", "other"}) {
+                final LocalizedMessage localizedMessage = new LocalizedMessage(
+                        line, 1, "", message, null, null, moduleId, source, message);
+                final AuditEvent event = new AuditEvent(this, fileName, localizedMessage);
+                assertEquals(filterSet.accept(event), index.accept(event),
+                        "Invalid result for " + fileName + " " + source + " "
+                                + line + " " + moduleId + " " + message);
+            }
+        }
+    }
+
+    @Test
+    public void testOtherFilters() {
+        final FilterSet filterSet = new FilterSet();
+        filterSet.addFilter(event -> !"Rejected.java".equals(event.getFileName()));
+        final SuppressFilterElementIndex index = new SuppressFilterElementIndex(filterSet);
+
+        assertFalse(index.accept(new AuditEvent(this, "Rejected.java")),
+                "Event should be rejected by the other filter");
+        assertTrue(index.accept(new AuditEvent(this, "Accepted.java")),
+                "Event should be accepted by the other filter");
+    }
+
+}
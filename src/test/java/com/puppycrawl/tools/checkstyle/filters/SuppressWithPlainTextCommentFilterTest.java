@@ -23,17 +23,22 @@ import static com.google.common.truth.Truth.assertWithMessage;
 import static com.puppycrawl.tools.checkstyle.checks.whitespace.FileTabCharacterCheck.MSG_CONTAINS_TAB;
 import static com.puppycrawl.tools.checkstyle.checks.whitespace.FileTabCharacterCheck.MSG_FILE_CONTAINS_TAB;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
+import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.stream.Collectors;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.powermock.reflect.Whitebox;
 
 import com.puppycrawl.tools.checkstyle.AbstractModuleTestSupport;
@@ -54,6 +59,9 @@ public class SuppressWithPlainTextCommentFilterTest extends AbstractModuleTestSu
 
     private static final String MSG_REGEXP_EXCEEDED = "regexp.exceeded";
 
+    @TempDir
+    public File temporaryFolder;
+
     @Override
     protected String getPackageLocation() {
         return "com/puppycrawl/tools/checkstyle/filters/suppresswithplaintextcommentfilter";
@@ -725,6 +733,38 @@ public class SuppressWithPlainTextCommentFilterTest extends AbstractModuleTestSu
         assertTrue(filter.accept(event), "filter should accept directory");
     }
 
+    @Test
+    public void testSuppressionsAreFoundOncePerFile() throws IOException {
+        final SuppressWithPlainTextCommentFilter filter = new SuppressWithPlainTextCommentFilter();
+        final File file = File.createTempFile("junit", null, temporaryFolder);
+        Files.write(file.toPath(), Arrays.asList(
+                "a", "// CHECKSTYLE:OFF", "b", "// CHECKSTYLE:ON", "c", "// CHECKSTYLE:OFF", "d"));
+        final ThreadLocal<?> fileSuppressions =
+                Whitebox.getInternalState(filter, "fileSuppressions");
+
+        assertTrue(filter.accept(getEvent(file, 1)), "Event before suppression is accepted");
+        final Object suppressions = fileSuppressions.get();
+        assertFalse(filter.accept(getEvent(file, 2)), "Event on suppression is rejected");
+        assertFalse(filter.accept(getEvent(file, 3)), "Suppressed event is rejected");
+        assertTrue(filter.accept(getEvent(file, 4)), "Event on end is accepted");
+        assertTrue(filter.accept(getEvent(file, 5)), "Event after end is accepted");
+        assertFalse(filter.accept(getEvent(file, 7)), "Suppressed event is rejected");
+        assertSame(suppressions, fileSuppressions.get(),
+                "Suppressions should be found once per file");
+
+        Files.write(file.toPath(), Arrays.asList("a", "// CHECKSTYLE:OFF", "b", "c"));
+        assertTrue(file.setLastModified(file.lastModified() + 1000),
+                "Modification time should be set");
+        assertFalse(filter.accept(getEvent(file, 4)),
+                "Suppressions should be found again in modified file");
+    }
+
+    private static AuditEvent getEvent(File file, int line) {
+        return new AuditEvent(file, file.getPath(), new LocalizedMessage(line, 1,
+                "bundle", "key", null, SeverityLevel.ERROR, null,
+                FileTabCharacterCheck.class, "customMessage"));
+    }
+
     private void verifySuppressed(String fileNameWithExtension, String[] violationMessages,
                                   Configuration... childConfigs) throws Exception {
         final DefaultConfiguration checkerConfig = createRootConfig(null);
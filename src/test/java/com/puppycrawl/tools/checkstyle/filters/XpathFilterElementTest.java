@@ -21,19 +21,23 @@ package com.puppycrawl.tools.checkstyle.filters;
 
 import static com.google.common.truth.Truth.assertWithMessage;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
 import java.io.File;
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.regex.Pattern;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.powermock.reflect.Whitebox;
 
 import com.puppycrawl.tools.checkstyle.AbstractModuleTestSupport;
 import com.puppycrawl.tools.checkstyle.JavaParser;
 import com.puppycrawl.tools.checkstyle.TreeWalkerAuditEvent;
+import com.puppycrawl.tools.checkstyle.api.DetailAST;
 import com.puppycrawl.tools.checkstyle.api.FileContents;
 import com.puppycrawl.tools.checkstyle.api.FileText;
 import com.puppycrawl.tools.checkstyle.api.LocalizedMessage;
@@ -309,20 +313,74 @@ public class XpathFilterElementTest extends AbstractModuleTestSupport {
                 xpathEvaluator.createExpression("//METHOD_DEF"),
                 xpathEvaluator.createExpression("//VARIABLE_DEF"))
                 .usingGetClass()
-                .withIgnoredFields("fileRegexp", "checkRegexp", "messageRegexp", "xpathExpression")
+                .withIgnoredFields("fileRegexp", "checkRegexp", "messageRegexp", "xpathExpression",
+                    "matchingNodes")
                 .report();
         assertWithMessage("Error: " + ev.getMessage())
                 .that(ev.isSuccessful())
                 .isTrue();
     }
 
+    @Test
+    public void testQueryEvaluatedOncePerTree() throws Exception {
+        final String xpath = "//VARIABLE_DEF[./IDENT[@text='pi'] or "
+                + "./IDENT[@text='someVariable'] and ../../IDENT[@text='sum']]";
+        final XpathFilterElement filter = new XpathFilterElement(
+                "InputXpathFilterElementSuppressByXpath", "Test", null, null, xpath);
+        final XpathFilterElement otherFilter = new XpathFilterElement(
+                "InputXpathFilterElementSuppressByXpath", "Test", null, null,
+                "//METHOD_DEF[./IDENT[@text='sum']]");
+        final DetailAST rootAst = JavaParser.parseFile(file, JavaParser.Options.WITHOUT_COMMENTS);
+        assertFalse(filter.accept(getEvent(5, 8, TokenTypes.VARIABLE_DEF, rootAst)),
+                "Event should be rejected");
+        assertTrue(filter.accept(getEvent(10, 8, TokenTypes.VARIABLE_DEF, rootAst)),
+                "Event should be accepted");
+        assertTrue(filter.accept(getEvent(15, 8, TokenTypes.METHOD_DEF, rootAst)),
+                "Event should be accepted");
+        assertFalse(otherFilter.accept(getEvent(14, 4, TokenTypes.METHOD_DEF, rootAst)),
+                "Event should be rejected");
+        assertFalse(filter.accept(getEvent(15, 8, TokenTypes.VARIABLE_DEF, rootAst)),
+                "Event should be rejected");
+    }
+
+    @Test
+    public void testQueryEvaluatedForNextTree() throws Exception {
+        final XpathFilterElement filter = new XpathFilterElement(
+                null, "Test", null, null, "/CLASS_DEF");
+        final DetailAST rootAst = JavaParser.parseFile(file, JavaParser.Options.WITHOUT_COMMENTS);
+        final DetailAST nextRootAst = JavaParser.parseFileText(
+                new FileText(file, Arrays.asList("class Next {", "}")),
+                JavaParser.Options.WITHOUT_COMMENTS);
+        assertTrue(filter.accept(getEvent(1, 0, TokenTypes.CLASS_DEF, rootAst)),
+                "Event should be accepted");
+        assertFalse(filter.accept(getEvent(1, 0, TokenTypes.CLASS_DEF, nextRootAst)),
+                "Event should be rejected");
+        assertFalse(filter.accept(getEvent(3, 0, TokenTypes.CLASS_DEF, rootAst)),
+                "Event should be rejected");
+    }
+
+    @Test
+    public void testQueryNotKeptWithoutTree() throws Exception {
+        final XpathFilterElement filter = new XpathFilterElement(
+                null, "Test", null, null, "()");
+        assertTrue(filter.accept(getEvent(1, 0, TokenTypes.CLASS_DEF, null)),
+                "Event should be accepted");
+        final ThreadLocal<?> matchingNodes = Whitebox.getInternalState(filter, "matchingNodes");
+        assertNull(matchingNodes.get(), "Nodes of an event without tree should not be kept");
+    }
+
     private TreeWalkerAuditEvent getEvent(int line, int column, int tokenType)
             throws Exception {
+        return getEvent(line, column, tokenType,
+                JavaParser.parseFile(file, JavaParser.Options.WITHOUT_COMMENTS));
+    }
+
+    private TreeWalkerAuditEvent getEvent(int line, int column, int tokenType,
+            DetailAST rootAst) {
         final LocalizedMessage message =
                 new LocalizedMessage(line, column, tokenType, "", "", null, null, null,
                         getClass(), null);
-        return new TreeWalkerAuditEvent(fileContents, file.getName(), message,
-                JavaParser.parseFile(file, JavaParser.Options.WITHOUT_COMMENTS));
+        return new TreeWalkerAuditEvent(fileContents, file.getName(), message, rootAst);
     }
 
 }
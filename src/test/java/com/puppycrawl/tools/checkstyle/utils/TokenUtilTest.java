@@ -299,6 +299,19 @@ public class TokenUtilTest {
                 "Should return true when valid type passed");
     }
 
+    @Test
+    public void testGetTypeDeclarationTokenIds() {
+        final int[] tokenIds = TokenUtil.getTypeDeclarationTokenIds();
+        assertEquals(5, tokenIds.length, "Invalid number of type declarations");
+        for (int tokenId : tokenIds) {
+            assertTrue(TokenUtil.isTypeDeclaration(tokenId),
+                    "Should return type declaration: " + TokenUtil.getTokenName(tokenId));
+        }
+        tokenIds[0] = TokenTypes.IMPORT;
+        assertTrue(TokenUtil.isTypeDeclaration(TokenUtil.getTypeDeclarationTokenIds()[0]),
+                "Should return a copy");
+    }
+
     @Test
     public void testIsOfTypeTrue() {
         final int type = TokenTypes.LITERAL_CATCH;
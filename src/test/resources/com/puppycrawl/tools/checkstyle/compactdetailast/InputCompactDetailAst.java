@@ -0,0 +1,22 @@
+// comment before package
+package com.puppycrawl.tools.checkstyle.compactdetailast;
+
+import java.util.List; // trailing comment
+
+/** Javadoc. */
+public class InputCompactDetailAst {
+    /* block comment */
+    int field;
+
+    // comment before method
+    void method(List<String> list) {
+        int a = 1 + /* inner */ 2 + 3;
+        for (String item : list) {
+            // nothing
+        }
+    }
+
+    static class Inner {
+    }
+}
+// comment at the end
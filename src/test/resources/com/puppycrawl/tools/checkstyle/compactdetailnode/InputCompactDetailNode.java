@@ -0,0 +1,19 @@
+package com.puppycrawl.tools.checkstyle.compactdetailnode;
+
+public class InputCompactDetailNode {
+
+    /** First line with <b>bold</b> text.
+     *
+     * <p>A paragraph with {@code code}, {@link Object#equals(Object) equals} and
+     * <ul><li>item</li><li>another <i>item</i></li></ul>
+     *
+     * @param value the value, see {@link #method(int)}
+     * @return the <code>result</code>
+     * @throws IllegalStateException never
+     * @see Object
+     */
+    int method(int value) {
+        return value;
+    }
+
+}
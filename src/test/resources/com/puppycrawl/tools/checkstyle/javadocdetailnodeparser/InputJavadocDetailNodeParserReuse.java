@@ -0,0 +1,45 @@
+package com.puppycrawl.tools.checkstyle.javadocdetailnodeparser;
+
+/**
+ * Comments parsed one after another by the same parser.
+ */
+public class InputJavadocDetailNodeParserReuse {
+
+    /**
+     * Unclosed <pre> tag {@code inline
+     */
+    void unclosedPreTag() {}
+
+    /**
+     * <b>Bold</b> and <i>italic</i>.
+     *
+     * @param value the value
+     */
+    void afterUnclosedPreTag(int value) {}
+
+    /**
+     * Missed <div> close <b> tag </div>.
+     */
+    void missedCloseTag() {}
+
+    /**
+     * Wrong singleton </br> tag.
+     */
+    void wrongSingletonTag() {}
+
+    /**
+     * <p>Non-tight paragraph
+     * <ul><li>item</ul>
+     */
+    void nonTightTags() {}
+
+    /**
+     * {@link Object#equals(Object) equals} after errors.
+     *
+     * @return nothing
+     */
+    int afterErrors() {
+        return 0;
+    }
+
+}
@@ -0,0 +1,7 @@
+// comment before package
+package com.puppycrawl.tools.checkstyle.treewalker;
+
+/** Javadoc. */
+public class InputTreeWalkerSharedTree {
+    // comment in class
+}